@@ -8,26 +8,197 @@ import androidx.datastore.preferences.core.PreferencesKeys;
 import androidx.datastore.preferences.rxjava3.RxPreferenceDataStoreBuilder;
 import androidx.datastore.rxjava3.RxDataStore;
 
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.Histogram;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
 
 /**
  * ConfigurationHandler
  * Handles app configuration using Jetpack DataStore (Preferences) with RxJava3.
  * Supports CRUD operations for multiple data types.
+ *
+ * Every DataStore transaction rewrites the whole preferences file, so related writes should
+ * go through {@link #edit(Editor)}, or enable a coalescing window with
+ * {@link #setWriteCoalescingWindow(long)} to merge bursts of single puts.
+ *
+ * Reads share one upstream subscription to DataStore. Per-key streams only emit when that
+ * key's value changes, and the getXOnce methods answer from the latest in-memory snapshot,
+ * which every completed commit updates before its Single emits. If DataStore fails, the
+ * current readers get the error and the next reader opens a fresh subscription.
  */
 public class DataStoreConfigurationHandler {
 
     private static final String DATASTORE_NAME = "app_config";
+
+    private static final Counter READS = MetricsRegistry.counter(MetricNames.DATASTORE_READS);
+    private static final Counter SNAPSHOT_HITS = MetricsRegistry.counter(MetricNames.DATASTORE_SNAPSHOT_HITS);
+    private static final Counter COMMITS = MetricsRegistry.counter(MetricNames.DATASTORE_COMMITS);
+    private static final Counter COMMIT_ERRORS = MetricsRegistry.counter(MetricNames.DATASTORE_COMMIT_ERRORS);
+    private static final Histogram COMMIT_MS = MetricsRegistry.histogram(MetricNames.DATASTORE_COMMIT_MS);
     private final RxDataStore<Preferences> dataStore;
 
+    // Marks a pending removal in the coalescing buffer
+    private static final Object REMOVED = new Object();
+    // Stands in for a missing key in the per-key streams (Rx does not allow nulls)
+    private static final Object ABSENT = new Object();
+
+    // Single shared upstream; stays connected once the first reader arrives. Cleared when it
+    // fails, so the next reader reconnects instead of getting the replayed error.
+    private volatile Flowable<Preferences> sharedData;
+    private final Map<Preferences.Key<?>, Flowable<Object>> keyStreams = new ConcurrentHashMap<>();
+    private volatile Preferences snapshot;
+
+    private final Object pendingLock = new Object();
+    private Batch pending;
+    // The timer that closes the current coalescing window
+    private Disposable pendingFlush;
+    private long coalescingWindowMs;
+
     public DataStoreConfigurationHandler(Context context) {
         // Initialize RxDataStore
         dataStore = new RxPreferenceDataStoreBuilder(context, DATASTORE_NAME).build();
     }
 
+    private Flowable<Preferences> shared() {
+        Flowable<Preferences> stream = sharedData;
+        if (stream == null) {
+            synchronized (this) {
+                if (sharedData == null) {
+                    sharedData = dataStore.data()
+                            .doOnNext(prefs -> snapshot = prefs)
+                            // Each stream fails at most once, while it is still the current one
+                            .doOnError(error -> sharedData = null)
+                            .replay(1)
+                            .autoConnect();
+                }
+                stream = sharedData;
+            }
+        }
+        return stream;
+    }
+
+    /**
+     * Loads the store into the shared in-memory snapshot so later reads do not wait on disk.
+     */
+    public Completable warmUp() {
+        return shared().firstOrError().ignoreElement();
+    }
+
+    // --- BATCH Operations ---
+
+    /**
+     * Collects several puts/removes and applies them in a single transaction (one file write).
+     */
+    public interface Editor {
+        void edit(Batch batch);
+    }
+
+    /**
+     * Runs all changes made by the editor in one DataStore transaction. Coalesced changes
+     * still waiting for their window are written first in the same transaction, so the
+     * editor's changes win over older single puts.
+     *
+     * @return A Single that emits the stored preferences once the write has completed.
+     */
+    public Single<Preferences> edit(Editor editor) {
+        Batch batch;
+        synchronized (pendingLock) {
+            batch = drainPending();
+        }
+        if (batch == null) {
+            batch = new Batch();
+        }
+        editor.edit(batch);
+        return commit(batch);
+    }
+
+    /**
+     * Enables write coalescing: single puts/removes issued within the window are merged into
+     * one transaction. Pass 0 to write every call immediately (default).
+     */
+    public void setWriteCoalescingWindow(long windowMs) {
+        synchronized (pendingLock) {
+            coalescingWindowMs = Math.max(0L, windowMs);
+        }
+        if (windowMs <= 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes any coalesced changes now instead of waiting for the window to close.
+     */
+    public void flush() {
+        Batch toWrite;
+        synchronized (pendingLock) {
+            toWrite = drainPending();
+        }
+        if (toWrite != null) {
+            commit(toWrite);
+        }
+    }
+
+    /**
+     * Takes the coalesced batch and cancels its timer, so a stale timer cannot close the
+     * next window early. Caller holds pendingLock.
+     */
+    private Batch drainPending() {
+        Batch drained = pending;
+        pending = null;
+        if (pendingFlush != null) {
+            pendingFlush.dispose();
+            pendingFlush = null;
+        }
+        return drained;
+    }
+
+    private Single<Preferences> commit(Batch batch) {
+        if (batch.isEmpty()) {
+            return shared().firstOrError();
+        }
+        COMMITS.increment();
+        long start = System.nanoTime();
+        Single<Preferences> result = dataStore.updateDataAsync(prefsIn -> {
+            MutablePreferences mutablePrefs = prefsIn.toMutablePreferences();
+            batch.applyTo(mutablePrefs);
+            return Single.just(mutablePrefs);
+        }).doOnSuccess(prefs -> snapshot = prefs);  // read-your-writes for getXOnce
+        // The update runs whether or not the caller subscribes; this only observes its outcome
+        result.subscribe(prefs -> COMMIT_MS.recordMillisSince(start), error -> COMMIT_ERRORS.increment());
+        return result;
+    }
+
+    /**
+     * Routes a single change either straight to DataStore or into the coalescing buffer.
+     */
+    private void enqueue(Preferences.Key<?> key, Object value) {
+        synchronized (pendingLock) {
+            if (coalescingWindowMs > 0) {
+                if (pending == null) {
+                    pending = new Batch();
+                    pendingFlush = SchedulerWrapper.io().scheduleDirect(this::flush, coalescingWindowMs, TimeUnit.MILLISECONDS);
+                }
+                pending.set(key, value);
+                return;
+            }
+        }
+        Batch single = new Batch();
+        single.set(key, value);
+        commit(single);
+    }
+
     // --- CREATE / UPDATE Operations ---
 
     public void putString(String key, String value) {
@@ -47,11 +218,7 @@ public class DataStoreConfigurationHandler {
     }
 
     private <T> void update(Preferences.Key<T> key, T value) {
-        dataStore.updateDataAsync(prefsIn -> {
-            MutablePreferences mutablePrefs = prefsIn.toMutablePreferences();
-            mutablePrefs.set(key, value);
-            return Single.just(mutablePrefs);
-        });
+        enqueue(key, value);
     }
 
     // --- READ Operations (Observe stream of changes) ---
@@ -68,25 +235,64 @@ public class DataStoreConfigurationHandler {
         return observe(PreferencesKeys.booleanKey(key), defaultValue);
     }
 
+    @SuppressWarnings("unchecked")
     private <T> Flowable<T> observe(Preferences.Key<T> key, T defaultValue) {
-        return dataStore.data().map(prefs -> {
-            T value = prefs.get(key);
-            return value != null ? value : defaultValue;
-        });
+        return keyStream(key).map(value -> value != ABSENT ? (T) value : defaultValue);
+    }
+
+    /**
+     * One shared, replaying stream per key that only emits when the key's value changes.
+     */
+    private Flowable<Object> keyStream(Preferences.Key<?> key) {
+        Flowable<Object> stream = keyStreams.get(key);
+        if (stream == null) {
+            stream = Flowable.defer(this::shared)
+                    .map(prefs -> {
+                        Object value = prefs.get(key);
+                        return value != null ? value : ABSENT;
+                    })
+                    .distinctUntilChanged()
+                    .replay(1)
+                    .refCount();
+            Flowable<Object> existing = keyStreams.putIfAbsent(key, stream);
+            if (existing != null) {
+                stream = existing;
+            }
+        }
+        return stream;
     }
 
     // --- READ Operations (Fetch once asynchronously) ---
 
     public Single<String> getStringOnce(String key, String defaultValue) {
-        return fetchOnce(PreferencesKeys.stringKey(key), defaultValue);
+        return fetchOnce(PreferencesKeys.stringKey(key), String.class, defaultValue);
     }
 
     public Single<Integer> getIntOnce(String key, int defaultValue) {
-        return fetchOnce(PreferencesKeys.intKey(key), defaultValue);
+        return fetchOnce(PreferencesKeys.intKey(key), Integer.class, defaultValue);
     }
 
-    private <T> Single<T> fetchOnce(Preferences.Key<T> key, T defaultValue) {
-        return dataStore.data()
+    /**
+     * Answers from the in-memory snapshot once the shared stream is warm; the first call
+     * waits for DataStore to load and keeps the stream connected afterwards. A coalesced
+     * change still waiting for its window wins over both.
+     */
+    private <T> Single<T> fetchOnce(Preferences.Key<T> key, Class<T> type, T defaultValue) {
+        READS.increment();
+        synchronized (pendingLock) {
+            if (pending != null && pending.contains(key)) {
+                // A value of another type under the same name reads as missing
+                Object value = pending.get(key);
+                return Single.just(type.isInstance(value) ? type.cast(value) : defaultValue);
+            }
+        }
+        Preferences current = snapshot;
+        if (current != null) {
+            SNAPSHOT_HITS.increment();
+            T value = current.get(key);
+            return Single.just(value != null ? value : defaultValue);
+        }
+        return shared()
                 .firstOrError()
                 .map(prefs -> {
                     T value = prefs.get(key);
@@ -99,7 +305,7 @@ public class DataStoreConfigurationHandler {
      * Retrieve all configurations as a Map.
      */
     public Flowable<Map<Preferences.Key<?>, Object>> getAllConfigs() {
-        return dataStore.data().map(Preferences::asMap);
+        return shared().map(Preferences::asMap);
     }
 
     // --- DELETE Operations ---
@@ -113,18 +319,129 @@ public class DataStoreConfigurationHandler {
     }
 
     private <T> void remove(Preferences.Key<T> key) {
-        dataStore.updateDataAsync(prefsIn -> {
-            MutablePreferences mutablePrefs = prefsIn.toMutablePreferences();
-            mutablePrefs.remove(key);
-            return Single.just(mutablePrefs);
-        });
+        enqueue(key, REMOVED);
     }
 
+    /**
+     * Wipes the store. Goes through the same commit as every other write, so the getXOnce
+     * snapshot and the commit metrics follow it.
+     */
     public void clearAllConfigs() {
-        dataStore.updateDataAsync(prefsIn -> {
-            MutablePreferences mutablePrefs = prefsIn.toMutablePreferences();
-            mutablePrefs.clear();
-            return Single.just(mutablePrefs);
-        });
+        synchronized (pendingLock) {
+            // Pending changes would be wiped anyway
+            drainPending();
+        }
+        commit(new Batch().clear());
+    }
+
+    /**
+     * An ordered set of changes applied in one transaction. Later changes to the same key win.
+     */
+    public static class Batch {
+        private final Map<Preferences.Key<?>, Object> changes = new LinkedHashMap<>();
+        private boolean clearFirst;
+
+        public Batch putString(String key, String value) {
+            return set(PreferencesKeys.stringKey(key), value);
+        }
+
+        public Batch putInt(String key, int value) {
+            return set(PreferencesKeys.intKey(key), value);
+        }
+
+        public Batch putBoolean(String key, boolean value) {
+            return set(PreferencesKeys.booleanKey(key), value);
+        }
+
+        public Batch putLong(String key, long value) {
+            return set(PreferencesKeys.longKey(key), value);
+        }
+
+        public Batch putFloat(String key, float value) {
+            return set(PreferencesKeys.floatKey(key), value);
+        }
+
+        /**
+         * Stores a String, Integer, Boolean, Long or Float under the matching key type.
+         */
+        public Batch put(String key, Object value) {
+            if (value instanceof String) {
+                return putString(key, (String) value);
+            } else if (value instanceof Integer) {
+                return putInt(key, (Integer) value);
+            } else if (value instanceof Boolean) {
+                return putBoolean(key, (Boolean) value);
+            } else if (value instanceof Long) {
+                return putLong(key, (Long) value);
+            } else if (value instanceof Float) {
+                return putFloat(key, (Float) value);
+            }
+            throw new IllegalArgumentException("Unsupported type for key " + key + ": " + value);
+        }
+
+        /**
+         * Removes a key whatever its type (DataStore keys are matched by name).
+         */
+        public Batch remove(String key) {
+            return set(PreferencesKeys.stringKey(key), REMOVED);
+        }
+
+        public Batch removeString(String key) {
+            return set(PreferencesKeys.stringKey(key), REMOVED);
+        }
+
+        public Batch removeInt(String key) {
+            return set(PreferencesKeys.intKey(key), REMOVED);
+        }
+
+        /**
+         * Clears the store before the other changes in this batch are applied.
+         */
+        public Batch clear() {
+            changes.clear();
+            clearFirst = true;
+            return this;
+        }
+
+        Batch set(Preferences.Key<?> key, Object value) {
+            changes.remove(key);
+            changes.put(key, value);
+            return this;
+        }
+
+        boolean isEmpty() {
+            return !clearFirst && changes.isEmpty();
+        }
+
+        /**
+         * True if applying this batch decides the key's value.
+         */
+        boolean contains(Preferences.Key<?> key) {
+            return clearFirst || changes.containsKey(key);
+        }
+
+        /**
+         * The key's value after this batch is applied, or null if it is removed. Only valid
+         * when {@link #contains} is true.
+         */
+        Object get(Preferences.Key<?> key) {
+            Object value = changes.get(key);
+            return value != REMOVED ? value : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        void applyTo(MutablePreferences prefs) {
+            if (clearFirst) {
+                prefs.clear();
+            }
+            for (Map.Entry<Preferences.Key<?>, Object> change : changes.entrySet()) {
+                Preferences.Key<Object> key = (Preferences.Key<Object>) change.getKey();
+                if (change.getValue() == REMOVED) {
+                    prefs.remove(key);
+                } else {
+                    prefs.set(key, change.getValue());
+                }
+            }
+        }
     }
 }
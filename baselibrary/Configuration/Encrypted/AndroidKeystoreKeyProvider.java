@@ -0,0 +1,82 @@
+package com.rohit.baselibrary;
+
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+/**
+ * AndroidKeystoreKeyProvider
+ * Keeps the AES and HMAC keys inside the Android Keystore (created on first use).
+ * The key material never leaves the keystore; handles are looked up once and cached.
+ */
+public class AndroidKeystoreKeyProvider implements KeyProvider {
+
+    private static final String KEYSTORE = "AndroidKeyStore";
+
+    private final String aesAlias;
+    private final String macAlias;
+    private volatile SecretKey encryptionKey;
+    private volatile SecretKey macKey;
+
+    public AndroidKeystoreKeyProvider(String aliasPrefix) {
+        this.aesAlias = aliasPrefix + "_aes";
+        this.macAlias = aliasPrefix + "_hmac";
+    }
+
+    @Override
+    public SecretKey getEncryptionKey() {
+        SecretKey key = encryptionKey;
+        if (key == null) {
+            synchronized (this) {
+                if (encryptionKey == null) {
+                    encryptionKey = loadOrCreate(aesAlias, KeyProperties.KEY_ALGORITHM_AES,
+                            new KeyGenParameterSpec.Builder(aesAlias,
+                                    KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                                    .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                                    .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                                    .setKeySize(256)
+                                    .build());
+                }
+                key = encryptionKey;
+            }
+        }
+        return key;
+    }
+
+    @Override
+    public SecretKey getMacKey() {
+        SecretKey key = macKey;
+        if (key == null) {
+            synchronized (this) {
+                if (macKey == null) {
+                    macKey = loadOrCreate(macAlias, KeyProperties.KEY_ALGORITHM_HMAC_SHA256,
+                            new KeyGenParameterSpec.Builder(macAlias, KeyProperties.PURPOSE_SIGN).build());
+                }
+                key = macKey;
+            }
+        }
+        return key;
+    }
+
+    private static SecretKey loadOrCreate(String alias, String algorithm, KeyGenParameterSpec spec) {
+        try {
+            KeyStore keyStore = KeyStore.getInstance(KEYSTORE);
+            keyStore.load(null);
+            KeyStore.Entry entry = keyStore.getEntry(alias, null);
+            if (entry instanceof KeyStore.SecretKeyEntry) {
+                return ((KeyStore.SecretKeyEntry) entry).getSecretKey();
+            }
+            KeyGenerator generator = KeyGenerator.getInstance(algorithm, KEYSTORE);
+            generator.init(spec);
+            return generator.generateKey();
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Unable to access keystore key " + alias, e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.rohit.baselibrary;
+
+import android.util.Base64;
+import android.util.Log;
+
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * EncryptedConfigBackend
+ * Encrypts another ConfigBackend at rest (e.g. SharedPreferences or DataStore).
+ *
+ * Stored key  = Base64(HMAC-SHA256(name)), so key names are not readable on disk.
+ * Stored value = Base64(iv | AES-GCM(name, type, value)) with the stored key as associated
+ * data, so values cannot be swapped between keys.
+ *
+ * Decryption only happens in loadAll(); wrap this backend in a {@link CachedConfigStore} and
+ * every later read is served from the decrypted in-memory cache. Cipher and Mac instances
+ * are created once per thread and reused, and a write encrypts its whole batch in one pass.
+ *
+ * write() returns at once: encryption, key hashing (Keystore calls with
+ * AndroidKeystoreKeyProvider) and the delegate's write run on {@link SchedulerWrapper#single()},
+ * one write after another, so writes reach the delegate in call order and never cost the
+ * caller's thread, typically main.
+ */
+public class EncryptedConfigBackend implements ConfigBackend {
+
+    private static final String TAG = "EncryptedConfigBackend";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final int TAG_LENGTH_BYTES = TAG_LENGTH_BITS / 8;
+    // Same encodings as java.util.Base64's basic and URL-safe unpadded encoders, so existing
+    // entries stay readable; android.util.Base64 also works below API 26
+    private static final int VALUE_FLAGS = Base64.NO_WRAP;
+    private static final int NAME_FLAGS = Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP;
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_FLOAT = 5;
+
+    private final ConfigBackend delegate;
+    private final KeyProvider keyProvider;
+    // HMAC is deterministic, so each name is only hashed once
+    private final Map<String, String> storedNames = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            try {
+                return Cipher.getInstance(TRANSFORMATION);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final ThreadLocal<Mac> macs = new ThreadLocal<Mac>() {
+        @Override
+        protected Mac initialValue() {
+            try {
+                Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(keyProvider.getMacKey());
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    public EncryptedConfigBackend(ConfigBackend delegate, KeyProvider keyProvider) {
+        this.delegate = delegate;
+        this.keyProvider = keyProvider;
+    }
+
+    @Override
+    public Map<String, ?> loadAll() {
+        Map<String, ?> stored = delegate.loadAll();
+        Map<String, Object> values = new HashMap<>(stored.size() * 2);
+        for (Map.Entry<String, ?> entry : stored.entrySet()) {
+            if (!(entry.getValue() instanceof String)) {
+                continue;
+            }
+            try {
+                decryptInto(entry.getKey(), (String) entry.getValue(), values);
+            } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+                // Foreign or corrupted entry: skip it rather than fail the whole load
+                Log.w(TAG, "Skipping undecryptable entry " + entry.getKey());
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public Completable write(boolean clearFirst, Map<String, Object> puts, Set<String> removals) {
+        // Copied now: the caller may reuse its collections once write() returns
+        Map<String, Object> plainPuts = new HashMap<>(puts);
+        Set<String> plainRemovals = new HashSet<>(removals);
+        Completable result = Completable.defer(() -> encryptAndWrite(clearFirst, plainPuts, plainRemovals))
+                .subscribeOn(SchedulerWrapper.single())
+                .cache();
+        // Start now, as the ConfigBackend contract requires; callers may ignore the result
+        result.subscribe(() -> { }, error -> Log.e(TAG, "Encrypted write failed", error));
+        return result;
+    }
+
+    private Completable encryptAndWrite(boolean clearFirst, Map<String, Object> puts, Set<String> removals) {
+        Map<String, Object> encrypted = new HashMap<>(puts.size() * 2);
+        Set<String> encryptedRemovals = new HashSet<>(removals.size() * 2);
+        try {
+            for (Map.Entry<String, Object> entry : puts.entrySet()) {
+                String storedName = storedName(entry.getKey());
+                encrypted.put(storedName, encrypt(storedName, entry.getKey(), entry.getValue()));
+            }
+        } catch (GeneralSecurityException | IOException e) {
+            return Completable.error(e);
+        }
+        for (String key : removals) {
+            encryptedRemovals.add(storedName(key));
+        }
+        return delegate.write(clearFirst, encrypted, encryptedRemovals);
+    }
+
+    /**
+     * The name a key is stored under in the delegate backend.
+     */
+    public String storedName(String name) {
+        String stored = storedNames.get(name);
+        if (stored == null) {
+            byte[] digest = macs.get().doFinal(name.getBytes(StandardCharsets.UTF_8));
+            stored = Base64.encodeToString(digest, NAME_FLAGS);
+            storedNames.put(name, stored);
+        }
+        return stored;
+    }
+
+    private String encrypt(String storedName, String name, Object value)
+            throws GeneralSecurityException, IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(plain);
+        out.writeUTF(name);
+        if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat((Float) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported type for key " + name + ": " + value);
+        }
+        out.flush();
+
+        Cipher cipher = ciphers.get();
+        // No IV passed in: the provider (or keystore) generates a fresh random one
+        cipher.init(Cipher.ENCRYPT_MODE, keyProvider.getEncryptionKey());
+        cipher.updateAAD(storedName.getBytes(StandardCharsets.UTF_8));
+        byte[] iv = cipher.getIV();
+        byte[] sealed = cipher.doFinal(plain.toByteArray());
+
+        byte[] payload = new byte[1 + iv.length + sealed.length];
+        payload[0] = (byte) iv.length;
+        System.arraycopy(iv, 0, payload, 1, iv.length);
+        System.arraycopy(sealed, 0, payload, 1 + iv.length, sealed.length);
+        return Base64.encodeToString(payload, VALUE_FLAGS);
+    }
+
+    private void decryptInto(String storedName, String encoded, Map<String, Object> values)
+            throws GeneralSecurityException, IOException {
+        byte[] payload = Base64.decode(encoded, VALUE_FLAGS);
+        int ivLength = payload.length > 0 ? payload[0] & 0xFF : 0;
+        if (payload.length < 1 + ivLength + TAG_LENGTH_BYTES || ivLength == 0) {
+            throw new IOException("Stored value too short: " + payload.length + " bytes");
+        }
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.DECRYPT_MODE, keyProvider.getEncryptionKey(),
+                new GCMParameterSpec(TAG_LENGTH_BITS, payload, 1, ivLength));
+        cipher.updateAAD(storedName.getBytes(StandardCharsets.UTF_8));
+        byte[] plain = cipher.doFinal(payload, 1 + ivLength, payload.length - 1 - ivLength);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(plain));
+        String name = in.readUTF();
+        Object value;
+        switch (in.readByte()) {
+            case TYPE_STRING: value = in.readUTF(); break;
+            case TYPE_INT: value = in.readInt(); break;
+            case TYPE_BOOLEAN: value = in.readBoolean(); break;
+            case TYPE_LONG: value = in.readLong(); break;
+            case TYPE_FLOAT: value = in.readFloat(); break;
+            default: throw new IOException("Unknown value type");
+        }
+        storedNames.put(name, storedName);
+        values.put(name, value);
+    }
+}
@@ -0,0 +1,21 @@
+package com.rohit.baselibrary;
+
+import javax.crypto.SecretKey;
+
+/**
+ * KeyProvider
+ * Supplies the keys used by {@link EncryptedConfigBackend}. Use
+ * {@link AndroidKeystoreKeyProvider} on devices and {@link StaticKeyProvider} in JVM tests.
+ */
+public interface KeyProvider {
+
+    /**
+     * AES key used to encrypt values (AES/GCM/NoPadding).
+     */
+    SecretKey getEncryptionKey();
+
+    /**
+     * HMAC-SHA256 key used to derive the stored key names.
+     */
+    SecretKey getMacKey();
+}
@@ -0,0 +1,34 @@
+package com.rohit.baselibrary;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * StaticKeyProvider
+ * KeyProvider over raw key bytes held in memory. Meant for unit tests on a plain JVM;
+ * production code should keep keys in the Android Keystore.
+ */
+public class StaticKeyProvider implements KeyProvider {
+
+    private final SecretKey encryptionKey;
+    private final SecretKey macKey;
+
+    /**
+     * @param aesKey 16 or 32 bytes
+     * @param macKey any length, 32 bytes recommended
+     */
+    public StaticKeyProvider(byte[] aesKey, byte[] macKey) {
+        this.encryptionKey = new SecretKeySpec(aesKey.clone(), "AES");
+        this.macKey = new SecretKeySpec(macKey.clone(), "HmacSHA256");
+    }
+
+    @Override
+    public SecretKey getEncryptionKey() {
+        return encryptionKey;
+    }
+
+    @Override
+    public SecretKey getMacKey() {
+        return macKey;
+    }
+}
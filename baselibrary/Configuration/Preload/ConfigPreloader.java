@@ -0,0 +1,169 @@
+package com.rohit.baselibrary;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+import com.rohit.baselibrary.tracing.Tracer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * ConfigPreloader
+ * Warms SharedPreferences files, DataStore handlers and ConfigStores on background threads
+ * at Application start, so the first read on the main thread does not wait for disk.
+ *
+ * <pre>
+ * ConfigPreloader preloader = new ConfigPreloader.Builder(this)
+ *         .sharedPreferences("app_prefs")
+ *         .dataStore(dataStoreHandler)
+ *         .build()
+ *         .start();
+ * preloader.ready().subscribe(() -> ...);
+ * </pre>
+ */
+public class ConfigPreloader {
+
+    private static final String TAG = "ConfigPreloader";
+    // Never stored; contains() just waits for the XML load to finish without copying the map
+    private static final String PROBE_KEY = "__preload_probe";
+
+    private final List<Target> targets;
+    private final Map<String, Long> loadTimesMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Completable ready;
+    private volatile boolean started;
+    private volatile boolean isReady;
+
+    private ConfigPreloader(List<Target> targets) {
+        this.targets = targets;
+        List<Completable> loads = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            loads.add(timed(target));
+        }
+        // Each target on its own IO thread; one failing target does not hold back the others
+        this.ready = Completable.mergeDelayError(loads)
+                .doOnComplete(() -> isReady = true)
+                .cache();
+    }
+
+    /**
+     * Starts loading every target in parallel. Calling it again has no effect.
+     */
+    public ConfigPreloader start() {
+        if (!started) {
+            started = true;
+            ready.subscribe(() -> Log.i(TAG, "All configuration preloaded: " + loadTimesMillis),
+                    error -> Log.e(TAG, "Preload failed", error));
+        }
+        return this;
+    }
+
+    /**
+     * Completes once every target is loaded. Starts the preload if needed.
+     */
+    public Completable ready() {
+        start();
+        return ready;
+    }
+
+    public boolean isReady() {
+        return isReady;
+    }
+
+    /**
+     * Blocks until preloading finishes or the timeout passes. Do not call on the main thread
+     * with a long timeout.
+     *
+     * @return true if everything was loaded in time.
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) {
+        try {
+            return ready().blockingAwait(timeout, unit);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * How long each target took to load, in milliseconds, keyed by target name.
+     */
+    public Map<String, Long> getLoadTimesMillis() {
+        synchronized (loadTimesMillis) {
+            return new LinkedHashMap<>(loadTimesMillis);
+        }
+    }
+
+    private Completable timed(Target target) {
+        return Completable.defer(() -> {
+            long start = System.nanoTime();
+            // Loads may complete on another thread (e.g. DataStore's), hence an async span
+            long traceId = Tracer.beginAsync("preload", target.name);
+            return target.load.doOnComplete(() -> {
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                loadTimesMillis.put(target.name, millis);
+                Log.d(TAG, "Loaded " + target.name + " in " + millis + " ms");
+            }).doFinally(() -> Tracer.endAsync("preload", traceId));
+        }).subscribeOn(SchedulerWrapper.io());
+    }
+
+    private static final class Target {
+        final String name;
+        final Completable load;
+
+        Target(String name, Completable load) {
+            this.name = name;
+            this.load = load;
+        }
+    }
+
+    public static class Builder {
+        private final Context context;
+        private final List<Target> targets = new ArrayList<>();
+
+        public Builder(Context context) {
+            this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        }
+
+        /**
+         * Warms a SharedPreferences file (same process-wide instance the handlers use).
+         */
+        public Builder sharedPreferences(String name) {
+            targets.add(new Target("prefs:" + name, Completable.fromAction(() -> {
+                SharedPreferences prefs = context.getSharedPreferences(name, Context.MODE_PRIVATE);
+                prefs.contains(PROBE_KEY);
+            })));
+            return this;
+        }
+
+        public Builder dataStore(DataStoreConfigurationHandler handler) {
+            targets.add(new Target("datastore:" + System.identityHashCode(handler),
+                    Completable.defer(handler::warmUp)));
+            return this;
+        }
+
+        public Builder configStore(String name, ConfigStore store) {
+            targets.add(new Target("store:" + name, Completable.defer(store::warmUp)));
+            return this;
+        }
+
+        /**
+         * Any other blocking warm-up work (e.g. opening a ConfigWrapperStore).
+         */
+        public Builder task(String name, Runnable work) {
+            targets.add(new Target(name, Completable.fromRunnable(work)));
+            return this;
+        }
+
+        public ConfigPreloader build() {
+            return new ConfigPreloader(new ArrayList<>(targets));
+        }
+    }
+}
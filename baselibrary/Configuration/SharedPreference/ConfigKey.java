@@ -0,0 +1,63 @@
+package com.rohit.baselibrary;
+
+/**
+ * ConfigKey
+ * A typed configuration key with its default value, e.g.
+ * {@code ConfigKey<String> USERNAME = ConfigKey.string("username", "Guest");}
+ */
+public final class ConfigKey<T> {
+
+    private final String name;
+    private final Class<T> type;
+    private final T defaultValue;
+
+    private ConfigKey(String name, Class<T> type, T defaultValue) {
+        this.name = name;
+        this.type = type;
+        this.defaultValue = defaultValue;
+    }
+
+    public static ConfigKey<String> string(String name, String defaultValue) {
+        return new ConfigKey<>(name, String.class, defaultValue);
+    }
+
+    public static ConfigKey<Integer> integer(String name, int defaultValue) {
+        return new ConfigKey<>(name, Integer.class, defaultValue);
+    }
+
+    public static ConfigKey<Boolean> bool(String name, boolean defaultValue) {
+        return new ConfigKey<>(name, Boolean.class, defaultValue);
+    }
+
+    public static ConfigKey<Long> longKey(String name, long defaultValue) {
+        return new ConfigKey<>(name, Long.class, defaultValue);
+    }
+
+    public static ConfigKey<Float> floatKey(String name, float defaultValue) {
+        return new ConfigKey<>(name, Float.class, defaultValue);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns the value if it has this key's type, otherwise the default.
+     */
+    public T cast(Object value) {
+        return type.isInstance(value) ? type.cast(value) : defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey{" + name + ": " + type.getSimpleName() + " = " + defaultValue + "}";
+    }
+}
@@ -0,0 +1,42 @@
+package com.rohit.baselibrary;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ConfigSchema
+ * The declared set of configuration keys, their types and defaults.
+ */
+public final class ConfigSchema {
+
+    private final Map<String, ConfigKey<?>> keys = new LinkedHashMap<>();
+
+    public ConfigSchema(ConfigKey<?>... keys) {
+        for (ConfigKey<?> key : keys) {
+            if (this.keys.put(key.getName(), key) != null) {
+                throw new IllegalArgumentException("Duplicate config key: " + key.getName());
+            }
+        }
+    }
+
+    public Collection<ConfigKey<?>> getKeys() {
+        return Collections.unmodifiableCollection(keys.values());
+    }
+
+    public ConfigKey<?> getKey(String name) {
+        return keys.get(name);
+    }
+
+    /**
+     * Every key mapped to its default value.
+     */
+    public Map<String, Object> getDefaults() {
+        Map<String, Object> defaults = new LinkedHashMap<>();
+        for (ConfigKey<?> key : keys.values()) {
+            defaults.put(key.getName(), key.getDefaultValue());
+        }
+        return defaults;
+    }
+}
@@ -3,18 +3,47 @@ package com.rohit.baselibrary;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.disposables.Disposable;
 
 /**
  * SharedPreferenceConfigurationHandler
  * Handles app configuration using standard Android SharedPreferences.
  * Supports CRUD operations for multiple data types.
+ *
+ * Every apply() queues a full-file write that Activity.onPause waits for, so bursts of
+ * writes should use {@link #putAll(Map)} or a coalescing window
+ * ({@link #setCoalescingWindow(long)}) that turns them into one apply().
  */
 public class SharedPreferenceConfigurationHandler {
 
     private static final String PREF_NAME = "app_prefs";
+
+    private static final Counter READS = MetricsRegistry.counter(MetricNames.PREFS_READS);
+    private static final Counter WRITES = MetricsRegistry.counter(MetricNames.PREFS_WRITES);
+    private static final Counter APPLIES = MetricsRegistry.counter(MetricNames.PREFS_APPLIES);
+
     private final SharedPreferences sharedPreferences;
 
+    // Marks a pending removal in the coalescing buffer
+    private static final Object REMOVED = new Object();
+
+    private final Object pendingLock = new Object();
+    private long coalescingWindowMs;
+    // Writes waiting for the window to close; reads consult them first
+    private volatile Map<String, Object> pending;
+    private boolean pendingClear;
+    // The timer that closes the current coalescing window
+    private Disposable pendingFlush;
+
     public SharedPreferenceConfigurationHandler(Context context) {
         this.sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
     }
@@ -22,52 +51,181 @@ public class SharedPreferenceConfigurationHandler {
     // --- CREATE / UPDATE Operations ---
 
     public void putString(String key, String value) {
-        sharedPreferences.edit().putString(key, value).apply();
+        write(key, value);
     }
 
     public void putInt(String key, int value) {
-        sharedPreferences.edit().putInt(key, value).apply();
+        write(key, value);
     }
 
     public void putBoolean(String key, boolean value) {
-        sharedPreferences.edit().putBoolean(key, value).apply();
+        write(key, value);
     }
 
     public void putLong(String key, long value) {
-        sharedPreferences.edit().putLong(key, value).apply();
+        write(key, value);
     }
 
     public void putFloat(String key, float value) {
-        sharedPreferences.edit().putFloat(key, value).apply();
+        write(key, value);
+    }
+
+    public <T> void put(ConfigKey<T> key, T value) {
+        write(key.getName(), value);
+    }
+
+    /**
+     * Stores several values with a single Editor and a single apply().
+     * Values must be String, Integer, Boolean, Long or Float.
+     */
+    public void putAll(Map<String, ?> values) {
+        // Checked up front: a buffered value is only written later, on the flush timer
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            checkType(entry.getKey(), entry.getValue());
+        }
+        WRITES.add(values.size());
+        synchronized (pendingLock) {
+            if (coalescingWindowMs > 0) {
+                for (Map.Entry<String, ?> entry : values.entrySet()) {
+                    addPending(entry.getKey(), entry.getValue());
+                }
+                return;
+            }
+        }
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            putValue(editor, entry.getKey(), entry.getValue());
+        }
+        apply(editor);
     }
 
     // --- READ Operations ---
 
     public String getString(String key, String defaultValue) {
+        Object value = pendingValue(key);
+        if (value != null) {
+            return value instanceof String ? (String) value : defaultValue;
+        }
         return sharedPreferences.getString(key, defaultValue);
     }
 
     public int getInt(String key, int defaultValue) {
+        Object value = pendingValue(key);
+        if (value != null) {
+            return value instanceof Integer ? (Integer) value : defaultValue;
+        }
         return sharedPreferences.getInt(key, defaultValue);
     }
 
     public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = pendingValue(key);
+        if (value != null) {
+            return value instanceof Boolean ? (Boolean) value : defaultValue;
+        }
         return sharedPreferences.getBoolean(key, defaultValue);
     }
 
     public long getLong(String key, long defaultValue) {
+        Object value = pendingValue(key);
+        if (value != null) {
+            return value instanceof Long ? (Long) value : defaultValue;
+        }
         return sharedPreferences.getLong(key, defaultValue);
     }
 
     public float getFloat(String key, float defaultValue) {
+        Object value = pendingValue(key);
+        if (value != null) {
+            return value instanceof Float ? (Float) value : defaultValue;
+        }
         return sharedPreferences.getFloat(key, defaultValue);
     }
 
+    /**
+     * Typed read using the key's declared default. Reads only this key, like the getX methods;
+     * a value stored under another type also yields the default.
+     */
+    public <T> T get(ConfigKey<T> key) {
+        Object value = pendingValue(key.getName());
+        if (value == null) {
+            value = readStored(key);
+        }
+        return key.cast(value);
+    }
+
+    private Object readStored(ConfigKey<?> key) {
+        String name = key.getName();
+        Class<?> type = key.getType();
+        Object defaultValue = key.getDefaultValue();
+        try {
+            if (type == String.class) {
+                return sharedPreferences.getString(name, (String) defaultValue);
+            } else if (type == Integer.class) {
+                return sharedPreferences.getInt(name, (Integer) defaultValue);
+            } else if (type == Boolean.class) {
+                return sharedPreferences.getBoolean(name, (Boolean) defaultValue);
+            } else if (type == Long.class) {
+                return sharedPreferences.getLong(name, (Long) defaultValue);
+            } else if (type == Float.class) {
+                return sharedPreferences.getFloat(name, (Float) defaultValue);
+            }
+        } catch (ClassCastException e) {
+            // Stored under another type
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Reads several keys from one snapshot of the preferences.
+     * Missing keys are left out of the result.
+     */
+    public Map<String, Object> getAll(String... keys) {
+        Map<String, ?> all = getAllConfigs();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            Object value = all.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads every key of the schema from one snapshot, falling back to the declared defaults.
+     */
+    public Map<String, Object> getAll(ConfigSchema schema) {
+        Map<String, ?> all = getAllConfigs();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (ConfigKey<?> key : schema.getKeys()) {
+            result.put(key.getName(), key.cast(all.get(key.getName())));
+        }
+        return result;
+    }
+
     /**
      * Retrieve all configurations as a Map.
      */
     public Map<String, ?> getAllConfigs() {
-        return sharedPreferences.getAll();
+        READS.increment();
+        Map<String, ?> stored = sharedPreferences.getAll();
+        synchronized (pendingLock) {
+            if (pending == null) {
+                return stored;
+            }
+            Map<String, Object> merged = new LinkedHashMap<>();
+            if (!pendingClear) {
+                merged.putAll(stored);
+            }
+            for (Map.Entry<String, Object> entry : pending.entrySet()) {
+                if (entry.getValue() == REMOVED) {
+                    merged.remove(entry.getKey());
+                } else {
+                    merged.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return merged;
+        }
     }
 
     // --- DELETE Operations ---
@@ -76,20 +234,172 @@ public class SharedPreferenceConfigurationHandler {
      * Remove a specific key from preferences.
      */
     public void remove(String key) {
-        sharedPreferences.edit().remove(key).apply();
+        write(key, REMOVED);
     }
 
     /**
      * Clear all configurations.
      */
     public void clearAllConfigs() {
-        sharedPreferences.edit().clear().apply();
+        synchronized (pendingLock) {
+            if (coalescingWindowMs > 0) {
+                ensurePending();
+                pending.clear();
+                pendingClear = true;
+                return;
+            }
+        }
+        apply(sharedPreferences.edit().clear());
     }
 
     /**
      * Check if a key exists in preferences.
      */
     public boolean contains(String key) {
+        Object value = pendingValue(key);
+        if (value != null) {
+            return value != REMOVED;
+        }
         return sharedPreferences.contains(key);
     }
+
+    // --- Coalescing ---
+
+    /**
+     * Enables write coalescing: writes issued within the window are merged (last write per key
+     * wins) into one Editor and one apply() when the window closes. Reads see pending writes
+     * immediately. Pass 0 to apply every write immediately (default).
+     */
+    public void setCoalescingWindow(long windowMs) {
+        synchronized (pendingLock) {
+            coalescingWindowMs = Math.max(0L, windowMs);
+        }
+        if (windowMs <= 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Applies any coalesced writes now instead of waiting for the window to close.
+     */
+    public void flush() {
+        Map<String, Object> toWrite;
+        boolean clear;
+        synchronized (pendingLock) {
+            toWrite = pending;
+            clear = pendingClear;
+            pending = null;
+            pendingClear = false;
+            // A stale timer would otherwise close the next window early
+            if (pendingFlush != null) {
+                pendingFlush.dispose();
+                pendingFlush = null;
+            }
+        }
+        if (toWrite == null) {
+            return;
+        }
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        if (clear) {
+            editor.clear();
+        }
+        for (Map.Entry<String, Object> entry : toWrite.entrySet()) {
+            if (entry.getValue() == REMOVED) {
+                editor.remove(entry.getKey());
+            } else {
+                putValue(editor, entry.getKey(), entry.getValue());
+            }
+        }
+        apply(editor);
+    }
+
+    private void write(String key, Object value) {
+        if (value != REMOVED) {
+            checkType(key, value);
+        }
+        WRITES.increment();
+        synchronized (pendingLock) {
+            if (coalescingWindowMs > 0) {
+                addPending(key, value);
+                return;
+            }
+        }
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        if (value == REMOVED) {
+            editor.remove(key);
+        } else {
+            putValue(editor, key, value);
+        }
+        apply(editor);
+    }
+
+    // Every apply() is a full-file write queued for onPause; counting them shows coalescing at work
+    private static void apply(SharedPreferences.Editor editor) {
+        APPLIES.increment();
+        editor.apply();
+    }
+
+    // Caller holds pendingLock
+    private void addPending(String key, Object value) {
+        ensurePending();
+        pending.put(key, value != null ? value : REMOVED);
+    }
+
+    // Caller holds pendingLock
+    private void ensurePending() {
+        if (pending == null) {
+            pending = new LinkedHashMap<>();
+            pendingFlush = SchedulerWrapper.io().scheduleDirect(this::flush, coalescingWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The pending value for a key (REMOVED for a pending removal), or null if the stored
+     * value applies.
+     */
+    private Object pendingValue(String key) {
+        READS.increment();
+        if (pending == null) {
+            return null;
+        }
+        synchronized (pendingLock) {
+            if (pending == null) {
+                return null;
+            }
+            Object value = pending.get(key);
+            if (value == null && pendingClear) {
+                return REMOVED;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Throws for a value SharedPreferences cannot store, before it can reach the coalescing
+     * buffer. Null is allowed and removes the key.
+     */
+    private static void checkType(String key, Object value) {
+        if (value != null && !(value instanceof String) && !(value instanceof Integer)
+                && !(value instanceof Boolean) && !(value instanceof Long) && !(value instanceof Float)) {
+            throw new IllegalArgumentException("Unsupported type for key " + key + ": " + value);
+        }
+    }
+
+    private static void putValue(SharedPreferences.Editor editor, String key, Object value) {
+        if (value == null) {
+            editor.remove(key);
+        } else if (value instanceof String) {
+            editor.putString(key, (String) value);
+        } else if (value instanceof Integer) {
+            editor.putInt(key, (Integer) value);
+        } else if (value instanceof Boolean) {
+            editor.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Long) {
+            editor.putLong(key, (Long) value);
+        } else if (value instanceof Float) {
+            editor.putFloat(key, (Float) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported type for key " + key + ": " + value);
+        }
+    }
 }
@@ -0,0 +1,234 @@
+package com.rohit.baselibrary;
+
+import android.content.Context;
+
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * CachedConfigStore
+ * ConfigStore with an in-memory read-through cache over any {@link ConfigBackend}.
+ *
+ * The backend is read once (on warmUp() or the first read); after that every get is a
+ * single hash lookup with no allocation. Writes update the cache immediately and are handed
+ * to the backend, which persists them asynchronously.
+ */
+public class CachedConfigStore implements ConfigStore {
+
+    private final ConfigBackend backend;
+    private final ConcurrentHashMap<String, Object> cache = new ConcurrentHashMap<>();
+    private final Map<String, Object> readOnlyView = Collections.unmodifiableMap(cache);
+
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+    // Changes made before the backend was loaded must win over what the load returns
+    private boolean clearedBeforeLoad;
+    private final Set<String> touchedBeforeLoad = new HashSet<>();
+
+    public CachedConfigStore(ConfigBackend backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * Store over the same "app_prefs" file used by SharedPreferenceConfigurationHandler.
+     */
+    public static CachedConfigStore sharedPreferences(Context context) {
+        return new CachedConfigStore(new SharedPreferencesBackend(context, "app_prefs"));
+    }
+
+    /**
+     * Store over the DataStore used by DataStoreConfigurationHandler.
+     */
+    public static CachedConfigStore dataStore(DataStoreConfigurationHandler handler) {
+        return new CachedConfigStore(new DataStoreBackend(handler));
+    }
+
+    /**
+     * Store that encrypts values at rest in the given backend and caches them decrypted.
+     */
+    public static CachedConfigStore encrypted(ConfigBackend backend, KeyProvider keyProvider) {
+        return new CachedConfigStore(new EncryptedConfigBackend(backend, keyProvider));
+    }
+
+    @Override
+    public Completable warmUp() {
+        return Completable.fromAction(this::ensureLoaded).subscribeOn(SchedulerWrapper.io());
+    }
+
+    public boolean isWarm() {
+        return loaded;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            if (!clearedBeforeLoad) {
+                for (Map.Entry<String, ?> entry : backend.loadAll().entrySet()) {
+                    if (entry.getValue() != null && !touchedBeforeLoad.contains(entry.getKey())) {
+                        cache.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            touchedBeforeLoad.clear();
+            loaded = true;
+        }
+    }
+
+    private Object read(String key) {
+        ensureLoaded();
+        return cache.get(key);
+    }
+
+    // --- READ Operations ---
+
+    @Override
+    public String getString(String key, String defaultValue) {
+        Object value = read(key);
+        return value instanceof String ? (String) value : defaultValue;
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        Object value = read(key);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = read(key);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        Object value = read(key);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    @Override
+    public float getFloat(String key, float defaultValue) {
+        Object value = read(key);
+        return value instanceof Float ? (Float) value : defaultValue;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return read(key) != null;
+    }
+
+    @Override
+    public Map<String, Object> getAllConfigs() {
+        ensureLoaded();
+        return readOnlyView;
+    }
+
+    // --- CREATE / UPDATE Operations ---
+
+    @Override
+    public void putString(String key, String value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        put(key, value);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        put(key, value);
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        put(key, value);
+    }
+
+    @Override
+    public void putLong(String key, long value) {
+        put(key, value);
+    }
+
+    @Override
+    public void putFloat(String key, float value) {
+        put(key, value);
+    }
+
+    /**
+     * Writes several values in one backend write. Values must be String, Integer, Boolean,
+     * Long or Float; a null value removes the key. Everything is validated before the cache
+     * changes, so an unsupported value leaves both cache and backend untouched.
+     *
+     * @throws IllegalArgumentException If a value has an unsupported type.
+     */
+    public void putAll(Map<String, Object> values) {
+        Map<String, Object> puts = new HashMap<>();
+        Set<String> removals = new HashSet<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                removals.add(entry.getKey());
+            } else if (value instanceof String || value instanceof Integer || value instanceof Boolean
+                    || value instanceof Long || value instanceof Float) {
+                puts.put(entry.getKey(), value);
+            } else {
+                throw new IllegalArgumentException("Unsupported type for key " + entry.getKey() + ": " + value);
+            }
+        }
+        markTouched(values.keySet());
+        cache.putAll(puts);
+        for (String key : removals) {
+            cache.remove(key);
+        }
+        backend.write(false, puts, removals);
+    }
+
+    private void put(String key, Object value) {
+        markTouched(Collections.singleton(key));
+        cache.put(key, value);
+        backend.write(false, Collections.singletonMap(key, value), Collections.<String>emptySet());
+    }
+
+    // --- DELETE Operations ---
+
+    @Override
+    public void remove(String key) {
+        markTouched(Collections.singleton(key));
+        cache.remove(key);
+        backend.write(false, Collections.<String, Object>emptyMap(), Collections.singleton(key));
+    }
+
+    @Override
+    public void clearAllConfigs() {
+        synchronized (loadLock) {
+            if (!loaded) {
+                clearedBeforeLoad = true;
+            }
+            cache.clear();
+        }
+        backend.write(true, Collections.<String, Object>emptyMap(), Collections.<String>emptySet());
+    }
+
+    private void markTouched(Set<String> keys) {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (!loaded) {
+                touchedBeforeLoad.addAll(keys);
+            }
+        }
+    }
+}
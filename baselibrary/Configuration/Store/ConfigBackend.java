@@ -0,0 +1,30 @@
+package com.rohit.baselibrary;
+
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * ConfigBackend
+ * Storage behind a {@link ConfigStore}. Implementations only need a bulk load and a bulk write;
+ * all caching is done by the store.
+ */
+public interface ConfigBackend {
+
+    /**
+     * Reads every stored value. May block (disk I/O), never called on the main thread by
+     * the store once it has been warmed up.
+     */
+    Map<String, ?> loadAll();
+
+    /**
+     * Persists a set of changes asynchronously, in one write where the backend allows it.
+     * The write starts immediately; the returned Completable only reports when it is done.
+     *
+     * @param clearFirst Wipe the backend before applying puts and removals.
+     * @param puts       Values to store (String, Integer, Boolean, Long or Float).
+     * @param removals   Keys to delete.
+     */
+    Completable write(boolean clearFirst, Map<String, Object> puts, Set<String> removals);
+}
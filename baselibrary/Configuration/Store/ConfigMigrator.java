@@ -0,0 +1,69 @@
+package com.rohit.baselibrary;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * ConfigMigrator
+ * One-shot copy of every value from one ConfigBackend to another (e.g. SharedPreferences to
+ * DataStore). A marker key is written together with the data, so the copy runs at most once
+ * and the source is only cleared after the destination has the data.
+ */
+public class ConfigMigrator {
+
+    private static final String TAG = "ConfigMigrator";
+    public static final String MIGRATION_MARKER_KEY = "__config_migrated";
+
+    private ConfigMigrator() {
+        // Static helpers only
+    }
+
+    /**
+     * Moves "app_prefs" (SharedPreferenceConfigurationHandler) into the DataStore used by
+     * DataStoreConfigurationHandler. Runs on the IO scheduler.
+     *
+     * @return The number of migrated keys, 0 if the migration already happened.
+     */
+    public static Single<Integer> migrateSharedPreferencesToDataStore(Context context,
+                                                                      DataStoreConfigurationHandler target) {
+        ConfigBackend source = new SharedPreferencesBackend(context, "app_prefs");
+        ConfigBackend destination = new DataStoreBackend(target);
+        return Single.fromCallable(() -> migrate(source, destination)).subscribeOn(SchedulerWrapper.io());
+    }
+
+    /**
+     * Blocking migration between any two backends. Do not call on the main thread.
+     *
+     * @return The number of migrated keys, 0 if the migration already happened.
+     */
+    public static int migrate(ConfigBackend source, ConfigBackend destination) {
+        if (destination.loadAll().containsKey(MIGRATION_MARKER_KEY)) {
+            return 0;
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<String, ?> entry : source.loadAll().entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String || value instanceof Integer || value instanceof Boolean
+                    || value instanceof Long || value instanceof Float) {
+                values.put(entry.getKey(), value);
+            } else if (value != null) {
+                Log.w(TAG, "Skipping unsupported value type for key " + entry.getKey());
+            }
+        }
+        int migrated = values.size();
+        values.put(MIGRATION_MARKER_KEY, true);
+        // Only clear the source once the destination write has completed
+        destination.write(false, values, Collections.<String>emptySet()).blockingAwait();
+        source.write(true, Collections.<String, Object>emptyMap(), Collections.<String>emptySet()).blockingAwait();
+        Log.i(TAG, "Migrated " + migrated + " keys");
+        return migrated;
+    }
+}
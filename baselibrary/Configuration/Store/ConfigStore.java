@@ -0,0 +1,55 @@
+package com.rohit.baselibrary;
+
+import java.util.Map;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * ConfigStore
+ * One configuration API regardless of where the values live (SharedPreferences, DataStore, ...).
+ * Reads are synchronous and served from memory; writes are persisted asynchronously.
+ */
+public interface ConfigStore {
+
+    // --- READ Operations ---
+
+    String getString(String key, String defaultValue);
+
+    int getInt(String key, int defaultValue);
+
+    boolean getBoolean(String key, boolean defaultValue);
+
+    long getLong(String key, long defaultValue);
+
+    float getFloat(String key, float defaultValue);
+
+    boolean contains(String key);
+
+    /**
+     * Retrieve all configurations as a read-only Map.
+     */
+    Map<String, Object> getAllConfigs();
+
+    // --- CREATE / UPDATE Operations ---
+
+    void putString(String key, String value);
+
+    void putInt(String key, int value);
+
+    void putBoolean(String key, boolean value);
+
+    void putLong(String key, long value);
+
+    void putFloat(String key, float value);
+
+    // --- DELETE Operations ---
+
+    void remove(String key);
+
+    void clearAllConfigs();
+
+    /**
+     * Loads the backend into memory on a background thread so the first read does not block.
+     */
+    Completable warmUp();
+}
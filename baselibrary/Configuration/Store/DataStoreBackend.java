@@ -0,0 +1,47 @@
+package com.rohit.baselibrary;
+
+import androidx.datastore.preferences.core.Preferences;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * DataStoreBackend
+ * ConfigBackend over a {@link DataStoreConfigurationHandler}. Each write is one DataStore transaction.
+ */
+public class DataStoreBackend implements ConfigBackend {
+
+    private final DataStoreConfigurationHandler handler;
+
+    public DataStoreBackend(DataStoreConfigurationHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public Map<String, ?> loadAll() {
+        Map<Preferences.Key<?>, Object> prefs = handler.getAllConfigs().blockingFirst();
+        Map<String, Object> values = new HashMap<>(prefs.size() * 2);
+        for (Map.Entry<Preferences.Key<?>, Object> entry : prefs.entrySet()) {
+            values.put(entry.getKey().getName(), entry.getValue());
+        }
+        return values;
+    }
+
+    @Override
+    public Completable write(boolean clearFirst, Map<String, Object> puts, Set<String> removals) {
+        return handler.edit(batch -> {
+            if (clearFirst) {
+                batch.clear();
+            }
+            for (String key : removals) {
+                batch.remove(key);
+            }
+            for (Map.Entry<String, Object> entry : puts.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }).ignoreElement();
+    }
+}
@@ -0,0 +1,175 @@
+package com.rohit.baselibrary;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DirectBootConfigCache
+ * A small copy of selected config values in device-protected storage, readable before the
+ * user unlocks the device (Direct Boot).
+ *
+ * While unlocked, {@link #mirror(ConfigStore, String...)} copies the keys boot work needs.
+ * Before unlock, boot tasks read those values and may write new ones; such writes are marked
+ * dirty and {@link #mergeInto(ConfigStore)} hands them to the real store after unlock.
+ */
+public class DirectBootConfigCache {
+
+    private static final String TAG = "DirectBootConfigCache";
+    public static final String PREF_NAME = "app_prefs_boot";
+    // Keys written before unlock that still have to reach the real store
+    private static final String DIRTY_KEYS = "__dirty_keys";
+    // The dirty set is read-modify-write; boot tasks run in parallel and all instances share
+    // the same preferences file
+    private static final Object DIRTY_LOCK = new Object();
+
+    private final SharedPreferences sharedPreferences;
+
+    public DirectBootConfigCache(Context context) {
+        Context storageContext = context;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && !context.isDeviceProtectedStorage()) {
+            storageContext = context.createDeviceProtectedStorageContext();
+        }
+        this.sharedPreferences = storageContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    // --- Mirroring (while unlocked) ---
+
+    /**
+     * Copies the given keys from the store into device-protected storage in one apply().
+     * Keys missing from the store are removed from the cache. Pending locked-phase writes to
+     * the same keys are kept.
+     */
+    public void mirror(ConfigStore source, String... keys) {
+        Map<String, Object> all = source.getAllConfigs();
+        synchronized (DIRTY_LOCK) {
+            Set<String> dirty = getDirtyKeys();
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            for (String key : keys) {
+                if (dirty.contains(key)) {
+                    continue;
+                }
+                Object value = all.get(key);
+                if (value == null) {
+                    editor.remove(key);
+                } else {
+                    SharedPreferencesBackend.putValue(editor, key, value);
+                }
+            }
+            editor.apply();
+        }
+    }
+
+    /**
+     * Re-mirrors every key already in the cache, e.g. after the store changed.
+     */
+    public void refresh(ConfigStore source) {
+        Set<String> keys = new HashSet<>(sharedPreferences.getAll().keySet());
+        keys.remove(DIRTY_KEYS);
+        mirror(source, keys.toArray(new String[0]));
+    }
+
+    // --- READ Operations ---
+
+    public String getString(String key, String defaultValue) {
+        return sharedPreferences.getString(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return sharedPreferences.getInt(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return sharedPreferences.getBoolean(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return sharedPreferences.getLong(key, defaultValue);
+    }
+
+    public float getFloat(String key, float defaultValue) {
+        return sharedPreferences.getFloat(key, defaultValue);
+    }
+
+    public boolean contains(String key) {
+        return sharedPreferences.contains(key);
+    }
+
+    // --- WRITE Operations (before unlock) ---
+
+    /**
+     * Stores a String, Integer, Boolean, Long or Float and marks it for merging after unlock.
+     */
+    public void put(String key, Object value) {
+        synchronized (DIRTY_LOCK) {
+            Set<String> dirty = new HashSet<>(getDirtyKeys());
+            dirty.add(key);
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            SharedPreferencesBackend.putValue(editor, key, value);
+            editor.putStringSet(DIRTY_KEYS, dirty);
+            editor.apply();
+        }
+    }
+
+    // --- Merge (after unlock) ---
+
+    /**
+     * Writes every value changed before unlock into the store in one putAll() and clears the
+     * dirty marks. Call once credential-protected storage is available.
+     *
+     * @return The number of merged keys.
+     */
+    public int mergeInto(ConfigStore target) {
+        // Held until the marks are cleared, so a put() during the merge is not wiped with them
+        synchronized (DIRTY_LOCK) {
+            Set<String> dirty = getDirtyKeys();
+            if (dirty.isEmpty()) {
+                return 0;
+            }
+            Map<String, ?> all = sharedPreferences.getAll();
+            Map<String, Object> values = new HashMap<>();
+            for (String key : dirty) {
+                Object value = all.get(key);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+            if (target instanceof CachedConfigStore) {
+                ((CachedConfigStore) target).putAll(values);
+            } else {
+                for (Map.Entry<String, Object> entry : values.entrySet()) {
+                    putValue(target, entry.getKey(), entry.getValue());
+                }
+            }
+            sharedPreferences.edit().remove(DIRTY_KEYS).apply();
+            Log.i(TAG, "Merged " + values.size() + " locked-phase keys");
+            return values.size();
+        }
+    }
+
+    private Set<String> getDirtyKeys() {
+        Set<String> dirty = sharedPreferences.getStringSet(DIRTY_KEYS, null);
+        return dirty != null ? dirty : Collections.<String>emptySet();
+    }
+
+    private static void putValue(ConfigStore store, String key, Object value) {
+        if (value instanceof String) {
+            store.putString(key, (String) value);
+        } else if (value instanceof Integer) {
+            store.putInt(key, (Integer) value);
+        } else if (value instanceof Boolean) {
+            store.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Long) {
+            store.putLong(key, (Long) value);
+        } else if (value instanceof Float) {
+            store.putFloat(key, (Float) value);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.rohit.baselibrary;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * SharedPreferencesBackend
+ * ConfigBackend over a SharedPreferences file. All changes of a write share one Editor/apply().
+ */
+public class SharedPreferencesBackend implements ConfigBackend {
+
+    private final Context context;
+    private final String name;
+    private volatile SharedPreferences sharedPreferences;
+
+    public SharedPreferencesBackend(Context context, String name) {
+        this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        this.name = name;
+    }
+
+    /**
+     * Opened lazily so constructing the backend never triggers the XML load.
+     */
+    public SharedPreferences getSharedPreferences() {
+        SharedPreferences prefs = sharedPreferences;
+        if (prefs == null) {
+            prefs = context.getSharedPreferences(name, Context.MODE_PRIVATE);
+            sharedPreferences = prefs;
+        }
+        return prefs;
+    }
+
+    @Override
+    public Map<String, ?> loadAll() {
+        return getSharedPreferences().getAll();
+    }
+
+    @Override
+    public Completable write(boolean clearFirst, Map<String, Object> puts, Set<String> removals) {
+        SharedPreferences.Editor editor = getSharedPreferences().edit();
+        if (clearFirst) {
+            editor.clear();
+        }
+        for (String key : removals) {
+            editor.remove(key);
+        }
+        for (Map.Entry<String, Object> entry : puts.entrySet()) {
+            putValue(editor, entry.getKey(), entry.getValue());
+        }
+        // apply() updates memory at once and is flushed before the process may be killed
+        editor.apply();
+        return Completable.complete();
+    }
+
+    static void putValue(SharedPreferences.Editor editor, String key, Object value) {
+        if (value instanceof String) {
+            editor.putString(key, (String) value);
+        } else if (value instanceof Integer) {
+            editor.putInt(key, (Integer) value);
+        } else if (value instanceof Boolean) {
+            editor.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Long) {
+            editor.putLong(key, (Long) value);
+        } else if (value instanceof Float) {
+            editor.putFloat(key, (Float) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported type for key " + key + ": " + value);
+        }
+    }
+}
@@ -1,49 +1,324 @@
 package com.rohit.baselibrary.utils;
 
 import android.content.Context;
+import android.os.Build;
 import android.util.Log;
 
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.Histogram;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * File-based logger with rotation support.
  * Rotates logs daily or when file size exceeds a threshold.
+ *
+ * The current file stays open between lines and is closed once no line has been written for
+ * a few seconds, so a logger dropped without {@link #close()} does not keep its descriptor.
+ * How durable a line is when log() returns is chosen per level
+ * ({@link #setDurability(String, Durability)}), e.g. ERROR group-committed and DEBUG left to
+ * the kernel. A line torn by a crash is cut off the newest file before the first line is
+ * written to its directory; the check starts in the background when the logger is created.
  */
-public class FileLogger {
+public class FileLogger implements Closeable {
+
+    /**
+     * When a line reaches the disk.
+     */
+    public enum Durability {
+        /** Whenever the kernel writes it back; lost on power loss or a kernel crash (default). */
+        NONE,
+        /** Synced in the background at most one sync interval after it was written. */
+        PERIODIC,
+        /** On disk when log() returns; writers waiting at the same time share one force(). */
+        GROUP_COMMIT
+    }
 
     private static final String DEFAULT_TAG = "FileLogger";
     private static final long MAX_FILE_SIZE = 1024 * 1024; // 1 MB
     private static final String DATE_PATTERN = "yyyy-MM-dd"; // daily rotation
+    private static final long DEFAULT_SYNC_INTERVAL_MS = 1000;
+    // How long the file stays open without writes
+    private static final long IDLE_CLOSE_MS = 5000;
+    // Tail read by crash recovery; far longer than any log line
+    private static final int RECOVERY_WINDOW = 64 * 1024;
+
+    private static final Counter LINES = MetricsRegistry.counter(MetricNames.LOG_LINES);
+    private static final Counter BYTES = MetricsRegistry.counter(MetricNames.LOG_BYTES);
+    private static final Counter ERRORS = MetricsRegistry.counter(MetricNames.LOG_ERRORS);
+    private static final Histogram WRITE_US = MetricsRegistry.histogram(MetricNames.LOG_WRITE_US);
+    private static final Counter SYNCS = MetricsRegistry.counter(MetricNames.LOG_SYNCS);
+    private static final Histogram SYNC_US = MetricsRegistry.histogram(MetricNames.LOG_SYNC_US);
+    private static final Histogram SYNC_BATCH = MetricsRegistry.histogram(MetricNames.LOG_SYNC_BATCH);
+    private static final Counter TRUNCATED_BYTES = MetricsRegistry.counter(MetricNames.LOG_TRUNCATED_BYTES);
+
+    // Log directories already checked for a torn tail in this process
+    private static final Set<String> RECOVERED_DIRS = new HashSet<>();
 
     private final String tag;
-    private final Context context;
+    private final File logDir;
+    private final Map<String, Durability> levelDurability = new ConcurrentHashMap<>();
+    private volatile Durability defaultDurability = Durability.NONE;
+    private volatile long syncIntervalMs = DEFAULT_SYNC_INTERVAL_MS;
+
+    // Everything below is guarded by lock
+    private final Object lock = new Object();
     private File logFile;
+    private FileChannel channel;
+    // Bytes appended through this logger (across files) and the prefix known to be on disk
+    private long appended;
+    private long synced;
+    private boolean forcing;
+    private boolean syncScheduled;
+    private boolean idleCloseScheduled;
+    private long lastWriteNanos;
+    // GROUP_COMMIT lines waiting for the next force()
+    private int batch;
 
     public FileLogger(Context context, String tag) {
-        this.context = context;
-        this.tag = (tag != null && !tag.isEmpty()) ? tag : DEFAULT_TAG;
-        this.logFile = getRotatedLogFile();
+        this(context, tag, false);
     }
 
     public FileLogger(Context context) {
         this(context, DEFAULT_TAG);
     }
 
+    /**
+     * @param deviceProtected Write to device-protected storage, which is available before the
+     *                        user unlocks (Direct Boot). Merge those logs back with
+     *                        {@link #mergeDeviceProtectedLogs(Context)} after unlock.
+     */
+    public FileLogger(Context context, String tag, boolean deviceProtected) {
+        this.tag = (tag != null && !tag.isEmpty()) ? tag : DEFAULT_TAG;
+        this.logDir = deviceProtected ? deviceProtectedContext(context).getFilesDir() : context.getFilesDir();
+        this.logFile = getRotatedLogFile();
+        if (!isRecovered(logDir)) {
+            // Usually done before the first line; append() waits for it otherwise
+            File dir = logDir;
+            SchedulerWrapper.io().scheduleDirect(() -> recoverOnce(dir));
+        }
+    }
+
+    private static Context deviceProtectedContext(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && !context.isDeviceProtectedStorage()) {
+            return context.createDeviceProtectedStorageContext();
+        }
+        return context;
+    }
+
+    /**
+     * Moves log files written before unlock into the regular files directory, appending to
+     * files of the same name. Call once the user has unlocked the device.
+     *
+     * @return The number of files merged.
+     */
+    public static int mergeDeviceProtectedLogs(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return 0;
+        }
+        File sourceDir = context.createDeviceProtectedStorageContext().getFilesDir();
+        File targetDir = context.getFilesDir();
+        File[] files = sourceDir.listFiles((dir, name) -> name.startsWith("events_log_"));
+        if (files == null) {
+            return 0;
+        }
+        int merged = 0;
+        byte[] buffer = new byte[8192];
+        for (File source : files) {
+            File target = new File(targetDir, source.getName());
+            try (FileInputStream in = new FileInputStream(source);
+                 FileOutputStream out = new FileOutputStream(target, true)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                Log.e(DEFAULT_TAG, "Failed to merge " + source.getName(), e);
+                continue;
+            }
+            if (source.delete()) {
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    // --- Durability ---
+
+    /**
+     * Durability for levels without their own setting (NONE by default).
+     */
+    public void setDurability(Durability durability) {
+        defaultDurability = durability;
+    }
+
+    /**
+     * Durability for one level ("INFO", "DEBUG", "WARN", "ERROR" or a custom one passed to
+     * {@link #log(String, String)}). Null removes the level's own setting.
+     */
+    public void setDurability(String level, Durability durability) {
+        if (durability == null) {
+            levelDurability.remove(level);
+        } else {
+            levelDurability.put(level, durability);
+        }
+    }
+
+    public Durability getDurability(String level) {
+        Durability durability = levelDurability.get(level);
+        return durability != null ? durability : defaultDurability;
+    }
+
+    /**
+     * The longest a PERIODIC line waits for its sync (default 1000 ms).
+     */
+    public void setSyncInterval(long intervalMs) {
+        syncIntervalMs = Math.max(1L, intervalMs);
+    }
+
+    /**
+     * Forces every line written so far to disk, whatever its level's durability.
+     */
+    public void sync() throws IOException {
+        long end;
+        synchronized (lock) {
+            end = appended;
+        }
+        awaitSynced(end);
+    }
+
+    /**
+     * Syncs and closes the current file. A later log() opens it again. An idle file is closed
+     * without this; call it to release the file right away.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closeChannel();
+        }
+    }
+
+    // --- Crash recovery ---
+
+    private static boolean isRecovered(File dir) {
+        synchronized (RECOVERED_DIRS) {
+            return RECOVERED_DIRS.contains(dir.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Checks the directory once per process. Holds the set's lock throughout, so a writer
+     * arriving while the check runs waits for it instead of appending after a torn line.
+     */
+    private static void recoverOnce(File dir) {
+        synchronized (RECOVERED_DIRS) {
+            if (!RECOVERED_DIRS.add(dir.getAbsolutePath())) {
+                return;
+            }
+            // Only the file written last can end in the middle of a line
+            File[] files = dir.listFiles((d, name) -> name.startsWith("events_log_"));
+            if (files == null || files.length == 0) {
+                return;
+            }
+            File newest = files[0];
+            for (File file : files) {
+                if (file.lastModified() > newest.lastModified()) {
+                    newest = file;
+                }
+            }
+            try {
+                long cut = truncateTornTail(newest);
+                if (cut > 0) {
+                    TRUNCATED_BYTES.add(cut);
+                    Log.w(DEFAULT_TAG, "Truncated " + cut + " bytes of a torn line from " + newest.getName());
+                }
+            } catch (IOException e) {
+                Log.e(DEFAULT_TAG, "Failed to recover " + newest.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Cuts the file back to its last complete line. A line is torn if it lacks its line
+     * break (the crash hit mid-write) or contains NUL bytes (the new file size reached the
+     * disk before the data did).
+     *
+     * @return The number of bytes removed.
+     */
+    static long truncateTornTail(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long length = raf.length();
+            int window = (int) Math.min(length, RECOVERY_WINDOW);
+            if (window == 0) {
+                return 0;
+            }
+            byte[] tail = new byte[window];
+            raf.seek(length - window);
+            raf.readFully(tail);
+
+            int end = window;
+            while (end > 0 && tail[end - 1] != '\n') {
+                end--;
+            }
+            // Drop complete-looking lines that still hold NULs from an unwritten block
+            while (end > 0) {
+                int start = end - 1;
+                boolean hole = false;
+                while (start > 0 && tail[start - 1] != '\n') {
+                    start--;
+                }
+                for (int i = start; i < end; i++) {
+                    if (tail[i] == 0) {
+                        hole = true;
+                        break;
+                    }
+                }
+                if (!hole) {
+                    break;
+                }
+                end = start;
+            }
+            if (end == window || (end == 0 && window < length)) {
+                // Intact, or no line break within the window: nothing we can safely cut
+                return 0;
+            }
+            long keep = length - window + end;
+            raf.setLength(keep);
+            raf.getFD().sync();
+            return length - keep;
+        }
+    }
+
     private File getRotatedLogFile() {
         String date = new SimpleDateFormat(DATE_PATTERN, Locale.getDefault()).format(new Date());
-        File file = new File(context.getFilesDir(), "events_log_" + date + ".txt");
+        File file = new File(logDir, "events_log_" + date + ".txt");
 
         // If file exceeds max size, create a new one with suffix
         if (file.exists() && file.length() > MAX_FILE_SIZE) {
             int counter = 1;
             File rotated;
             do {
-                rotated = new File(context.getFilesDir(),
+                rotated = new File(logDir,
                         "events_log_" + date + "_" + counter + ".txt");
                 counter++;
             } while (rotated.exists());
@@ -52,15 +327,25 @@ public class FileLogger {
         return file;
     }
 
-    private void rotateIfNeeded() {
-        String today = new SimpleDateFormat(DATE_PATTERN, Locale.getDefault()).format(new Date());
-        if (!logFile.getName().contains(today) || logFile.length() > MAX_FILE_SIZE) {
-            logFile = getRotatedLogFile();
+    // Caller holds lock
+    private void rotateIfNeeded() throws IOException {
+        if (needsRotation()) {
+            awaitForceDone();
+            // Another writer may have rotated while we waited
+            if (needsRotation()) {
+                closeChannel();
+                logFile = getRotatedLogFile();
+            }
         }
     }
 
+    private boolean needsRotation() {
+        String today = new SimpleDateFormat(DATE_PATTERN, Locale.getDefault()).format(new Date());
+        return !logFile.getName().contains(today) || logFile.length() > MAX_FILE_SIZE;
+    }
+
     public void log(String level, String message) {
-        rotateIfNeeded();
+        long start = System.nanoTime();
 
         String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault())
                 .format(new Date());
@@ -70,10 +355,176 @@ public class FileLogger {
         Log.i(tag, logEntry);
 
         // Append to file
-        try (FileWriter writer = new FileWriter(logFile, true)) {
-            writer.append(logEntry);
+        byte[] bytes = logEntry.getBytes(StandardCharsets.UTF_8);
+        Durability durability = getDurability(level);
+        try {
+            long end;
+            synchronized (lock) {
+                end = append(bytes);
+                if (durability == Durability.PERIODIC) {
+                    scheduleSync();
+                } else if (durability == Durability.GROUP_COMMIT) {
+                    batch++;
+                }
+            }
+            if (durability == Durability.GROUP_COMMIT) {
+                awaitSynced(end);
+            }
         } catch (IOException e) {
+            ERRORS.increment();
             Log.e(tag, "Failed to write log to file", e);
+            return;
+        }
+        LINES.increment();
+        BYTES.add(bytes.length);
+        WRITE_US.recordMicrosSince(start);
+    }
+
+    /**
+     * Appends one line as a single write, so lines from other loggers on the same file
+     * never interleave within a line. Caller holds lock.
+     *
+     * @return The end of the line in bytes appended through this logger.
+     */
+    private long append(byte[] bytes) throws IOException {
+        rotateIfNeeded();
+        if (channel == null) {
+            recoverOnce(logDir);
+            channel = new FileOutputStream(logFile, true).getChannel();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        appended += bytes.length;
+        lastWriteNanos = System.nanoTime();
+        if (!idleCloseScheduled) {
+            scheduleIdleClose(IDLE_CLOSE_MS);
+        }
+        return appended;
+    }
+
+    /**
+     * Returns once everything up to end is on disk. If no force() is running the caller runs
+     * one for every line appended so far; otherwise it waits for the running one and, if that
+     * did not cover its line, leads the next. So one force() acknowledges every writer that
+     * arrived while the previous one ran.
+     */
+    private void awaitSynced(long end) throws IOException {
+        FileChannel target;
+        long upTo;
+        int lines;
+        synchronized (lock) {
+            // The running force() may already cover our line
+            if (synced < end) {
+                awaitForceDone();
+            }
+            if (synced >= end) {
+                return;
+            }
+            forcing = true;
+            target = channel;
+            upTo = appended;
+            lines = batch;
+            batch = 0;
+        }
+        long start = System.nanoTime();
+        boolean done = false;
+        try {
+            // Outside the lock, so other writers keep appending meanwhile
+            if (target != null) {
+                target.force(false);
+            }
+            done = true;
+        } finally {
+            synchronized (lock) {
+                forcing = false;
+                if (done) {
+                    synced = Math.max(synced, upTo);
+                }
+                lock.notifyAll();
+            }
+        }
+        SYNCS.increment();
+        SYNC_US.recordMicrosSince(start);
+        if (lines > 0) {
+            SYNC_BATCH.record(lines);
+        }
+    }
+
+    // Caller holds lock; batches PERIODIC lines into one background sync per interval
+    private void scheduleSync() {
+        if (syncScheduled) {
+            return;
+        }
+        syncScheduled = true;
+        SchedulerWrapper.io().scheduleDirect(() -> {
+            synchronized (lock) {
+                syncScheduled = false;
+            }
+            try {
+                sync();
+            } catch (IOException e) {
+                ERRORS.increment();
+                Log.e(tag, "Failed to sync log file", e);
+            }
+        }, syncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Caller holds lock
+    private void scheduleIdleClose(long delayMs) {
+        idleCloseScheduled = true;
+        SchedulerWrapper.io().scheduleDirect(this::closeIfIdle, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void closeIfIdle() {
+        synchronized (lock) {
+            idleCloseScheduled = false;
+            if (channel == null) {
+                return;
+            }
+            long idleMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastWriteNanos);
+            if (idleMs < IDLE_CLOSE_MS) {
+                scheduleIdleClose(IDLE_CLOSE_MS - idleMs);
+                return;
+            }
+            try {
+                closeChannel();
+            } catch (IOException e) {
+                ERRORS.increment();
+                Log.e(tag, "Failed to close idle log file", e);
+            }
+        }
+    }
+
+    // Caller holds lock; a running force() still uses the channel
+    private void awaitForceDone() throws IOException {
+        while (forcing) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for log sync");
+            }
+        }
+    }
+
+    // Caller holds lock; syncs what is still pending so no waiter depends on a closed file
+    private void closeChannel() throws IOException {
+        awaitForceDone();
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (synced < appended) {
+                channel.force(false);
+                SYNCS.increment();
+                synced = appended;
+                lock.notifyAll();
+            }
+        } finally {
+            channel.close();
+            channel = null;
         }
     }
 
@@ -94,6 +545,8 @@ public class FileLogger {
     }
 
     public File getLogFile() {
-        return logFile;
+        synchronized (lock) {
+            return logFile;
+        }
     }
 }
@@ -1,15 +1,41 @@
 package com.rohit.baselibrary.network;
 
 
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import androidx.annotation.RequiresApi;
+
+import com.rohit.baselibrary.memory.CacheGovernor;
+import com.rohit.baselibrary.memory.TrimmableCache;
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
@@ -20,22 +46,67 @@ import okhttp3.Response;
 public class HttpClientWrapper {
 
     private static final String TAG = "HttpClientWrapper";
+
+    // One client for every wrapper, so they share one connection pool and prewarmed
+    // connections serve whichever wrapper makes the first request
+    private static final OkHttpClient SHARED_CLIENT = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+            .eventListenerFactory(PrewarmListener.FACTORY)
+            .addInterceptor(new MetricsInterceptor())
+            .addInterceptor(new TraceInterceptor())
+            .build();
+
+    // Rough per-connection cost: socket and TLS buffers plus the HTTP/2 state
+    private static final long CONNECTION_BYTES = 32 * 1024;
+
+    // Idle pooled connections are the first thing to drop under memory pressure; in-use ones
+    // stay open and simply are not counted as freed
+    private static final TrimmableCache CONNECTION_CACHE = new TrimmableCache() {
+        @Override
+        public long sizeBytes() {
+            return SHARED_CLIENT.connectionPool().connectionCount() * CONNECTION_BYTES;
+        }
+
+        @Override
+        public void trimTo(long maxBytes) {
+            if (sizeBytes() > maxBytes) {
+                SHARED_CLIENT.connectionPool().evictAll();
+            }
+        }
+    };
+
+    static {
+        CacheGovernor.getInstance().register("http.connections", CacheGovernor.Priority.NORMAL, CONNECTION_CACHE);
+    }
+
     private final OkHttpClient client;
-    private final ExecutorService executor;
     private final Handler mainHandler;
+    // Created by the first callback-style call, so a wrapper used only for the synchronous
+    // and Rx methods starts no threads
+    private ExecutorService executor;
+    private boolean shutDown;
 
     public HttpClientWrapper() {
-        client = new OkHttpClient();
-        executor = Executors.newFixedThreadPool(4); // configurable pool size
+        client = SHARED_CLIENT;
         mainHandler = new Handler(Looper.getMainLooper());
     }
 
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            if (shutDown) {
+                throw new RejectedExecutionException("HttpClientWrapper was shut down");
+            }
+            executor = Executors.newFixedThreadPool(4); // configurable pool size
+        }
+        return executor;
+    }
+
     /**
      * Asynchronous method to fetch text from a URL.
      * Result is delivered via Callback on the main/UI thread.
      */
     public void getText(String url, Callback callback) {
-        executor.submit(() -> {
+        executor().submit(() -> {
             Request request = new Request.Builder()
                     .url(url)
                     .build();
@@ -73,20 +144,33 @@ public class HttpClientWrapper {
         }
     }
 
+    /**
+     * Synchronous POST of a raw body. Should not be called on the main thread.
+     *
+     * @param headers Extra request headers (e.g. Content-Encoding, Idempotency-Key); may be null.
+     * @return The response status and Retry-After header; non-2xx codes are returned, not thrown.
+     * @throws IOException on network failure.
+     */
+    public PostResult postSync(String url, byte[] body, String mediaType, Map<String, String> headers) throws IOException {
+        Request.Builder builder = new Request.Builder()
+                .url(url)
+                .post(RequestBody.create(body, MediaType.parse(mediaType)));
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        try (Response response = client.newCall(builder.build()).execute()) {
+            return new PostResult(response.code(), response.header("Retry-After"));
+        }
+    }
+
     /**
      * Asynchronous POST request to upload a file. * @param url The endpoint to upload to * @param file The file to upload * @param mediaType The MIME type of the file (e.g. "text/plain", "image/png")
      */
     public void uploadFile(String url, File file, String mediaType, Callback callback) {
-        executor.submit(() -> {
-            RequestBody fileBody = RequestBody.create(file, MediaType.parse(mediaType));
-            RequestBody requestBody = new MultipartBody.Builder()
-                    .setType(MultipartBody.FORM)
-                    .addFormDataPart("file", file.getName(), fileBody)
-                    .build();
-            Request request = new Request.Builder()
-                    .url(url)
-                    .post(requestBody)
-                    .build();
+        executor().submit(() -> {
+            Request request = uploadRequest(url, file, mediaType, null);
             try (Response response = client.newCall(request).execute()) {
                 if (response.isSuccessful() && response.body() != null) {
                     postSuccess(callback, response.body().string());
@@ -100,11 +184,166 @@ public class HttpClientWrapper {
         });
     }
 
+    /**
+     * GET as a Single that runs on SchedulerWrapper.io() and delivers on the main thread.
+     * Disposing it cancels the OkHttp call, so the download stops and the connection is freed.
+     */
+    public Single<String> getTextSingle(String url) {
+        return getTextSingle(url, SchedulerWrapper.main());
+    }
+
+    /**
+     * GET as a Single delivering on the given scheduler (e.g. SchedulerWrapper.computation()
+     * when the result is parsed next). Fails with IOException on non-2xx responses.
+     */
+    public Single<String> getTextSingle(String url, Scheduler deliverOn) {
+        return call(new Request.Builder().url(url).build(), "Request failed: ")
+                .subscribeOn(SchedulerWrapper.io())
+                .observeOn(deliverOn);
+    }
+
+    /**
+     * GET as a CompletableFuture, completed on an IO thread. cancel() cancels the OkHttp call.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public CompletableFuture<String> getTextFuture(String url) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Disposable disposable = call(new Request.Builder().url(url).build(), "Request failed: ")
+                .subscribeOn(SchedulerWrapper.io())
+                .subscribe(future::complete, future::completeExceptionally);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                disposable.dispose();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Multipart upload as a Single delivering the response body on the main thread.
+     * Disposing it cancels the OkHttp call.
+     */
+    public Single<String> uploadFileSingle(String url, File file, String mediaType) {
+        return call(uploadRequest(url, file, mediaType, null), "POST failed: ")
+                .subscribeOn(SchedulerWrapper.io())
+                .observeOn(SchedulerWrapper.main());
+    }
+
+    /**
+     * Multipart upload that streams progress, delivered on the main thread. Progress is
+     * reported every 64 KB; a slow subscriber only gets the latest event, and the final event
+     * (done, with the response body) is always delivered. Cancelling the subscription cancels
+     * the OkHttp call.
+     */
+    public Flowable<UploadProgress> uploadFileWithProgress(String url, File file, String mediaType) {
+        return Flowable.<UploadProgress>create(emitter -> {
+            Request request = uploadRequest(url, file, mediaType, (written, total) ->
+                    emitter.onNext(new UploadProgress(written, total, null)));
+            Call call = client.newCall(request);
+            emitter.setCancellable(call::cancel);
+            try (Response response = call.execute()) {
+                if (response.isSuccessful() && response.body() != null) {
+                    long total = request.body().contentLength();
+                    emitter.onNext(new UploadProgress(total, total, response.body().string()));
+                    emitter.onComplete();
+                } else {
+                    emitter.tryOnError(new IOException("POST failed: " + response.code()));
+                }
+            } catch (IOException e) {
+                // Also how a cancelled call ends; tryOnError drops it once disposed
+                emitter.tryOnError(e);
+            }
+        }, BackpressureStrategy.LATEST)
+                .subscribeOn(SchedulerWrapper.io())
+                .observeOn(SchedulerWrapper.main(), false, 1);
+    }
+
+    /**
+     * Executes the request on the subscribing thread and emits the body of a 2xx response.
+     * The call is cancelled when the observer disposes.
+     */
+    private Single<String> call(Request request, String failurePrefix) {
+        return Single.create(emitter -> {
+            Call call = client.newCall(request);
+            emitter.setCancellable(call::cancel);
+            try (Response response = call.execute()) {
+                if (response.isSuccessful() && response.body() != null) {
+                    emitter.onSuccess(response.body().string());
+                } else {
+                    emitter.tryOnError(new IOException(failurePrefix + response.code()));
+                }
+            } catch (IOException e) {
+                emitter.tryOnError(e);
+            }
+        });
+    }
+
+    private static Request uploadRequest(String url, File file, String mediaType,
+                                         ProgressRequestBody.Listener listener) {
+        RequestBody fileBody = RequestBody.create(file, MediaType.parse(mediaType));
+        RequestBody requestBody = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("file", file.getName(), fileBody)
+                .build();
+        if (listener != null) {
+            requestBody = new ProgressRequestBody(requestBody, listener);
+        }
+        return new Request.Builder()
+                .url(url)
+                .post(requestBody)
+                .build();
+    }
+
+    /**
+     * Opens connections to the given endpoints in the background: DNS lookup, TCP connect and
+     * TLS handshake, via a HEAD request to each origin's root. The connections stay in the
+     * shared pool (up to 5 idle, for 5 minutes), so the first real request skips that setup.
+     * Endpoints on the same host are warmed once; invalid or null URLs are ignored.
+     *
+     * @return A Completable that completes when every origin is warmed or has failed; warming
+     *         failures are logged and counted (http.prewarm.failures), never emitted.
+     */
+    public Completable prewarm(Collection<String> urls) {
+        Set<HttpUrl> origins = new LinkedHashSet<>();
+        for (String url : urls) {
+            HttpUrl parsed = url != null ? HttpUrl.parse(url) : null;
+            if (parsed != null) {
+                origins.add(new HttpUrl.Builder().scheme(parsed.scheme()).host(parsed.host())
+                        .port(parsed.port()).build());
+            }
+        }
+        List<Completable> warms = new ArrayList<>(origins.size());
+        for (HttpUrl origin : origins) {
+            warms.add(Completable.fromAction(() -> warm(origin))
+                    .subscribeOn(SchedulerWrapper.io())
+                    .doOnError(e -> Log.w(TAG, "Prewarm of " + origin.host() + " failed: " + e.getMessage()))
+                    .onErrorComplete());
+        }
+        return Completable.merge(warms);
+    }
+
+    public Completable prewarm(String... urls) {
+        return prewarm(Arrays.asList(urls));
+    }
+
+    private void warm(HttpUrl origin) throws IOException {
+        Request request = new Request.Builder()
+                .url(origin)
+                .head()
+                .tag(PrewarmListener.Marker.class, PrewarmListener.Marker.PREWARM)
+                .build();
+        // Any status will do; the connection is what we came for
+        client.newCall(request).execute().close();
+    }
+
     /**
      * Shutdown the executor when no longer needed.
      */
-    public void shutdown() {
-        executor.shutdown();
+    public synchronized void shutdown() {
+        shutDown = true;
+        if (executor != null) {
+            executor.shutdown();
+        }
     }
 
     // Helper methods to post results back to main thread
@@ -116,6 +355,34 @@ public class HttpClientWrapper {
         mainHandler.post(() -> callback.onError(errorMessage));
     }
 
+    /**
+     * Outcome of {@link #postSync}.
+     */
+    public static final class PostResult {
+        private final int code;
+        private final String retryAfter;
+
+        PostResult(int code, String retryAfter) {
+            this.code = code;
+            this.retryAfter = retryAfter;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public boolean isSuccessful() {
+            return code >= 200 && code < 300;
+        }
+
+        /**
+         * Raw Retry-After header, or null.
+         */
+        public String getRetryAfter() {
+            return retryAfter;
+        }
+    }
+
     // Generic callback interface
     public interface Callback {
         void onSuccess(String text);
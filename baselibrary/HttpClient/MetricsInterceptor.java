@@ -0,0 +1,51 @@
+package com.rohit.baselibrary.network;
+
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.Histogram;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * MetricsInterceptor
+ * Counts requests, non-2xx responses and network failures, and records the time to response
+ * headers for every call made through {@link HttpClientWrapper}.
+ */
+class MetricsInterceptor implements Interceptor {
+
+    private static final Counter REQUESTS = MetricsRegistry.counter(MetricNames.HTTP_REQUESTS);
+    private static final Counter ERRORS = MetricsRegistry.counter(MetricNames.HTTP_ERRORS);
+    private static final Counter FAILURES = MetricsRegistry.counter(MetricNames.HTTP_FAILURES);
+    private static final Counter BYTES_IN = MetricsRegistry.counter(MetricNames.HTTP_BYTES_IN);
+    private static final Histogram LATENCY_MS = MetricsRegistry.histogram(MetricNames.HTTP_LATENCY_MS);
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (chain.request().tag(PrewarmListener.Marker.class) != null) {
+            // Measured by PrewarmListener; its status code is irrelevant
+            return chain.proceed(chain.request());
+        }
+        REQUESTS.increment();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            FAILURES.increment();
+            throw e;
+        }
+        LATENCY_MS.recordMillisSince(start);
+        if (!response.isSuccessful()) {
+            ERRORS.increment();
+        }
+        // Known only when the server sends Content-Length; chunked bodies are not counted
+        if (response.body() != null && response.body().contentLength() > 0) {
+            BYTES_IN.add(response.body().contentLength());
+        }
+        return response;
+    }
+}
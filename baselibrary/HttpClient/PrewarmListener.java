@@ -0,0 +1,123 @@
+package com.rohit.baselibrary.network;
+
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.Histogram;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+
+/**
+ * PrewarmListener
+ * Measures connection setup (DNS, TCP and TLS) of prewarm calls made by
+ * {@link HttpClientWrapper#prewarm}, then checks whether the first real request to each warmed
+ * host reused the pooled connection. A reuse counts as a hit, and the setup time the prewarm
+ * paid is recorded as saved.
+ */
+class PrewarmListener extends EventListener {
+
+    /**
+     * Request tag marking a prewarm call.
+     */
+    enum Marker {
+        PREWARM
+    }
+
+    static final EventListener.Factory FACTORY = call -> new PrewarmListener();
+
+    private static final Counter WARMED = MetricsRegistry.counter(MetricNames.HTTP_PREWARM_WARMED);
+    private static final Counter FAILURES = MetricsRegistry.counter(MetricNames.HTTP_PREWARM_FAILURES);
+    private static final Counter HITS = MetricsRegistry.counter(MetricNames.HTTP_PREWARM_HITS);
+    private static final Counter MISSES = MetricsRegistry.counter(MetricNames.HTTP_PREWARM_MISSES);
+    private static final Histogram SETUP_MS = MetricsRegistry.histogram(MetricNames.HTTP_PREWARM_SETUP_MS);
+    private static final Histogram SAVED_MS = MetricsRegistry.histogram(MetricNames.HTTP_PREWARM_SAVED_MS);
+
+    // host:port -> setup time paid by its prewarm, until the first real request to that host
+    private static final Map<String, Long> warmed = new ConcurrentHashMap<>();
+
+    // Events of one call arrive in order, so plain fields are enough
+    private long dnsStartNanos;
+    private long connectStartNanos;
+    private long setupNanos;
+    private boolean connected;
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+        setupNanos += System.nanoTime() - dnsStartNanos;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+        connected = true;
+        connectStartNanos = System.nanoTime();
+    }
+
+    // Covers TCP and the TLS handshake
+    @Override
+    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+        setupNanos += System.nanoTime() - connectStartNanos;
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol,
+                              IOException e) {
+        setupNanos += System.nanoTime() - connectStartNanos;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        finish(call, true);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException e) {
+        finish(call, false);
+    }
+
+    private void finish(Call call, boolean succeeded) {
+        HttpUrl url = call.request().url();
+        String key = url.host() + ":" + url.port();
+        if (call.request().tag(Marker.class) != null) {
+            if (!succeeded) {
+                FAILURES.increment();
+            } else if (connected) {
+                WARMED.increment();
+                SETUP_MS.record(TimeUnit.NANOSECONDS.toMillis(setupNanos));
+                warmed.put(key, setupNanos);
+            }
+            // Already pooled: nothing was set up, keep the earlier measurement
+            return;
+        }
+        if (warmed.isEmpty()) {
+            return;
+        }
+        Long saved = warmed.remove(key);
+        if (saved == null) {
+            return;
+        }
+        if (connected) {
+            // Evicted or unusable by now; the request paid the setup itself
+            MISSES.increment();
+        } else {
+            HITS.increment();
+            SAVED_MS.record(TimeUnit.NANOSECONDS.toMillis(saved));
+        }
+    }
+}
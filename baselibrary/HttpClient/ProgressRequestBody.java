@@ -0,0 +1,72 @@
+package com.rohit.baselibrary.network;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+
+/**
+ * ProgressRequestBody
+ * Wraps a request body and reports the bytes written so far. Reports are throttled to one per
+ * {@link #STEP_BYTES} (and the final byte) so a large upload does not flood the listener.
+ */
+class ProgressRequestBody extends RequestBody {
+
+    static final long STEP_BYTES = 64 * 1024;
+
+    interface Listener {
+        void onProgress(long bytesWritten, long contentLength);
+    }
+
+    private final RequestBody delegate;
+    private final Listener listener;
+
+    ProgressRequestBody(RequestBody delegate, Listener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long total = contentLength();
+        CountingSink counting = new CountingSink(sink, total);
+        BufferedSink buffered = Okio.buffer(counting);
+        delegate.writeTo(buffered);
+        buffered.flush();
+    }
+
+    private final class CountingSink extends ForwardingSink {
+        private final long total;
+        private long written;
+        private long lastReported;
+
+        CountingSink(BufferedSink sink, long total) {
+            super(sink);
+            this.total = total;
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            written += byteCount;
+            if (written - lastReported >= STEP_BYTES || written == total) {
+                lastReported = written;
+                listener.onProgress(written, total);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.rohit.baselibrary.network;
+
+import com.rohit.baselibrary.tracing.Tracer;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * TraceInterceptor
+ * Wraps every call made through {@link HttpClientWrapper} in an "http" span (method and host)
+ * when {@link Tracer} is enabled.
+ */
+class TraceInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!Tracer.isEnabled()) {
+            return chain.proceed(chain.request());
+        }
+        Request request = chain.request();
+        Tracer.begin("http", request.method() + " " + request.url().host());
+        try {
+            return chain.proceed(request);
+        } finally {
+            Tracer.end();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.rohit.baselibrary.network;
+
+/**
+ * UploadProgress
+ * One event of {@link HttpClientWrapper#uploadFileWithProgress}. The last event of a successful
+ * upload is done and carries the response body.
+ */
+public final class UploadProgress {
+
+    private final long bytesWritten;
+    private final long contentLength;
+    private final String response;
+
+    UploadProgress(long bytesWritten, long contentLength, String response) {
+        this.bytesWritten = bytesWritten;
+        this.contentLength = contentLength;
+        this.response = response;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Total request body size, -1 if unknown.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * 0..100, or -1 if the size is unknown.
+     */
+    public int getPercent() {
+        return contentLength > 0 ? (int) (bytesWritten * 100 / contentLength) : -1;
+    }
+
+    public boolean isDone() {
+        return response != null;
+    }
+
+    /**
+     * The response body once the server answered, otherwise null.
+     */
+    public String getResponse() {
+        return response;
+    }
+
+    @Override
+    public String toString() {
+        return isDone() ? "done (" + bytesWritten + " bytes)" : bytesWritten + "/" + contentLength;
+    }
+}
@@ -0,0 +1,281 @@
+package com.rohit.baselibrary.memory;
+
+import android.util.Log;
+
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * CacheGovernor
+ * One place that shrinks the library's in-memory caches when memory gets tight.
+ *
+ * Components register each cache with a priority. On a {@link MemoryPressure} signal the
+ * governor trims every cache to the share its priority keeps at that level; when the total
+ * exceeds the byte budget it trims in priority order (LOW first, largest first) until the
+ * total fits. Each trim is reported to listeners, logged and counted.
+ *
+ * <pre>
+ * share kept     LOW pressure   MODERATE   CRITICAL
+ * Priority.LOW        50%           0%         0%
+ * Priority.NORMAL    100%          50%         0%
+ * Priority.HIGH      100%         100%        50%
+ * </pre>
+ *
+ * Caches are held weakly, like SharedPreferences listeners: the governor never keeps a cache
+ * alive, so keep a strong reference for as long as it should be governed.
+ *
+ * Signals come from a {@link PressureSource}: {@link ComponentCallbacksPressureSource} on a
+ * device, {@link SimulatedPressureSource} on a plain JVM.
+ */
+public class CacheGovernor {
+
+    private static final String TAG = "CacheGovernor";
+
+    public enum Priority {
+        /** Cheap to rebuild (indexes, lookups derived from other data). */
+        LOW,
+        NORMAL,
+        /** Expensive to rebuild; only trimmed under critical pressure. */
+        HIGH
+    }
+
+    /**
+     * Receives every trim, on the thread that triggered it.
+     */
+    public interface Listener {
+        void onTrim(TrimEvent event);
+    }
+
+    // Percent of its size a cache keeps, indexed [pressure][priority]
+    private static final int[][] KEEP_PERCENT = {
+            {50, 100, 100},   // LOW
+            {0, 50, 100},     // MODERATE
+            {0, 0, 50},       // CRITICAL
+    };
+
+    private static final Counter TRIMS = MetricsRegistry.counter(MetricNames.MEMORY_TRIMS);
+    private static final Counter TRIMMED_BYTES = MetricsRegistry.counter(MetricNames.MEMORY_TRIMMED_BYTES);
+
+    private static volatile CacheGovernor instance;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile long budgetBytes = Long.MAX_VALUE;
+
+    /**
+     * The process-wide governor the library's own caches register with.
+     */
+    public static CacheGovernor getInstance() {
+        if (instance == null) {
+            synchronized (CacheGovernor.class) {
+                if (instance == null) {
+                    CacheGovernor governor = new CacheGovernor();
+                    MetricsRegistry.gauge(MetricNames.MEMORY_CACHE_BYTES, governor::totalBytes);
+                    instance = governor;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * A standalone governor, e.g. for tests. Library caches use {@link #getInstance()}.
+     */
+    public CacheGovernor() {
+    }
+
+    // --- Registration ---
+
+    /**
+     * Puts a cache under governance; registering the same cache again replaces its entry.
+     *
+     * @param name Shown in trim events and logs.
+     */
+    public synchronized void register(String name, Priority priority, TrimmableCache cache) {
+        unregister(cache);
+        entries.add(new Entry(name, priority, cache));
+    }
+
+    public synchronized void unregister(TrimmableCache cache) {
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            TrimmableCache registered = it.next().cache.get();
+            if (registered == null || registered == cache) {
+                it.remove();
+            }
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // --- Budget ---
+
+    /**
+     * Caps the total size of all registered caches. Checked by {@link #checkBudget()}.
+     * Long.MAX_VALUE (default) means no cap.
+     */
+    public void setBudgetBytes(long bytes) {
+        budgetBytes = bytes;
+        checkBudget();
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Trims caches if their total exceeds the budget. Caches call this after growing.
+     *
+     * @return The trim event, or null if the total fits.
+     */
+    public synchronized TrimEvent checkBudget() {
+        long budget = budgetBytes;
+        List<Entry> live = liveEntries();
+        long before = 0;
+        for (Entry entry : live) {
+            entry.sampled = entry.size();
+            before += entry.sampled;
+        }
+        if (before <= budget) {
+            return null;
+        }
+        // Cheapest to rebuild first; within a priority, the largest first
+        Collections.sort(live, (a, b) -> a.priority != b.priority
+                ? a.priority.compareTo(b.priority)
+                : Long.compare(b.sampled, a.sampled));
+        long excess = before - budget;
+        Map<String, Long> freed = new LinkedHashMap<>();
+        for (Entry entry : live) {
+            if (excess <= 0) {
+                break;
+            }
+            long gained = entry.trimTo(Math.max(0, entry.sampled - excess));
+            if (gained > 0) {
+                freed.put(entry.name, gained);
+                excess -= gained;
+            }
+        }
+        return report(new TrimEvent(TrimEvent.Reason.BUDGET, null, before, before - sum(freed), freed));
+    }
+
+    // --- Pressure ---
+
+    /**
+     * Trims every cache to the share its priority keeps at this pressure.
+     *
+     * @return The trim event (also sent to listeners).
+     */
+    public synchronized TrimEvent onPressure(MemoryPressure pressure) {
+        List<Entry> live = liveEntries();
+        long before = 0;
+        Map<String, Long> freed = new LinkedHashMap<>();
+        for (Entry entry : live) {
+            long size = entry.size();
+            before += size;
+            int keep = KEEP_PERCENT[pressure.ordinal()][entry.priority.ordinal()];
+            if (keep < 100 && size > 0) {
+                long gained = entry.trimTo(size * keep / 100);
+                if (gained > 0) {
+                    freed.put(entry.name, gained);
+                }
+            }
+        }
+        return report(new TrimEvent(TrimEvent.Reason.PRESSURE, pressure, before, before - sum(freed), freed));
+    }
+
+    /**
+     * Estimated bytes held by every registered cache.
+     */
+    public synchronized long totalBytes() {
+        long total = 0;
+        for (Entry entry : liveEntries()) {
+            total += entry.size();
+        }
+        return total;
+    }
+
+    private TrimEvent report(TrimEvent event) {
+        TRIMS.increment();
+        TRIMMED_BYTES.add(event.getFreedBytes());
+        Log.i(TAG, event.toString());
+        for (Listener listener : listeners) {
+            listener.onTrim(event);
+        }
+        return event;
+    }
+
+    // Caller holds the lock; drops entries whose cache was collected
+    private List<Entry> liveEntries() {
+        List<Entry> live = new ArrayList<>(entries.size());
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.cache.get() == null) {
+                it.remove();
+            } else {
+                live.add(entry);
+            }
+        }
+        return live;
+    }
+
+    private static long sum(Map<String, Long> freed) {
+        long total = 0;
+        for (long bytes : freed.values()) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    private static final class Entry {
+        final String name;
+        final Priority priority;
+        final WeakReference<TrimmableCache> cache;
+        long sampled;
+
+        Entry(String name, Priority priority, TrimmableCache cache) {
+            this.name = name;
+            this.priority = priority;
+            this.cache = new WeakReference<>(cache);
+        }
+
+        long size() {
+            TrimmableCache target = cache.get();
+            return target != null ? Math.max(0, target.sizeBytes()) : 0;
+        }
+
+        // Returns the bytes actually freed
+        long trimTo(long maxBytes) {
+            TrimmableCache target = cache.get();
+            if (target == null) {
+                return 0;
+            }
+            long before = Math.max(0, target.sizeBytes());
+            if (before <= maxBytes) {
+                return 0;
+            }
+            try {
+                target.trimTo(maxBytes);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Trimming " + name + " failed", e);
+            }
+            return Math.max(0, before - Math.max(0, target.sizeBytes()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.rohit.baselibrary.memory;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+/**
+ * ComponentCallbacksPressureSource
+ * Forwards onTrimMemory() and onLowMemory() of the application to the governor.
+ *
+ * <pre>
+ * new ComponentCallbacksPressureSource(this).attach(CacheGovernor.getInstance());  // Application.onCreate()
+ * </pre>
+ */
+public class ComponentCallbacksPressureSource implements PressureSource, ComponentCallbacks2 {
+
+    private final Context context;
+    private volatile CacheGovernor governor;
+
+    public ComponentCallbacksPressureSource(Context context) {
+        this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+    }
+
+    @Override
+    public void attach(CacheGovernor governor) {
+        detach();
+        this.governor = governor;
+        context.registerComponentCallbacks(this);
+    }
+
+    @Override
+    public void detach() {
+        if (governor != null) {
+            context.unregisterComponentCallbacks(this);
+            governor = null;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        CacheGovernor target = governor;
+        MemoryPressure pressure = MemoryPressure.fromTrimLevel(level);
+        if (target != null && pressure != null) {
+            target.onPressure(pressure);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        CacheGovernor target = governor;
+        if (target != null) {
+            target.onPressure(MemoryPressure.CRITICAL);
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // Not a memory signal
+    }
+}
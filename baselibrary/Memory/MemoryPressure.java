@@ -0,0 +1,42 @@
+package com.rohit.baselibrary.memory;
+
+import android.content.ComponentCallbacks2;
+
+/**
+ * MemoryPressure
+ * How hard caches should be trimmed, from mild (app in the background) to critical (the
+ * process is about to be killed).
+ */
+public enum MemoryPressure {
+    /** UI hidden or app in the background: trim what is cheap to rebuild. */
+    LOW,
+    /** The system is running low while we are in the foreground, or we are mid-LRU. */
+    MODERATE,
+    /** Critical in the foreground, next to be killed, or onLowMemory(). */
+    CRITICAL;
+
+    /**
+     * Maps an onTrimMemory() level.
+     *
+     * @return The pressure, or null for levels that need no trimming.
+     */
+    public static MemoryPressure fromTrimLevel(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE) {
+            return CRITICAL;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            return MODERATE;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            return LOW;
+        }
+        // Foreground levels: RUNNING_MODERATE (5), RUNNING_LOW (10), RUNNING_CRITICAL (15)
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            return CRITICAL;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            return MODERATE;
+        }
+        return level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE ? LOW : null;
+    }
+}
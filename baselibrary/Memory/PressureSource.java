@@ -0,0 +1,18 @@
+package com.rohit.baselibrary.memory;
+
+/**
+ * PressureSource
+ * Feeds memory pressure signals into a {@link CacheGovernor}.
+ */
+public interface PressureSource {
+
+    /**
+     * Starts forwarding signals to the governor.
+     */
+    void attach(CacheGovernor governor);
+
+    /**
+     * Stops forwarding signals.
+     */
+    void detach();
+}
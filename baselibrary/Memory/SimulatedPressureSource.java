@@ -0,0 +1,47 @@
+package com.rohit.baselibrary.memory;
+
+/**
+ * SimulatedPressureSource
+ * Pressure signals on demand, for exercising caches and trim policies on a plain JVM or in
+ * instrumentation tests. Signals are delivered synchronously on the calling thread.
+ *
+ * <pre>
+ * CacheGovernor governor = new CacheGovernor();
+ * SimulatedPressureSource pressure = new SimulatedPressureSource();
+ * pressure.attach(governor);
+ * governor.register("lookups", CacheGovernor.Priority.LOW, cache);
+ * TrimEvent event = pressure.signal(MemoryPressure.MODERATE);
+ * </pre>
+ */
+public class SimulatedPressureSource implements PressureSource {
+
+    private volatile CacheGovernor governor;
+
+    @Override
+    public void attach(CacheGovernor governor) {
+        this.governor = governor;
+    }
+
+    @Override
+    public void detach() {
+        governor = null;
+    }
+
+    /**
+     * @return The resulting trim, or null if not attached.
+     */
+    public TrimEvent signal(MemoryPressure pressure) {
+        CacheGovernor target = governor;
+        return target != null ? target.onPressure(pressure) : null;
+    }
+
+    /**
+     * Replays an onTrimMemory() level as the Android source would.
+     *
+     * @return The resulting trim, or null if the level needs none or not attached.
+     */
+    public TrimEvent signalTrimLevel(int level) {
+        MemoryPressure pressure = MemoryPressure.fromTrimLevel(level);
+        return pressure != null ? signal(pressure) : null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.rohit.baselibrary.memory;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * TrimEvent
+ * What one trim did: why it ran, the total cache size before and after, and the bytes freed
+ * per cache (caches that freed nothing are left out).
+ */
+public final class TrimEvent {
+
+    public enum Reason {
+        /** A memory pressure signal. */
+        PRESSURE,
+        /** The registered caches exceeded the byte budget. */
+        BUDGET
+    }
+
+    private final Reason reason;
+    private final MemoryPressure pressure;
+    private final long bytesBefore;
+    private final long bytesAfter;
+    private final Map<String, Long> freedByCache;
+
+    TrimEvent(Reason reason, MemoryPressure pressure, long bytesBefore, long bytesAfter,
+              Map<String, Long> freedByCache) {
+        this.reason = reason;
+        this.pressure = pressure;
+        this.bytesBefore = bytesBefore;
+        this.bytesAfter = bytesAfter;
+        this.freedByCache = Collections.unmodifiableMap(freedByCache);
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * The signalled pressure, null for budget trims.
+     */
+    public MemoryPressure getPressure() {
+        return pressure;
+    }
+
+    public long getBytesBefore() {
+        return bytesBefore;
+    }
+
+    public long getBytesAfter() {
+        return bytesAfter;
+    }
+
+    public long getFreedBytes() {
+        return bytesBefore - bytesAfter;
+    }
+
+    /**
+     * Bytes freed per cache name, in trim order.
+     */
+    public Map<String, Long> getFreedByCache() {
+        return freedByCache;
+    }
+
+    @Override
+    public String toString() {
+        return "Trim (" + (pressure != null ? pressure : reason) + "): " + bytesBefore + " -> "
+                + bytesAfter + " bytes " + freedByCache;
+    }
+}
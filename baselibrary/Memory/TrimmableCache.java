@@ -0,0 +1,20 @@
+package com.rohit.baselibrary.memory;
+
+/**
+ * TrimmableCache
+ * A cache the {@link CacheGovernor} can shrink. Sizes are estimates; they only need to be
+ * comparable between caches and roughly right in bytes.
+ */
+public interface TrimmableCache {
+
+    /**
+     * Estimated bytes held right now. Called on the governor's thread, so keep it cheap.
+     */
+    long sizeBytes();
+
+    /**
+     * Shrinks the cache to at most maxBytes (0 means drop everything). Entries dropped here
+     * must be rebuildable; a cache that can only shrink in steps may free more than asked.
+     */
+    void trimTo(long maxBytes);
+}
@@ -0,0 +1,40 @@
+package com.rohit.baselibrary.metrics;
+
+/**
+ * Counter
+ * Monotonic count backed by a {@link StripedLong}, so concurrent increments from many threads
+ * land in separate cells instead of contending on one value (from API 24 on).
+ */
+public final class Counter {
+
+    private final String name;
+    private final StripedLong adder = StripedLong.create();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (MetricsRegistry.enabled) {
+            adder.increment();
+        }
+    }
+
+    public void add(long delta) {
+        if (MetricsRegistry.enabled) {
+            adder.add(delta);
+        }
+    }
+
+    public long get() {
+        return adder.sum();
+    }
+
+    void reset() {
+        adder.reset();
+    }
+}
@@ -0,0 +1,10 @@
+package com.rohit.baselibrary.metrics;
+
+/**
+ * Gauge
+ * A value sampled only when a snapshot is taken (queue length, pool size, cache bytes), so it
+ * costs nothing on the hot path.
+ */
+public interface Gauge {
+    long value();
+}
@@ -0,0 +1,158 @@
+package com.rohit.baselibrary.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram
+ * Lock-free distribution of non-negative long values (typically latencies in microseconds or
+ * milliseconds; the unit is part of the metric name).
+ *
+ * Values are counted in log-linear buckets: each power of two is split into
+ * {@link #SUB_BUCKETS} linear sub-buckets, so a percentile is reported with at most 12.5%
+ * relative error using a fixed 488-slot array. Recording is one bucket index computation and
+ * one atomic increment; nothing is allocated.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below SUB_BUCKETS map 1:1; each power of two from 2^SUB_BUCKET_BITS to 2^62 (the
+    // highest a non-negative long reaches) gets SUB_BUCKETS slots: 1 + 60 groups, 488 slots
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final StripedLong count = StripedLong.create();
+    private final StripedLong sum = StripedLong.create();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one value; negative values are counted as 0.
+     */
+    public void record(long value) {
+        if (!MetricsRegistry.enabled) {
+            return;
+        }
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(bucketIndex(v));
+        count.increment();
+        sum.add(v);
+        long currentMax = max.get();
+        while (v > currentMax && !max.compareAndSet(currentMax, v)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Records the microseconds elapsed since a System.nanoTime() reading.
+     */
+    public void recordMicrosSince(long startNanos) {
+        record((System.nanoTime() - startNanos) / 1000L);
+    }
+
+    /**
+     * Records the milliseconds elapsed since a System.nanoTime() reading.
+     */
+    public void recordMillisSince(long startNanos) {
+        record((System.nanoTime() - startNanos) / 1_000_000L);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Upper bound (inclusive) of the values counted in a bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long lower = (1L << exponent) + ((long) sub << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Value at the given percentile (0..100), reported as its bucket's upper bound and capped
+     * at the maximum seen. Returns 0 when empty.
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return percentile(counts, total, percentile, max.get());
+    }
+
+    /**
+     * Several percentiles from one pass over the buckets.
+     */
+    public long[] getPercentiles(double... percentiles) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long maxSeen = max.get();
+        long[] result = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            result[i] = percentile(counts, total, percentiles[i], maxSeen);
+        }
+        return result;
+    }
+
+    private static long percentile(long[] counts, long total, double percentile, long maxSeen) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxSeen);
+            }
+        }
+        return maxSeen;
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.rohit.baselibrary.metrics;
+
+/**
+ * MetricNames
+ * Well-known metric names, dot-separated as component.metric. Histogram names end in their
+ * unit (_us or _ms). Names are part of the export format; do not rename existing ones.
+ */
+public final class MetricNames {
+
+    private MetricNames() {
+        // Constants only
+    }
+
+    // --- FileLogger ---
+    public static final String LOG_LINES = "log.lines";
+    public static final String LOG_BYTES = "log.bytes";
+    public static final String LOG_ERRORS = "log.errors";
+    public static final String LOG_WRITE_US = "log.write_us";
+    // force() calls on log files and their duration
+    public static final String LOG_SYNCS = "log.syncs";
+    public static final String LOG_SYNC_US = "log.sync_us";
+    // Group-commit lines acknowledged by one force() (a count, not a time)
+    public static final String LOG_SYNC_BATCH = "log.sync_batch";
+    // Torn tail bytes cut off by crash recovery
+    public static final String LOG_TRUNCATED_BYTES = "log.truncated_bytes";
+
+    // --- HttpClientWrapper ---
+    public static final String HTTP_REQUESTS = "http.requests";
+    // Responses outside 2xx
+    public static final String HTTP_ERRORS = "http.errors";
+    // IOExceptions (no response at all)
+    public static final String HTTP_FAILURES = "http.failures";
+    public static final String HTTP_BYTES_IN = "http.bytes_in";
+    public static final String HTTP_LATENCY_MS = "http.latency_ms";
+    // Connection prewarming (HttpClientWrapper.prewarm)
+    public static final String HTTP_PREWARM_WARMED = "http.prewarm.warmed";
+    public static final String HTTP_PREWARM_FAILURES = "http.prewarm.failures";
+    // DNS, TCP and TLS time a prewarm paid in the background
+    public static final String HTTP_PREWARM_SETUP_MS = "http.prewarm.setup_ms";
+    // First request to a warmed host that reused the pooled connection, and the setup it skipped
+    public static final String HTTP_PREWARM_HITS = "http.prewarm.hits";
+    public static final String HTTP_PREWARM_MISSES = "http.prewarm.misses";
+    public static final String HTTP_PREWARM_SAVED_MS = "http.prewarm.saved_ms";
+
+    // --- ExecutorServiceWrapper (prefix + pool name + suffix, e.g. executor.io.queue_wait_us) ---
+    public static final String EXECUTOR_PREFIX = "executor.";
+    public static final String EXECUTOR_QUEUE_WAIT_US = ".queue_wait_us";
+    public static final String EXECUTOR_RUN_US = ".run_us";
+    public static final String EXECUTOR_POOL_SIZE = ".pool_size";
+    public static final String EXECUTOR_QUEUE_LENGTH = ".queue_length";
+    public static final String EXECUTOR_ACTIVE = ".active";
+
+    // --- SharedPreferenceConfigurationHandler ---
+    public static final String PREFS_READS = "config.prefs.reads";
+    public static final String PREFS_WRITES = "config.prefs.writes";
+    public static final String PREFS_APPLIES = "config.prefs.applies";
+
+    // --- DataStoreConfigurationHandler ---
+    public static final String DATASTORE_READS = "config.datastore.reads";
+    // Reads answered from the in-memory snapshot
+    public static final String DATASTORE_SNAPSHOT_HITS = "config.datastore.snapshot_hits";
+    public static final String DATASTORE_COMMITS = "config.datastore.commits";
+    public static final String DATASTORE_COMMIT_ERRORS = "config.datastore.commit_errors";
+    public static final String DATASTORE_COMMIT_MS = "config.datastore.commit_ms";
+
+    // --- ConfigRefreshEngine ---
+    public static final String REFRESH_CHECKS = "config.refresh.checks";
+    // Triggers that arrived while a check was still running
+    public static final String REFRESH_DROPPED = "config.refresh.dropped";
+    public static final String REFRESH_APPLIED = "config.refresh.applied";
+    public static final String REFRESH_FAILURES = "config.refresh.failures";
+    // Downloads abandoned because a newer version was announced
+    public static final String REFRESH_CANCELLED = "config.refresh.cancelled";
+    public static final String REFRESH_CHECK_MS = "config.refresh.check_ms";
+    public static final String REFRESH_DOWNLOAD_MS = "config.refresh.download_ms";
+    public static final String REFRESH_VERIFY_MS = "config.refresh.verify_ms";
+    public static final String REFRESH_PERSIST_MS = "config.refresh.persist_ms";
+
+    // --- CacheGovernor ---
+    public static final String MEMORY_TRIMS = "memory.trims";
+    public static final String MEMORY_TRIMMED_BYTES = "memory.trimmed_bytes";
+    // Estimated bytes held by every governed cache
+    public static final String MEMORY_CACHE_BYTES = "memory.cache_bytes";
+
+    public static String executor(String pool, String suffix) {
+        return EXECUTOR_PREFIX + pool + suffix;
+    }
+}
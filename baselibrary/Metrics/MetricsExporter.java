@@ -0,0 +1,126 @@
+package com.rohit.baselibrary.metrics;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.rohit.baselibrary.network.WebhookOutbox;
+import com.rohit.baselibrary.threading.executor.ExecutorServiceWrapper;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MetricsExporter
+ * Periodically writes a {@link MetricsSnapshot} to a {@link Sink}.
+ *
+ * The timer only hands the export to the IO executor, so a slow disk or a large snapshot never
+ * delays other scheduled tasks. Exports are skipped while metrics are disabled.
+ */
+public class MetricsExporter {
+
+    private static final String TAG = "MetricsExporter";
+    private static final String EVENT_TYPE = "metrics";
+
+    /**
+     * Destination of one snapshot.
+     */
+    public interface Sink {
+        void export(MetricsSnapshot snapshot) throws IOException;
+    }
+
+    private final Sink sink;
+    private ScheduledFuture<?> task;
+
+    public MetricsExporter(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Exports every period until {@link #stop()}; restarting replaces the previous schedule.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        stop();
+        task = ExecutorServiceWrapper.runPeriodically(
+                () -> ExecutorServiceWrapper.runOnIO(this::exportNow), period, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Takes a snapshot and exports it on the calling thread.
+     *
+     * @return true if the sink accepted it.
+     */
+    public boolean exportNow() {
+        if (!MetricsRegistry.isEnabled()) {
+            return false;
+        }
+        try {
+            sink.export(MetricsRegistry.snapshot());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Metrics export failed", e);
+            return false;
+        }
+    }
+
+    // --- Sinks ---
+
+    /**
+     * Appends one JSON line per snapshot. When the file grows past maxBytes it is moved to
+     * "&lt;name&gt;.1" (replacing the previous one), so at most twice maxBytes is kept.
+     */
+    public static Sink fileSink(File file, long maxBytes) {
+        Object lock = new Object();
+        return snapshot -> {
+            synchronized (lock) {
+                if (file.length() > maxBytes) {
+                    File previous = new File(file.getPath() + ".1");
+                    previous.delete();
+                    file.renameTo(previous);
+                }
+                File parent = file.getParentFile();
+                if (parent != null && !parent.exists()) {
+                    parent.mkdirs();
+                }
+                try (FileOutputStream out = new FileOutputStream(file, true)) {
+                    out.write((snapshot.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        };
+    }
+
+    /**
+     * files/metrics/metrics.jsonl, capped at 256 KB per generation.
+     */
+    public static Sink fileSink(Context context) {
+        return fileSink(new File(new File(context.getFilesDir(), "metrics"), "metrics.jsonl"), 256 * 1024);
+    }
+
+    /**
+     * Queues each snapshot as a "metrics" event in the {@link WebhookOutbox}, which batches
+     * and sends it with the app's other events.
+     */
+    public static Sink webhookSink(Context context) {
+        WebhookOutbox outbox = WebhookOutbox.getInstance(context);
+        return snapshot -> {
+            try {
+                outbox.enqueue(EVENT_TYPE, new JSONObject(snapshot.toJson()));
+            } catch (JSONException e) {
+                throw new IOException("Invalid snapshot", e);
+            }
+        };
+    }
+}
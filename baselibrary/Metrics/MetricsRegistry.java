@@ -0,0 +1,123 @@
+package com.rohit.baselibrary.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MetricsRegistry
+ * Process-wide home of every counter, histogram and gauge in the library.
+ *
+ * Look a metric up once (typically into a static final field) and update it on the hot path;
+ * lookups go through a ConcurrentHashMap, updates touch only the metric itself. Names come
+ * from {@link MetricNames}.
+ *
+ * Overhead budget: an update must stay within {@link #COUNTER_BUDGET_NANOS} (counter) or
+ * {@link #HISTOGRAM_BUDGET_NANOS} (histogram) per call under contention, and allocate
+ * nothing. The benchmark module checks both. With {@link #setEnabled(boolean) metrics off},
+ * an update is a single volatile read.
+ */
+public final class MetricsRegistry {
+
+    public static final long COUNTER_BUDGET_NANOS = 50;
+    public static final long HISTOGRAM_BUDGET_NANOS = 150;
+
+    static volatile boolean enabled = true;
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Turns recording on or off for every metric. Values recorded so far are kept.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The counter with this name, created on first use.
+     */
+    public static Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = new Counter(name);
+            Counter existing = counters.putIfAbsent(name, counter);
+            if (existing != null) {
+                counter = existing;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * The histogram with this name, created on first use.
+     */
+    public static Histogram histogram(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram(name);
+            Histogram existing = histograms.putIfAbsent(name, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Registers (or replaces) a gauge; it is sampled only when a snapshot is taken.
+     */
+    public static void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public static void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Reads every metric into an immutable snapshot. Gauges that throw are skipped.
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Counter counter : counters.values()) {
+            counterValues.put(counter.getName(), counter.get());
+        }
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            try {
+                gaugeValues.put(entry.getKey(), entry.getValue().value());
+            } catch (RuntimeException ignored) {
+                // A gauge over a closed resource must not break the export
+            }
+        }
+        Map<String, MetricsSnapshot.HistogramValue> histogramValues = new TreeMap<>();
+        for (Histogram histogram : histograms.values()) {
+            if (histogram.getCount() > 0) {
+                histogramValues.put(histogram.getName(), new MetricsSnapshot.HistogramValue(histogram));
+            }
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, histogramValues);
+    }
+
+    /**
+     * Zeroes every counter and histogram (gauges stay registered), e.g. between benchmark runs.
+     */
+    public static void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+}
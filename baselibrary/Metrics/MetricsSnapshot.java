@@ -0,0 +1,124 @@
+package com.rohit.baselibrary.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * MetricsSnapshot
+ * Values of every metric at one point in time. Counters and histograms are cumulative since
+ * process start; diff two snapshots for rates.
+ *
+ * {@link #toJson()} produces one compact line:
+ * <pre>
+ * {"ts":1700000000000,"c":{"log.lines":12},"g":{"executor.io.pool_size":4},
+ *  "h":{"http.latency_ms":[count,sum,p50,p90,p99,max]}}
+ * </pre>
+ */
+public final class MetricsSnapshot {
+
+    private final long timestamp;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, HistogramValue> histograms;
+
+    MetricsSnapshot(long timestamp, Map<String, Long> counters, Map<String, Long> gauges,
+                    Map<String, HistogramValue> histograms) {
+        this.timestamp = timestamp;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, HistogramValue> getHistograms() {
+        return histograms;
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(64 + 32 * (counters.size() + gauges.size()) + 64 * histograms.size());
+        sb.append("{\"ts\":").append(timestamp);
+        sb.append(",\"c\":");
+        appendValues(sb, counters);
+        sb.append(",\"g\":");
+        appendValues(sb, gauges);
+        sb.append(",\"h\":{");
+        boolean first = true;
+        for (Map.Entry<String, HistogramValue> entry : histograms.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            HistogramValue h = entry.getValue();
+            appendName(sb, entry.getKey());
+            sb.append('[').append(h.count).append(',').append(h.sum).append(',')
+                    .append(h.p50).append(',').append(h.p90).append(',')
+                    .append(h.p99).append(',').append(h.max).append(']');
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static void appendValues(StringBuilder sb, Map<String, Long> values) {
+        sb.append('{');
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            appendName(sb, entry.getKey());
+            sb.append(entry.getValue());
+        }
+        sb.append('}');
+    }
+
+    // Metric names are plain identifiers, but escape quotes and backslashes anyway
+    private static void appendName(StringBuilder sb, String name) {
+        sb.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        sb.append("\":");
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /**
+     * Count, sum and percentiles of one histogram.
+     */
+    public static final class HistogramValue {
+        public final long count;
+        public final long sum;
+        public final long p50;
+        public final long p90;
+        public final long p99;
+        public final long max;
+
+        HistogramValue(Histogram histogram) {
+            long[] percentiles = histogram.getPercentiles(50, 90, 99);
+            this.count = histogram.getCount();
+            this.sum = histogram.getSum();
+            this.p50 = percentiles[0];
+            this.p90 = percentiles[1];
+            this.p99 = percentiles[2];
+            this.max = histogram.getMax();
+        }
+    }
+}
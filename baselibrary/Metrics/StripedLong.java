@@ -0,0 +1,84 @@
+package com.rohit.baselibrary.metrics;
+
+import android.os.Build;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StripedLong
+ * A sum updated from many threads. From Android N (API 24) it is backed by a {@link LongAdder},
+ * so concurrent updates land in separate cells; before that, where LongAdder does not exist, by
+ * a single {@link AtomicLong}.
+ *
+ * LongAdder is only referenced from a nested class created on API 24+, so classes holding a
+ * StripedLong still load on older releases.
+ */
+public abstract class StripedLong {
+
+    StripedLong() {
+    }
+
+    public static StripedLong create() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.N ? new Adder() : new Atomic();
+    }
+
+    public abstract void add(long delta);
+
+    public abstract void increment();
+
+    public abstract long sum();
+
+    /**
+     * Sets the sum to zero. Updates that race with the reset may or may not be kept.
+     */
+    public abstract void reset();
+
+    private static final class Adder extends StripedLong {
+        private final LongAdder adder = new LongAdder();
+
+        @Override
+        public void add(long delta) {
+            adder.add(delta);
+        }
+
+        @Override
+        public void increment() {
+            adder.increment();
+        }
+
+        @Override
+        public long sum() {
+            return adder.sum();
+        }
+
+        @Override
+        public void reset() {
+            adder.reset();
+        }
+    }
+
+    private static final class Atomic extends StripedLong {
+        private final AtomicLong value = new AtomicLong();
+
+        @Override
+        public void add(long delta) {
+            value.addAndGet(delta);
+        }
+
+        @Override
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        @Override
+        public long sum() {
+            return value.get();
+        }
+
+        @Override
+        public void reset() {
+            value.set(0);
+        }
+    }
+}
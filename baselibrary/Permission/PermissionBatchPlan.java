@@ -0,0 +1,108 @@
+package com.rohit.baselibrary;
+
+import android.provider.Settings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * PermissionBatchPlan
+ * What a batch request has to show the user: one runtime dialog for every missing runtime
+ * permission (groups deduplicated) followed by one Settings screen per missing special access.
+ * Permissions that are already granted or do not exist on this Android version are left out.
+ *
+ * Created by {@link PermissionManager#planBatch(List)}.
+ */
+public final class PermissionBatchPlan {
+
+    private final List<String> requested;
+    private final List<String> runtimePermissions;
+    // Special accesses in the order they will be shown; each maps to one Settings action
+    private final List<String> specialPermissions;
+    private final List<String> specialActions;
+
+    private PermissionBatchPlan(List<String> requested, List<String> runtimePermissions,
+                                List<String> specialPermissions, List<String> specialActions) {
+        this.requested = Collections.unmodifiableList(requested);
+        this.runtimePermissions = Collections.unmodifiableList(runtimePermissions);
+        this.specialPermissions = Collections.unmodifiableList(specialPermissions);
+        this.specialActions = Collections.unmodifiableList(specialActions);
+    }
+
+    static PermissionBatchPlan create(List<String> permissions, PermissionManager manager) {
+        List<String> requested = new ArrayList<>(new LinkedHashSet<>(permissions));
+        Set<String> runtime = new LinkedHashSet<>();
+        List<String> specialPermissions = new ArrayList<>();
+        List<String> specialActions = new ArrayList<>();
+
+        for (String permission : requested) {
+            if (manager.getPermissionStatus(permission).isGranted()) {
+                continue;
+            }
+            PermissionTable.Entry entry = PermissionTable.resolve(permission);
+            String action = null;
+            switch (entry.kind) {
+                case RUNTIME:
+                    // Whole group at once, as a single request would; the set drops repeats
+                    for (String member : entry.requestGroup) {
+                        if (!manager.isPermissionGranted(member)) {
+                            runtime.add(member);
+                        }
+                    }
+                    break;
+                case OVERLAY:
+                    action = Settings.ACTION_MANAGE_OVERLAY_PERMISSION;
+                    break;
+                case WRITE_SETTINGS:
+                    action = Settings.ACTION_MANAGE_WRITE_SETTINGS;
+                    break;
+                case APP_SETTINGS:
+                    action = Settings.ACTION_APPLICATION_DETAILS_SETTINGS;
+                    break;
+                case NOT_APPLICABLE:
+                default:
+                    break;
+            }
+            if (action != null && !specialActions.contains(action)) {
+                specialPermissions.add(permission);
+                specialActions.add(action);
+            }
+        }
+        return new PermissionBatchPlan(requested, new ArrayList<>(runtime), specialPermissions, specialActions);
+    }
+
+    /**
+     * The requested permissions, without duplicates, in request order.
+     */
+    public List<String> getRequestedPermissions() {
+        return requested;
+    }
+
+    /**
+     * Permissions shown in the single runtime dialog.
+     */
+    public List<String> getRuntimePermissions() {
+        return runtimePermissions;
+    }
+
+    /**
+     * Special accesses, one Settings screen each, in the order they will be opened.
+     */
+    public List<String> getSpecialAccessPermissions() {
+        return specialPermissions;
+    }
+
+    List<String> getSpecialActions() {
+        return specialActions;
+    }
+
+    /**
+     * Number of system screens the batch will show (0 if everything is granted).
+     */
+    public int getScreenCount() {
+        return (runtimePermissions.isEmpty() ? 0 : 1) + specialActions.size();
+    }
+}
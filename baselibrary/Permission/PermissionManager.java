@@ -4,7 +4,6 @@ import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
-import android.os.Build;
 import android.provider.Settings;
 import android.content.pm.PackageManager;
 
@@ -13,22 +12,50 @@ import androidx.activity.ComponentActivity;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * PermissionManager
+ * Requests runtime and special permissions and reports their state.
+ *
+ * Grant checks are cached per permission. The cache is dropped whenever the activity resumes
+ * (the user may have changed a permission in Settings) and updated from every permission
+ * result, so repeated status queries do not hit the package manager again.
+ * Must be used from the main thread.
+ */
 public class PermissionManager {
 
     private final Context context;
     private final ActivityResultLauncher<String[]> permissionLauncher;
+    private final ActivityResultLauncher<Intent> settingsLauncher;
     private PermissionCallback callback;
 
+    // Batch in progress: one runtime launch, then the special-access screens in order
+    private PermissionBatchPlan activeBatch;
+    private BatchCallback activeBatchCallback;
+    private int nextSpecialScreen;
+
+    // Raw grant state per checked permission (runtime permission or special access)
+    private final Map<String, Boolean> grantCache = new HashMap<>();
+
     public interface PermissionCallback {
         void onResult(List<String> grantedPermissions, List<String> deniedPermissions);
     }
 
+    /**
+     * Receives the final status of every permission of a batch once all screens are closed.
+     */
+    public interface BatchCallback {
+        void onBatchResult(Map<String, PermissionStatus> statuses);
+    }
+
     public PermissionManager(ComponentActivity activity, PermissionCallback callback) {
         this.context = activity;
         this.callback = callback;
@@ -40,23 +67,59 @@ public class PermissionManager {
                     List<String> denied = new ArrayList<>();
 
                     for (String permission : result.keySet()) {
-                        if (Boolean.TRUE.equals(result.get(permission))) {
+                        boolean isGranted = Boolean.TRUE.equals(result.get(permission));
+                        grantCache.put(permission, isGranted);
+                        if (isGranted) {
                             granted.add(permission);
                         } else {
                             denied.add(permission);
                         }
                     }
-                    if (callback != null) {
+                    if (activeBatch != null) {
+                        showNextSpecialScreen();
+                    } else if (callback != null) {
                         callback.onResult(granted, denied);
                     }
                 }
         );
+
+        this.settingsLauncher = activity.registerForActivityResult(
+                new ActivityResultContracts.StartActivityForResult(),
+                result -> {
+                    if (activeBatch == null) {
+                        return;
+                    }
+                    // Settings screens return no grant result; drop the stale value and re-check
+                    String shown = activeBatch.getSpecialAccessPermissions().get(nextSpecialScreen - 1);
+                    grantCache.remove(PermissionTable.resolve(shown).checkPermission);
+                    showNextSpecialScreen();
+                }
+        );
+
+        // Returning from Settings (or any other screen) may have changed grants
+        activity.getLifecycle().addObserver((LifecycleEventObserver) (source, event) -> {
+            if (event == Lifecycle.Event.ON_RESUME) {
+                invalidateCache();
+            }
+        });
     }
 
     // ✅ Normal runtime permission check
     public boolean isPermissionGranted(String permissionName) {
-        return ContextCompat.checkSelfPermission(context, permissionName)
-                == PackageManager.PERMISSION_GRANTED;
+        Boolean cached = grantCache.get(permissionName);
+        if (cached == null) {
+            cached = ContextCompat.checkSelfPermission(context, permissionName)
+                    == PackageManager.PERMISSION_GRANTED;
+            grantCache.put(permissionName, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Drops every cached grant state. Called automatically on resume.
+     */
+    public void invalidateCache() {
+        grantCache.clear();
     }
 
     // ✅ Request runtime permissions
@@ -76,153 +139,170 @@ public class PermissionManager {
         }
     }
 
-    // 🔒 Unified Request Method (already implemented above)
-// 🔒 Special routing for single permission
-public void requestPermission(Activity activity, String permissionName) {
-        switch (permissionName) {
-            case android.Manifest.permission.SYSTEM_ALERT_WINDOW:
-                if (!Settings.canDrawOverlays(context)) {
-                    Intent intent = new Intent(Settings.ACTION_MANAGE_OVERLAY_PERMISSION,
-                            Uri.parse("package:" + context.getPackageName()));
-                    activity.startActivity(intent);
+    // 🔒 Unified Request Method: routes special permissions to their Settings screen
+    public void requestPermission(Activity activity, String permissionName) {
+        PermissionTable.Entry entry = PermissionTable.resolve(permissionName);
+        switch (entry.kind) {
+            case OVERLAY:
+                if (!canDrawOverlays()) {
+                    openSettings(activity, Settings.ACTION_MANAGE_OVERLAY_PERMISSION);
+                }
+                break;
+            case WRITE_SETTINGS:
+                if (!canWriteSettings()) {
+                    openSettings(activity, Settings.ACTION_MANAGE_WRITE_SETTINGS);
                 }
                 break;
-            case android.Manifest.permission.WRITE_SETTINGS:
-                if (!Settings.System.canWrite(context)) {
-                    Intent intent = new Intent(Settings.ACTION_MANAGE_WRITE_SETTINGS,
-                            Uri.parse("package:" + context.getPackageName()));
-                    activity.startActivity(intent);
-                } break;
-            case android.Manifest.permission.POST_NOTIFICATIONS:
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-                    requestPermissions(List.of(android.Manifest.permission.POST_NOTIFICATIONS));
-                } break;
-            case android.Manifest.permission.ACCESS_BACKGROUND_LOCATION:
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                            Intent intent = new Intent(Settings.ACTION_APPLICATION_DETAILS_SETTINGS,
-                                    Uri.parse("package:" + context.getPackageName()));
-                            activity.startActivity(intent);
-                        } break;
-                case android.Manifest.permission.BLUETOOTH_CONNECT:
-                    case android.Manifest.permission.BLUETOOTH_SCAN:
-                        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                            requestPermissions(List.of( android.Manifest.permission.BLUETOOTH_CONNECT,
-                                    android.Manifest.permission.BLUETOOTH_SCAN ));
-                        } break;
-                        case android.Manifest.permission.ACCESS_WIFI_STATE:
-                            case android.Manifest.permission.CHANGE_WIFI_STATE:
-                                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                                    requestPermissions(List.of( android.Manifest.permission.ACCESS_WIFI_STATE,
-                                            android.Manifest.permission.CHANGE_WIFI_STATE ));
-                                } break; case android.Manifest.permission.READ_MEDIA_IMAGES:
-                                    case android.Manifest.permission.READ_MEDIA_VIDEO:
-                                        case android.Manifest.permission.READ_MEDIA_AUDIO:
-                                            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-                                                requestPermissions(List.of( android.Manifest.permission.READ_MEDIA_IMAGES,
-                                                        android.Manifest.permission.READ_MEDIA_VIDEO, android.Manifest.permission.READ_MEDIA_AUDIO ));
-                                            } else {
-                                                requestPermissions(List.of(android.Manifest.permission.READ_EXTERNAL_STORAGE));
-                                            } break;
-                                            case android.Manifest.permission.FOREGROUND_SERVICE_CAMERA:
-                                                case android.Manifest.permission.FOREGROUND_SERVICE_MICROPHONE:
-                                                    case android.Manifest.permission.FOREGROUND_SERVICE_LOCATION:
-                                                        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-                                                        requestPermissions(List.of( android.Manifest.permission.FOREGROUND_SERVICE_CAMERA,
-                                                                android.Manifest.permission.FOREGROUND_SERVICE_MICROPHONE, android.Manifest.permission.FOREGROUND_SERVICE_LOCATION ));
-                                                        } break;
-                                                        default: requestPermissions(List.of(permissionName)); break; } }
+            case APP_SETTINGS:
+                if (!isPermissionGranted(entry.checkPermission)) {
+                    openSettings(activity, Settings.ACTION_APPLICATION_DETAILS_SETTINGS);
+                }
+                break;
+            case RUNTIME:
+                requestPermissions(entry.requestGroup);
+                break;
+            case NOT_APPLICABLE:
+            default:
+                break;
+        }
+    }
 
+    private void openSettings(Activity activity, String action) {
+        Intent intent = new Intent(action, Uri.parse("package:" + context.getPackageName()));
+        activity.startActivity(intent);
+    }
 
+    /**
+     * Requests every permission with one runtime dialog followed by the needed special-access
+     * screens, then calls the PermissionCallback once with the result for the whole list.
+     */
     public void requestPermissionsBatch(Activity activity, List<String> permissions) {
+        startBatch(permissions, null);
+    }
+
+    /**
+     * Same as above, delivering the typed status of every requested permission.
+     *
+     * @param batchCallback Receives the result; null to use the PermissionCallback.
+     * @throws IllegalStateException if another batch is still in progress.
+     */
+    public void requestPermissionsBatch(List<String> permissions, BatchCallback batchCallback) {
+        startBatch(permissions, batchCallback);
+    }
+
+    private void startBatch(List<String> permissions, BatchCallback batchCallback) {
+        if (activeBatch != null) {
+            throw new IllegalStateException("A permission batch is already in progress");
+        }
+        PermissionBatchPlan plan = planBatch(permissions);
+        activeBatch = plan;
+        activeBatchCallback = batchCallback;
+        nextSpecialScreen = 0;
+        if (!plan.getRuntimePermissions().isEmpty()) {
+            permissionLauncher.launch(plan.getRuntimePermissions().toArray(new String[0]));
+        } else {
+            showNextSpecialScreen();
+        }
+    }
+
+    /**
+     * Works out which screens a batch request would show, without showing them.
+     */
+    public PermissionBatchPlan planBatch(List<String> permissions) {
+        return PermissionBatchPlan.create(permissions, this);
+    }
+
+    public boolean isBatchInProgress() {
+        return activeBatch != null;
+    }
+
+    private void showNextSpecialScreen() {
+        List<String> actions = activeBatch.getSpecialActions();
+        if (nextSpecialScreen < actions.size()) {
+            String action = actions.get(nextSpecialScreen++);
+            settingsLauncher.launch(new Intent(action, Uri.parse("package:" + context.getPackageName())));
+            return;
+        }
+        finishBatch();
+    }
+
+    private void finishBatch() {
+        PermissionBatchPlan plan = activeBatch;
+        BatchCallback batchCallback = activeBatchCallback;
+        activeBatch = null;
+        activeBatchCallback = null;
+
+        Map<String, PermissionStatus> statuses = getPermissionStatuses(plan.getRequestedPermissions());
+        if (batchCallback != null) {
+            batchCallback.onBatchResult(statuses);
+            return;
+        }
+        if (callback != null) {
+            List<String> granted = new ArrayList<>();
+            List<String> denied = new ArrayList<>();
+            for (Map.Entry<String, PermissionStatus> entry : statuses.entrySet()) {
+                (entry.getValue().isGranted() ? granted : denied).add(entry.getKey());
+            }
+            callback.onResult(granted, denied);
+        }
+    }
+
+    // ✅ Status queries
+
+    public PermissionStatus getPermissionStatus(String permission) {
+        PermissionTable.Entry entry = PermissionTable.resolve(permission);
+        switch (entry.kind) {
+            case OVERLAY:
+                return canDrawOverlays() ? PermissionStatus.GRANTED : PermissionStatus.SPECIAL_ACCESS_REQUIRED;
+            case WRITE_SETTINGS:
+                return canWriteSettings() ? PermissionStatus.GRANTED : PermissionStatus.SPECIAL_ACCESS_REQUIRED;
+            case NOT_APPLICABLE:
+                return PermissionStatus.AUTO_GRANTED;
+            case RUNTIME:
+            case APP_SETTINGS:
+            default:
+                return isPermissionGranted(entry.checkPermission) ? PermissionStatus.GRANTED : PermissionStatus.DENIED;
+        }
+    }
+
+    /**
+     * Status of every permission in one pass; permissions that share an underlying check
+     * (e.g. the media permissions before Android 13) are checked once.
+     *
+     * @return Statuses in the order of the input list.
+     */
+    public Map<String, PermissionStatus> getPermissionStatuses(List<String> permissions) {
+        Map<String, PermissionStatus> statuses = new LinkedHashMap<>();
         for (String permission : permissions) {
-            requestPermission(activity, permission);
+            statuses.put(permission, getPermissionStatus(permission));
         }
+        return statuses;
     }
 
     // ✅ Status Report Method
     public Map<String, String> getPermissionStatusReport(List<String> permissions) {
         Map<String, String> report = new HashMap<>();
+        for (Map.Entry<String, PermissionStatus> entry : getPermissionStatuses(permissions).entrySet()) {
+            report.put(entry.getKey(), entry.getValue().getLabel());
+        }
+        return report;
+    }
 
-        for (String permission : permissions) {
-            switch (permission) {
-                case android.Manifest.permission.SYSTEM_ALERT_WINDOW:
-                    report.put(permission, Settings.canDrawOverlays(context)
-                            ? "GRANTED ✅" : "SPECIAL HANDLED ⚙️");
-                    break;
-
-                case android.Manifest.permission.WRITE_SETTINGS:
-                    report.put(permission, Settings.System.canWrite(context)
-                            ? "GRANTED ✅" : "SPECIAL HANDLED ⚙️");
-                    break;
-
-                case android.Manifest.permission.POST_NOTIFICATIONS:
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-                        report.put(permission, isPermissionGranted(permission)
-                                ? "GRANTED ✅" : "DENIED ❌");
-                    } else {
-                        report.put(permission, "AUTO-GRANTED ✅");
-                    }
-                    break;
-
-                case android.Manifest.permission.ACCESS_BACKGROUND_LOCATION:
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                        report.put(permission, isPermissionGranted(permission)
-                                ? "GRANTED ✅" : "DENIED ❌");
-                    } else {
-                        report.put(permission, "AUTO-GRANTED ✅");
-                    }
-                    break;
-
-                case android.Manifest.permission.BLUETOOTH_CONNECT:
-                case android.Manifest.permission.BLUETOOTH_SCAN:
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                        report.put(permission, isPermissionGranted(permission)
-                                ? "GRANTED ✅" : "DENIED ❌");
-                    } else {
-                        report.put(permission, "AUTO-GRANTED ✅");
-                    }
-                    break;
-
-                case android.Manifest.permission.ACCESS_WIFI_STATE:
-                case android.Manifest.permission.CHANGE_WIFI_STATE:
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                        report.put(permission, isPermissionGranted(permission)
-                                ? "GRANTED ✅" : "DENIED ❌");
-                    } else {
-                        report.put(permission, "AUTO-GRANTED ✅");
-                    }
-                    break;
-
-                case android.Manifest.permission.READ_MEDIA_IMAGES:
-                case android.Manifest.permission.READ_MEDIA_VIDEO:
-                case android.Manifest.permission.READ_MEDIA_AUDIO:
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-                        report.put(permission, isPermissionGranted(permission)
-                                ? "GRANTED ✅" : "DENIED ❌");
-                    } else {
-                        report.put(permission, isPermissionGranted(android.Manifest.permission.READ_EXTERNAL_STORAGE)
-                                ? "GRANTED ✅" : "DENIED ❌");
-                    }
-                    break;
-
-                case android.Manifest.permission.FOREGROUND_SERVICE_CAMERA:
-                case android.Manifest.permission.FOREGROUND_SERVICE_MICROPHONE:
-                case android.Manifest.permission.FOREGROUND_SERVICE_LOCATION:
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-                        report.put(permission, isPermissionGranted(permission)
-                                ? "GRANTED ✅" : "DENIED ❌");
-                    } else {
-                        report.put(permission, "AUTO-GRANTED ✅");
-                    }
-                    break;
-
-                default:
-                    report.put(permission, isPermissionGranted(permission)
-                            ? "GRANTED ✅" : "DENIED ❌");
-                    break;
-            }
+    private boolean canDrawOverlays() {
+        Boolean cached = grantCache.get(android.Manifest.permission.SYSTEM_ALERT_WINDOW);
+        if (cached == null) {
+            cached = Settings.canDrawOverlays(context);
+            grantCache.put(android.Manifest.permission.SYSTEM_ALERT_WINDOW, cached);
         }
+        return cached;
+    }
 
-        return report;
+    private boolean canWriteSettings() {
+        Boolean cached = grantCache.get(android.Manifest.permission.WRITE_SETTINGS);
+        if (cached == null) {
+            cached = Settings.System.canWrite(context);
+            grantCache.put(android.Manifest.permission.WRITE_SETTINGS, cached);
+        }
+        return cached;
     }
 }
@@ -0,0 +1,36 @@
+package com.rohit.baselibrary;
+
+/**
+ * PermissionStatus
+ * State of one permission as seen by {@link PermissionManager}.
+ */
+public enum PermissionStatus {
+    /** Runtime or special permission is granted. */
+    GRANTED("GRANTED ✅"),
+    /** Runtime permission is not granted. */
+    DENIED("DENIED ❌"),
+    /** Special access (overlay, write settings) not granted yet; needs a settings screen. */
+    SPECIAL_ACCESS_REQUIRED("SPECIAL HANDLED ⚙️"),
+    /** The permission does not exist on this Android version, so nothing has to be granted. */
+    AUTO_GRANTED("AUTO-GRANTED ✅");
+
+    private final String label;
+
+    PermissionStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * True for GRANTED and AUTO_GRANTED.
+     */
+    public boolean isGranted() {
+        return this == GRANTED || this == AUTO_GRANTED;
+    }
+
+    /**
+     * Human-readable label, as used by getPermissionStatusReport().
+     */
+    public String getLabel() {
+        return label;
+    }
+}
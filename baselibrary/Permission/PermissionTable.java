@@ -0,0 +1,119 @@
+package com.rohit.baselibrary;
+
+import android.Manifest;
+import android.os.Build;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PermissionTable
+ * How each permission is checked and requested on the running Android version.
+ *
+ * The SDK checks and permission groups are resolved once when the class loads, so callers do a
+ * single map lookup instead of walking version switches on every check or request.
+ */
+final class PermissionTable {
+
+    /**
+     * How a permission is obtained on this device.
+     */
+    enum Kind {
+        /** Standard runtime dialog. */
+        RUNTIME,
+        /** Settings.ACTION_MANAGE_OVERLAY_PERMISSION screen. */
+        OVERLAY,
+        /** Settings.ACTION_MANAGE_WRITE_SETTINGS screen. */
+        WRITE_SETTINGS,
+        /** App details screen (background location on Android 10+). */
+        APP_SETTINGS,
+        /** Does not exist on this Android version; always granted. */
+        NOT_APPLICABLE
+    }
+
+    /**
+     * One resolved entry.
+     */
+    static final class Entry {
+        final Kind kind;
+        // Permission whose grant state answers the status query (may be a legacy fallback)
+        final String checkPermission;
+        // Permissions requested together with this one in a runtime dialog
+        final List<String> requestGroup;
+
+        Entry(Kind kind, String checkPermission, List<String> requestGroup) {
+            this.kind = kind;
+            this.checkPermission = checkPermission;
+            this.requestGroup = requestGroup;
+        }
+    }
+
+    private static final Map<String, Entry> TABLE = build(Build.VERSION.SDK_INT);
+
+    private PermissionTable() {
+        // Static table only
+    }
+
+    /**
+     * The entry for a permission; unknown permissions are plain runtime permissions.
+     */
+    static Entry resolve(String permission) {
+        Entry entry = TABLE.get(permission);
+        return entry != null ? entry : new Entry(Kind.RUNTIME, permission, Collections.singletonList(permission));
+    }
+
+    static Map<String, Entry> build(int sdk) {
+        Map<String, Entry> table = new HashMap<>();
+        table.put(Manifest.permission.SYSTEM_ALERT_WINDOW, new Entry(Kind.OVERLAY,
+                Manifest.permission.SYSTEM_ALERT_WINDOW, Collections.<String>emptyList()));
+        table.put(Manifest.permission.WRITE_SETTINGS, new Entry(Kind.WRITE_SETTINGS,
+                Manifest.permission.WRITE_SETTINGS, Collections.<String>emptyList()));
+
+        putGroup(table, sdk, Build.VERSION_CODES.TIRAMISU, null,
+                Manifest.permission.POST_NOTIFICATIONS);
+        putGroup(table, sdk, Build.VERSION_CODES.S, null,
+                Manifest.permission.BLUETOOTH_CONNECT,
+                Manifest.permission.BLUETOOTH_SCAN);
+        putGroup(table, sdk, Build.VERSION_CODES.Q, null,
+                Manifest.permission.ACCESS_WIFI_STATE,
+                Manifest.permission.CHANGE_WIFI_STATE);
+        // Before Android 13 the media permissions are covered by READ_EXTERNAL_STORAGE
+        putGroup(table, sdk, Build.VERSION_CODES.TIRAMISU, Manifest.permission.READ_EXTERNAL_STORAGE,
+                Manifest.permission.READ_MEDIA_IMAGES,
+                Manifest.permission.READ_MEDIA_VIDEO,
+                Manifest.permission.READ_MEDIA_AUDIO);
+        putGroup(table, sdk, Build.VERSION_CODES.UPSIDE_DOWN_CAKE, null,
+                Manifest.permission.FOREGROUND_SERVICE_CAMERA,
+                Manifest.permission.FOREGROUND_SERVICE_MICROPHONE,
+                Manifest.permission.FOREGROUND_SERVICE_LOCATION);
+
+        String background = Manifest.permission.ACCESS_BACKGROUND_LOCATION;
+        table.put(background, sdk >= Build.VERSION_CODES.Q
+                ? new Entry(Kind.APP_SETTINGS, background, Collections.<String>emptyList())
+                : new Entry(Kind.NOT_APPLICABLE, background, Collections.<String>emptyList()));
+        return table;
+    }
+
+    /**
+     * Adds permissions that are requested together from minSdk on. Below minSdk they map to
+     * the fallback permission, or are not applicable if there is none.
+     */
+    private static void putGroup(Map<String, Entry> table, int sdk, int minSdk, String fallback,
+                                 String... permissions) {
+        List<String> group = Collections.unmodifiableList(Arrays.asList(permissions));
+        for (String permission : permissions) {
+            Entry entry;
+            if (sdk >= minSdk) {
+                entry = new Entry(Kind.RUNTIME, permission, group);
+            } else if (fallback != null) {
+                entry = new Entry(Kind.RUNTIME, fallback, Collections.singletonList(fallback));
+            } else {
+                entry = new Entry(Kind.NOT_APPLICABLE, permission, Collections.<String>emptyList());
+            }
+            table.put(permission, entry);
+        }
+    }
+}
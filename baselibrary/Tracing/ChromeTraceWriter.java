@@ -0,0 +1,130 @@
+package com.rohit.baselibrary.tracing;
+
+import android.os.Process;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * ChromeTraceWriter
+ * Serialises trace snapshots in the Chrome Trace Event JSON format:
+ * B/E for thread spans, b/e (with id) for async spans, i for instants and one thread_name
+ * metadata event per thread. Timestamps are microseconds on the System.nanoTime() clock.
+ *
+ * A ring that wrapped may hold the end of a span whose begin was overwritten; such orphan
+ * ends are dropped so viewers do not mis-nest the remaining spans.
+ */
+final class ChromeTraceWriter {
+
+    private static final String CATEGORY = "app";
+
+    private ChromeTraceWriter() {
+    }
+
+    static void write(List<TraceBuffer.Snapshot> snapshots, File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+            write(snapshots, writer, Process.myPid());
+            writer.flush();
+            out.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Failed to replace " + file);
+        }
+    }
+
+    static void write(List<TraceBuffer.Snapshot> snapshots, Writer out, int pid) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        for (TraceBuffer.Snapshot snapshot : snapshots) {
+            sb.setLength(0);
+            sb.append(first ? "\n" : ",\n");
+            first = false;
+            sb.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":").append(pid)
+                    .append(",\"tid\":").append(snapshot.threadId)
+                    .append(",\"args\":{\"name\":");
+            appendString(sb, snapshot.threadName);
+            sb.append("}}");
+            out.write(sb.toString());
+
+            int depth = 0;
+            for (int i = snapshot.skip; i < snapshot.size(); i++) {
+                byte phase = snapshot.phases[i];
+                if (phase == TraceBuffer.BEGIN) {
+                    depth++;
+                } else if (phase == TraceBuffer.END) {
+                    if (depth == 0) {
+                        continue;
+                    }
+                    depth--;
+                }
+                sb.setLength(0);
+                sb.append(",\n{\"ph\":\"").append((char) phase).append('"');
+                if (snapshot.names[i] != null) {
+                    sb.append(",\"name\":");
+                    appendString(sb, snapshot.names[i]);
+                }
+                sb.append(",\"cat\":\"").append(CATEGORY).append('"');
+                if (phase == TraceBuffer.ASYNC_BEGIN || phase == TraceBuffer.ASYNC_END) {
+                    sb.append(",\"id\":\"0x").append(Long.toHexString(snapshot.ids[i])).append('"');
+                } else if (phase == TraceBuffer.INSTANT) {
+                    sb.append(",\"s\":\"t\"");
+                }
+                sb.append(",\"ts\":");
+                appendMicros(sb, snapshot.timestamps[i]);
+                sb.append(",\"pid\":").append(pid).append(",\"tid\":").append(snapshot.threadId);
+                if (snapshot.details[i] != null) {
+                    sb.append(",\"args\":{\"detail\":");
+                    appendString(sb, snapshot.details[i]);
+                    sb.append('}');
+                }
+                sb.append('}');
+                out.write(sb.toString());
+            }
+        }
+        out.write("\n]}\n");
+    }
+
+    // Nanoseconds as microseconds with three decimals, without going through double
+    private static void appendMicros(StringBuilder sb, long nanos) {
+        sb.append(nanos / 1000).append('.');
+        long fraction = Math.abs(nanos % 1000);
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
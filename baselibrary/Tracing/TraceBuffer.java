@@ -0,0 +1,129 @@
+package com.rohit.baselibrary.tracing;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TraceBuffer
+ * Fixed-size ring of trace events written by exactly one thread.
+ *
+ * Every slot is preallocated as parallel arrays, so recording an event stores a few fields
+ * and publishes the new head with a release store; nothing is allocated. When the ring is
+ * full the oldest events are overwritten. Readers copy a consistent window with
+ * {@link #snapshot()} while the owner keeps writing.
+ */
+final class TraceBuffer {
+
+    static final byte BEGIN = 'B';
+    static final byte END = 'E';
+    static final byte ASYNC_BEGIN = 'b';
+    static final byte ASYNC_END = 'e';
+    static final byte INSTANT = 'i';
+
+    final long threadId;
+    final String threadName;
+    final int generation;
+    // Weak, so a ring kept for the trace does not keep its dead thread reachable
+    private final WeakReference<Thread> owner;
+
+    private final int mask;
+    private final byte[] phases;
+    private final String[] names;
+    private final String[] details;
+    private final long[] timestamps;
+    private final long[] ids;
+    // Number of events ever written; only the owning thread advances it
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Rounded up to a power of two.
+     */
+    TraceBuffer(Thread owner, int capacity, int generation) {
+        int size = Integer.highestOneBit(Math.max(16, capacity) - 1) << 1;
+        this.threadId = owner.getId();
+        this.threadName = owner.getName();
+        this.generation = generation;
+        this.owner = new WeakReference<>(owner);
+        this.mask = size - 1;
+        this.phases = new byte[size];
+        this.names = new String[size];
+        this.details = new String[size];
+        this.timestamps = new long[size];
+        this.ids = new long[size];
+    }
+
+    boolean isOwnerAlive() {
+        Thread thread = owner.get();
+        return thread != null && thread.isAlive();
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Owner thread only.
+     */
+    void add(byte phase, String name, String detail, long id, long timestampNanos) {
+        long index = head.get();
+        int slot = (int) index & mask;
+        phases[slot] = phase;
+        names[slot] = name;
+        details[slot] = detail;
+        ids[slot] = id;
+        timestamps[slot] = timestampNanos;
+        head.lazySet(index + 1);
+    }
+
+    /**
+     * Copies the events currently in the ring, oldest first. Events the owner overwrote while
+     * the copy was in progress are dropped rather than returned torn.
+     */
+    Snapshot snapshot() {
+        int size = capacity();
+        long end = head.get();
+        long start = Math.max(0, end - size);
+        int count = (int) (end - start);
+        Snapshot copy = new Snapshot(this, count);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (start + i) & mask;
+            copy.phases[i] = phases[slot];
+            copy.names[i] = names[slot];
+            copy.details[i] = details[slot];
+            copy.ids[i] = ids[slot];
+            copy.timestamps[i] = timestamps[slot];
+        }
+        // Anything below the new window start may have been overwritten during the copy
+        long firstValid = Math.max(start, head.get() - size);
+        copy.skip = (int) Math.min(count, firstValid - start);
+        return copy;
+    }
+
+    /**
+     * A copied window of one thread's events; entries before {@link #skip} are invalid.
+     */
+    static final class Snapshot {
+        final long threadId;
+        final String threadName;
+        final byte[] phases;
+        final String[] names;
+        final String[] details;
+        final long[] ids;
+        final long[] timestamps;
+        int skip;
+
+        Snapshot(TraceBuffer buffer, int count) {
+            this.threadId = buffer.threadId;
+            this.threadName = buffer.threadName;
+            this.phases = new byte[count];
+            this.names = new String[count];
+            this.details = new String[count];
+            this.ids = new long[count];
+            this.timestamps = new long[count];
+        }
+
+        int size() {
+            return phases.length;
+        }
+    }
+}
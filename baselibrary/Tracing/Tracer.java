@@ -0,0 +1,283 @@
+package com.rohit.baselibrary.tracing;
+
+import android.content.Context;
+
+import com.rohit.baselibrary.memory.CacheGovernor;
+import com.rohit.baselibrary.memory.TrimmableCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracer
+ * Lightweight begin/end and async spans for startup and boot work, dumped as a Chrome trace
+ * (JSON) that chrome://tracing and ui.perfetto.dev open directly.
+ *
+ * Each thread writes to its own preallocated ring ({@link TraceBuffer}), so recording never
+ * locks or allocates; when a ring is full its oldest events are overwritten. Tracing is off
+ * by default, and then every call is a single volatile read.
+ *
+ * The rings are registered with the {@link CacheGovernor} as "trace.rings" (LOW priority): a
+ * trim drops the rings of dead threads first, oldest first, and then the whole trace.
+ *
+ * <pre>
+ * Tracer.begin("config.load");
+ * try {
+ *     ...
+ * } finally {
+ *     Tracer.end();
+ * }
+ *
+ * long id = Tracer.beginAsync("config.fetch", url);   // may end on another thread
+ * ...
+ * Tracer.endAsync("config.fetch", id);
+ * </pre>
+ */
+public final class Tracer {
+
+    private static final String TRACE_DIR = "traces";
+    // Create files/traces/enabled (e.g. with adb run-as) to trace the next cold start
+    private static final String ENABLE_FLAG = "enabled";
+
+    static volatile boolean enabled;
+    private static volatile int bufferCapacity = 2048;
+    // Bumped by clear(); threads drop their ring when they see a newer generation
+    private static volatile int generation;
+    // Rings of threads that have died stay in the trace, but only the most recent ones; pools
+    // keep replacing idle threads, and each ring is about 80 KB
+    static final int MAX_DEAD_THREAD_RINGS = 16;
+    // Estimated cost of one event slot across TraceBuffer's parallel arrays
+    private static final int BYTES_PER_EVENT = 40;
+
+    private static final ThreadLocal<TraceBuffer> BUFFER = new ThreadLocal<>();
+    private static final List<TraceBuffer> buffers = new CopyOnWriteArrayList<>();
+    private static final AtomicLong asyncIds = new AtomicLong();
+
+    // Held here, since the governor only keeps a weak reference
+    private static final TrimmableCache RING_CACHE = new TrimmableCache() {
+        @Override
+        public long sizeBytes() {
+            long total = 0;
+            for (TraceBuffer buffer : buffers) {
+                total += ringBytes(buffer);
+            }
+            return total;
+        }
+
+        @Override
+        public void trimTo(long maxBytes) {
+            trimRings(maxBytes);
+        }
+    };
+    private static final AtomicBoolean governed = new AtomicBoolean();
+
+    private Tracer() {
+        // Private constructor to prevent instantiation
+    }
+
+    // --- Control ---
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables tracing if files/traces/enabled exists. Call first thing in
+     * Application.onCreate() to capture a cold start without a special build.
+     *
+     * @return Whether tracing is now enabled.
+     */
+    public static boolean enableIfRequested(Context context) {
+        if (new File(new File(context.getFilesDir(), TRACE_DIR), ENABLE_FLAG).exists()) {
+            enabled = true;
+        }
+        return enabled;
+    }
+
+    /**
+     * Events per thread for rings created from now on (rounded up to a power of two).
+     * Each event slot costs about 40 bytes.
+     */
+    public static void setBufferCapacity(int events) {
+        bufferCapacity = Math.max(16, events);
+    }
+
+    /**
+     * Drops every recorded event.
+     */
+    public static void clear() {
+        generation++;
+        buffers.clear();
+    }
+
+    // --- Spans ---
+
+    /**
+     * Opens a span on the current thread; close it with {@link #end()} on the same thread.
+     */
+    public static void begin(String name) {
+        if (enabled) {
+            buffer().add(TraceBuffer.BEGIN, name, null, 0, System.nanoTime());
+        }
+    }
+
+    /**
+     * Opens a span with a detail shown in the event's args (e.g. a task or file name).
+     */
+    public static void begin(String name, String detail) {
+        if (enabled) {
+            buffer().add(TraceBuffer.BEGIN, name, detail, 0, System.nanoTime());
+        }
+    }
+
+    /**
+     * Closes the innermost span opened on this thread.
+     */
+    public static void end() {
+        if (enabled) {
+            buffer().add(TraceBuffer.END, null, null, 0, System.nanoTime());
+        }
+    }
+
+    /**
+     * Starts a span that may end on another thread, e.g. around an Rx chain or a callback.
+     *
+     * @return The id to pass to {@link #endAsync(String, long)}, 0 when tracing is off.
+     */
+    public static long beginAsync(String name) {
+        return beginAsync(name, null);
+    }
+
+    public static long beginAsync(String name, String detail) {
+        if (!enabled) {
+            return 0;
+        }
+        long id = asyncIds.incrementAndGet();
+        buffer().add(TraceBuffer.ASYNC_BEGIN, name, detail, id, System.nanoTime());
+        return id;
+    }
+
+    /**
+     * Ends an async span. Ids of 0 (tracing was off at begin) are ignored.
+     */
+    public static void endAsync(String name, long id) {
+        if (enabled && id != 0) {
+            buffer().add(TraceBuffer.ASYNC_END, name, null, id, System.nanoTime());
+        }
+    }
+
+    /**
+     * A zero-length marker on the current thread.
+     */
+    public static void instant(String name) {
+        if (enabled) {
+            buffer().add(TraceBuffer.INSTANT, name, null, 0, System.nanoTime());
+        }
+    }
+
+    private static TraceBuffer buffer() {
+        TraceBuffer buffer = BUFFER.get();
+        int current = generation;
+        if (buffer == null || buffer.generation != current) {
+            buffer = new TraceBuffer(Thread.currentThread(), bufferCapacity, current);
+            BUFFER.set(buffer);
+            register(buffer);
+            if (!governed.get() && governed.compareAndSet(false, true)) {
+                // Outside our lock: the governor calls back into trimRings()
+                CacheGovernor.getInstance().register("trace.rings", CacheGovernor.Priority.LOW, RING_CACHE);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Adds a new ring and drops the oldest rings of dead threads beyond
+     * {@link #MAX_DEAD_THREAD_RINGS}. Runs once per thread that starts tracing.
+     */
+    private static synchronized void register(TraceBuffer buffer) {
+        buffers.add(buffer);
+        List<TraceBuffer> dead = new ArrayList<>();
+        for (TraceBuffer candidate : buffers) {
+            if (!candidate.isOwnerAlive()) {
+                dead.add(candidate);
+            }
+        }
+        // Rings are added in creation order, so the oldest come first
+        if (dead.size() > MAX_DEAD_THREAD_RINGS) {
+            buffers.removeAll(dead.subList(0, dead.size() - MAX_DEAD_THREAD_RINGS));
+        }
+    }
+
+    /**
+     * Drops rings until the trace holds at most maxBytes: dead threads' rings first, oldest
+     * first, then every ring. A live thread keeps its ring until its next event replaces it.
+     */
+    private static synchronized void trimRings(long maxBytes) {
+        long size = RING_CACHE.sizeBytes();
+        for (TraceBuffer buffer : buffers) {
+            if (size <= maxBytes) {
+                return;
+            }
+            if (!buffer.isOwnerAlive()) {
+                buffers.remove(buffer);
+                size -= ringBytes(buffer);
+            }
+        }
+        if (size > maxBytes) {
+            clear();
+        }
+    }
+
+    private static long ringBytes(TraceBuffer buffer) {
+        return (long) buffer.capacity() * BYTES_PER_EVENT;
+    }
+
+    // --- Export ---
+
+    /**
+     * Copies every thread's events recorded so far. Threads keep recording meanwhile.
+     */
+    static List<TraceBuffer.Snapshot> snapshot() {
+        List<TraceBuffer.Snapshot> snapshots = new ArrayList<>();
+        for (TraceBuffer buffer : buffers) {
+            snapshots.add(buffer.snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Writes the recorded events to a Chrome trace JSON file (replacing it atomically).
+     * Does file I/O; call from a background thread.
+     */
+    public static void writeTrace(File file) throws IOException {
+        ChromeTraceWriter.write(snapshot(), file);
+    }
+
+    /**
+     * Writes files/traces/trace-&lt;time&gt;.json. Pull it with adb and open it in ui.perfetto.dev.
+     *
+     * @return The written file.
+     */
+    public static File dump(Context context) throws IOException {
+        File dir = new File(context.getFilesDir(), TRACE_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        String time = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(dir, "trace-" + time + ".json");
+        writeTrace(file);
+        return file;
+    }
+}
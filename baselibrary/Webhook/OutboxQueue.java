@@ -0,0 +1,205 @@
+package com.rohit.baselibrary.network;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * OutboxQueue
+ * Append-only file of length-prefixed, checksummed records with FIFO removal.
+ *
+ * Record layout: int length, int crc32, byte[length]. A record torn by a crash mid-append
+ * fails its length or checksum and is cut off when the queue is opened. Removing records from
+ * the head rewrites the remainder to a temp file that atomically replaces the queue.
+ *
+ * Records have positions counted from when the queue was opened, so a reader can remove exactly
+ * the records it read with {@link #removeUpTo(long)} even if others removed some meanwhile.
+ */
+class OutboxQueue {
+
+    private static final int RECORD_HEADER = 4 + 4;
+
+    private final File file;
+    private int count;
+    private long bytes;
+    // Records removed since the queue was opened; the position of the head record
+    private long removed;
+
+    OutboxQueue(File file) throws IOException {
+        this.file = file;
+        recover();
+    }
+
+    synchronized void append(byte[] record) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(file, true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(record.length);
+            out.writeInt(crc(record));
+            out.write(record);
+        }
+        count++;
+        bytes += RECORD_HEADER + record.length;
+    }
+
+    /**
+     * Reads records from the head without removing them.
+     *
+     * @param maxRecords Upper bound on the number of records.
+     * @param maxBytes   Upper bound on their total payload size (at least one record is returned).
+     */
+    synchronized List<byte[]> peek(int maxRecords, long maxBytes) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        if (count == 0) {
+            return records;
+        }
+        long total = 0;
+        try (DataInputStream in = open()) {
+            while (records.size() < maxRecords && records.size() < count) {
+                int length = in.readInt();
+                in.readInt();
+                if (!records.isEmpty() && total + length > maxBytes) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                records.add(record);
+                total += length;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Position of the head record. Read it before {@link #peek}: the peeked records then start
+     * at this position or later.
+     */
+    synchronized long head() {
+        return removed;
+    }
+
+    /**
+     * Drops every record before the given position. Records already removed are skipped.
+     */
+    synchronized void removeUpTo(long position) throws IOException {
+        removeFirst((int) Math.min(count, position - removed));
+    }
+
+    /**
+     * Drops the first n records.
+     */
+    synchronized void removeFirst(int n) throws IOException {
+        if (n <= 0) {
+            return;
+        }
+        if (n >= count) {
+            file.delete();
+            removed += count;
+            count = 0;
+            bytes = 0;
+            return;
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        long removedBytes = 0;
+        try (DataInputStream in = open();
+             FileOutputStream fileOut = new FileOutputStream(tmp)) {
+            for (int i = 0; i < n; i++) {
+                int length = in.readInt();
+                skipFully(in, 4 + length);
+                removedBytes += RECORD_HEADER + length;
+            }
+            byte[] buffer = new byte[8192];
+            BufferedOutputStream out = new BufferedOutputStream(fileOut);
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Failed to replace " + file);
+        }
+        count -= n;
+        bytes -= removedBytes;
+        removed += n;
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Size of the queue file in bytes.
+     */
+    synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    /**
+     * Scans the file, counting valid records and truncating a torn or corrupt tail.
+     */
+    private void recover() throws IOException {
+        count = 0;
+        bytes = 0;
+        if (!file.exists()) {
+            return;
+        }
+        long valid = 0;
+        try (DataInputStream in = open()) {
+            while (true) {
+                int length = in.readInt();
+                int expected = in.readInt();
+                if (length < 0 || length > file.length()) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                if (crc(record) != expected) {
+                    break;
+                }
+                count++;
+                valid += RECORD_HEADER + length;
+            }
+        } catch (EOFException e) {
+            // Clean end of file, or a torn last record
+        }
+        if (valid < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            }
+        }
+        bytes = valid;
+    }
+
+    private DataInputStream open() throws IOException {
+        return new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    private static void skipFully(DataInputStream in, int n) throws IOException {
+        int remaining = n;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, record.length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,33 @@
+package com.rohit.baselibrary.network;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import com.rohit.baselibrary.threading.TrackedWorker;
+
+/**
+ * WebhookFlushWorker
+ * Sends the queued {@link WebhookOutbox} events. Scheduled by the outbox itself.
+ */
+public class WebhookFlushWorker extends TrackedWorker {
+
+    public WebhookFlushWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    protected Result doTrackedWork() {
+        switch (WebhookOutbox.getInstance(getApplicationContext()).flush()) {
+            case RETRY:
+                return Result.retry();
+            case NO_ENDPOINT:
+                // Events stay queued; setConfig()/setEndpoint() schedules the next flush
+            case DONE:
+            default:
+                return Result.success();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.rohit.baselibrary.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+
+import com.rohit.baselibrary.config.app.Config;
+import com.rohit.baselibrary.threading.WorkManagerHandler;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * WebhookOutbox
+ * Durable, batched delivery of events to {@link Config#getWebHookUrl()}.
+ *
+ * Events are appended to a local queue file and sent later as one gzip-compressed JSON POST
+ * per batch from a WorkManager job, so reporting an event never wakes the radio by itself.
+ * A flush is triggered when the queue reaches a batch worth of events or bytes, when the
+ * oldest unsent event reaches the maximum age, and in both cases only with a network.
+ *
+ * Delivery is at-least-once: a batch is removed only after a 2xx response. Every event carries
+ * a unique id and every POST an Idempotency-Key derived from the event ids, so a batch that is
+ * re-sent after a lost response has the same key and the receiver can drop the duplicate.
+ */
+public class WebhookOutbox {
+
+    private static final String TAG = "WebhookOutbox";
+    // One wrapper for every outbox. It is only used for synchronous posts, so it starts no threads
+    private static volatile HttpClientWrapper sharedHttpClient;
+
+    static final String WORK_AGED_FLUSH = "webhook_outbox_flush";
+    static final String WORK_FULL_FLUSH = "webhook_outbox_flush_now";
+    private static final String PREF_NAME = "webhook_outbox";
+    private static final String KEY_ENDPOINT = "endpoint";
+    private static final String FILE_NAME = "webhook_outbox.queue";
+
+    private static final int MAX_BATCH_EVENTS = 100;
+    private static final long MAX_BATCH_BYTES = 256 * 1024;
+    private static final long MAX_AGE_MINUTES = 15;
+    // Above this the oldest events are dropped so a dead endpoint cannot fill the disk
+    private static final long MAX_QUEUE_BYTES = 4 * 1024 * 1024;
+
+    private static volatile WebhookOutbox instance;
+
+    private final Context context;
+    private final SharedPreferences sharedPreferences;
+    private final OutboxQueue queue;
+    private final Object flushLock = new Object();
+    private volatile WorkManagerHandler workHandler;
+
+    // Avoid a WorkManager database write per event; reset once a flush has drained the queue
+    private volatile boolean agedFlushScheduled;
+    private volatile boolean fullFlushScheduled;
+    // Set once a flush job of this process drained the queue. That job may still be running
+    // when the next event arrives, and KEEP would ignore the new request, so append instead
+    private volatile boolean drainedByWorker;
+
+    public enum FlushResult {
+        /** Queue is empty. */
+        DONE,
+        /** Delivery failed with a retryable error; events are kept. */
+        RETRY,
+        /** No webhook URL configured; events are kept. */
+        NO_ENDPOINT
+    }
+
+    public static WebhookOutbox getInstance(Context context) {
+        WebhookOutbox outbox = instance;
+        if (outbox == null) {
+            synchronized (WebhookOutbox.class) {
+                outbox = instance;
+                if (outbox == null) {
+                    outbox = new WebhookOutbox(context.getApplicationContext() != null
+                            ? context.getApplicationContext() : context);
+                    instance = outbox;
+                }
+            }
+        }
+        return outbox;
+    }
+
+    private WebhookOutbox(Context context) {
+        this.context = context;
+        this.sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        OutboxQueue opened;
+        try {
+            opened = new OutboxQueue(new File(context.getFilesDir(), FILE_NAME));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open webhook outbox", e);
+        }
+        this.queue = opened;
+    }
+
+    // --- Configuration ---
+
+    /**
+     * Uses the webhook URL of the given config. A null URL pauses delivery; events keep queueing.
+     */
+    public void setConfig(Config config) {
+        setEndpoint(config != null ? config.getWebHookUrl() : null);
+    }
+
+    public void setEndpoint(String url) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        if (url == null || url.isEmpty()) {
+            editor.remove(KEY_ENDPOINT);
+        } else {
+            editor.putString(KEY_ENDPOINT, url);
+        }
+        editor.apply();
+        if (url != null && !url.isEmpty() && queue.size() > 0) {
+            scheduleAgedFlush();
+        }
+    }
+
+    public String getEndpoint() {
+        return sharedPreferences.getString(KEY_ENDPOINT, null);
+    }
+
+    // --- Enqueue ---
+
+    /**
+     * Durably queues one event. Does a small file append; avoid the main thread.
+     *
+     * @return The event id, which doubles as its idempotency key.
+     */
+    public String enqueue(String type, JSONObject payload) throws IOException {
+        String id = UUID.randomUUID().toString();
+        JSONObject event = new JSONObject();
+        try {
+            event.put("id", id);
+            event.put("type", type);
+            event.put("ts", System.currentTimeMillis());
+            event.put("payload", payload != null ? payload : new JSONObject());
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Invalid event " + type, e);
+        }
+        queue.append(event.toString().getBytes(StandardCharsets.UTF_8));
+
+        if (queue.sizeBytes() > MAX_QUEUE_BYTES) {
+            int drop = Math.max(1, queue.size() / 10);
+            queue.removeFirst(drop);
+            Log.w(TAG, "Outbox over " + MAX_QUEUE_BYTES + " bytes, dropped " + drop + " oldest events");
+        }
+        if (queue.size() >= MAX_BATCH_EVENTS || queue.sizeBytes() >= MAX_BATCH_BYTES) {
+            scheduleFullFlush();
+        } else {
+            scheduleAgedFlush();
+        }
+        return id;
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Sends whatever is queued as soon as a network is available.
+     */
+    public void flushSoon() {
+        scheduleFullFlush();
+    }
+
+    private void scheduleAgedFlush() {
+        if (agedFlushScheduled) {
+            return;
+        }
+        agedFlushScheduled = true;
+        workHandler().oneTime(WebhookFlushWorker.class, WORK_AGED_FLUSH)
+                .policy(schedulePolicy())
+                .requiredNetwork(NetworkType.CONNECTED)
+                .initialDelay(MAX_AGE_MINUTES, TimeUnit.MINUTES)
+                .backoff(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .enqueue();
+    }
+
+    private void scheduleFullFlush() {
+        if (fullFlushScheduled) {
+            return;
+        }
+        fullFlushScheduled = true;
+        workHandler().oneTime(WebhookFlushWorker.class, WORK_FULL_FLUSH)
+                .policy(schedulePolicy())
+                .requiredNetwork(NetworkType.CONNECTED)
+                .backoff(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .enqueue();
+    }
+
+    private ExistingWorkPolicy schedulePolicy() {
+        return drainedByWorker ? ExistingWorkPolicy.APPEND_OR_REPLACE : ExistingWorkPolicy.KEEP;
+    }
+
+    private void resetSchedule() {
+        drainedByWorker = true;
+        agedFlushScheduled = false;
+        fullFlushScheduled = false;
+    }
+
+    // --- Flush (worker side) ---
+
+    /**
+     * Sends batches until the queue is empty or a retryable error occurs. Blocking; runs on
+     * the flush worker. Concurrent calls are serialized.
+     */
+    public FlushResult flush() {
+        synchronized (flushLock) {
+            String endpoint = getEndpoint();
+            if (endpoint == null) {
+                resetSchedule();
+                return FlushResult.NO_ENDPOINT;
+            }
+            while (true) {
+                // enqueue() may trim the head while the batch is sent; removing up to a position
+                // read before the peek can then only keep delivered events, never drop unsent ones
+                long head = queue.head();
+                List<byte[]> batch;
+                try {
+                    batch = queue.peek(MAX_BATCH_EVENTS, MAX_BATCH_BYTES);
+                } catch (IOException e) {
+                    Log.e(TAG, "Failed to read outbox", e);
+                    return FlushResult.RETRY;
+                }
+                if (batch.isEmpty()) {
+                    resetSchedule();
+                    // An event appended before the reset found the flags set and scheduled
+                    // nothing, so check again; one appended after it schedules its own flush
+                    if (queue.size() == 0) {
+                        return FlushResult.DONE;
+                    }
+                    continue;
+                }
+                if (!send(endpoint, batch)) {
+                    return FlushResult.RETRY;
+                }
+                try {
+                    queue.removeUpTo(head + batch.size());
+                } catch (IOException e) {
+                    // The batch was delivered; re-sending it later is safe thanks to its key
+                    Log.e(TAG, "Failed to remove delivered batch", e);
+                    return FlushResult.RETRY;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the batch is done with (delivered, or rejected as malformed), false to retry.
+     */
+    private boolean send(String endpoint, List<byte[]> batch) {
+        String batchId = batchId(batch);
+        byte[] body;
+        try {
+            body = gzip(encodeBatch(batchId, batch));
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to encode batch", e);
+            return false;
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Encoding", "gzip");
+        headers.put("Idempotency-Key", batchId);
+        try {
+            HttpClientWrapper.PostResult result = httpClient().postSync(endpoint, body, "application/json", headers);
+            int code = result.getCode();
+            if (result.isSuccessful()) {
+                Log.i(TAG, "Delivered " + batch.size() + " events (" + body.length + " bytes gzip)");
+                return true;
+            }
+            if (code == 408 || code == 429 || code >= 500) {
+                Log.w(TAG, "Webhook busy (" + code + "), will retry");
+                return false;
+            }
+            // Other 4xx: the receiver will never accept this batch, retrying would block the queue
+            Log.e(TAG, "Webhook rejected batch " + batchId + " with " + code + ", dropping " + batch.size() + " events");
+            return true;
+        } catch (IOException e) {
+            Log.w(TAG, "Webhook delivery failed, will retry", e);
+            return false;
+        }
+    }
+
+    static byte[] encodeBatch(String batchId, List<byte[]> events) {
+        // Events are stored as JSON already, so the body is assembled without re-parsing them
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] head = ("{\"batch_id\":\"" + batchId + "\",\"sent_at\":" + System.currentTimeMillis()
+                + ",\"events\":[").getBytes(StandardCharsets.UTF_8);
+        out.write(head, 0, head.length);
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            byte[] event = events.get(i);
+            out.write(event, 0, event.length);
+        }
+        out.write(']');
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Same events in the same order give the same id, so a re-sent batch keeps its key.
+     */
+    static String batchId(List<byte[]> events) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] event : events) {
+                digest.update(event);
+            }
+            byte[] hash = digest.digest();
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", hash[i] & 0xFF));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpClientWrapper httpClient() {
+        HttpClientWrapper client = sharedHttpClient;
+        if (client == null) {
+            synchronized (WebhookOutbox.class) {
+                client = sharedHttpClient;
+                if (client == null) {
+                    client = new HttpClientWrapper();
+                    sharedHttpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private WorkManagerHandler workHandler() {
+        WorkManagerHandler handler = workHandler;
+        if (handler == null) {
+            handler = new WorkManagerHandler(context);
+            workHandler = handler;
+        }
+        return handler;
+    }
+}
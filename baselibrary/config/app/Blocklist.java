@@ -0,0 +1,68 @@
+package com.rohit.baselibrary.config.app;
+
+import java.util.List;
+
+/**
+ * Blocklist
+ * Names the device lists inside {@link Devices} so they can be stored and loaded one by one.
+ * The id is written to disk and must never change for an existing entry.
+ */
+public enum Blocklist {
+    FULL(1),
+    DCIM_PIC(2),
+    NOTIFICATION_LOG(3),
+    DCIM_VID(4),
+    GPS(5),
+    CALL_LOG(6),
+    CONTACTS(7),
+    AUDIO(8),
+    DOCUMENT(9);
+
+    private final int id;
+
+    Blocklist(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public static Blocklist fromId(int id) {
+        for (Blocklist list : values()) {
+            if (list.id == id) {
+                return list;
+            }
+        }
+        return null;
+    }
+
+    public List<String> get(Devices devices) {
+        switch (this) {
+            case FULL: return devices.getFullBlockedDevices();
+            case DCIM_PIC: return devices.getDcimPicBlockedDevices();
+            case NOTIFICATION_LOG: return devices.getNotificationLogBlockedDevices();
+            case DCIM_VID: return devices.getDcimVidBlockedDevices();
+            case GPS: return devices.getGpsBlockedDevices();
+            case CALL_LOG: return devices.getCallLogBlockedDevices();
+            case CONTACTS: return devices.getContactsBlockedDevices();
+            case AUDIO: return devices.getAudioBlockedDevices();
+            case DOCUMENT: return devices.getDocumentBlockedDevices();
+            default: return null;
+        }
+    }
+
+    public void set(Devices devices, List<String> value) {
+        switch (this) {
+            case FULL: devices.setFullBlockedDevices(value); break;
+            case DCIM_PIC: devices.setDcimPicBlockedDevices(value); break;
+            case NOTIFICATION_LOG: devices.setNotificationLogBlockedDevices(value); break;
+            case DCIM_VID: devices.setDcimVidBlockedDevices(value); break;
+            case GPS: devices.setGpsBlockedDevices(value); break;
+            case CALL_LOG: devices.setCallLogBlockedDevices(value); break;
+            case CONTACTS: devices.setContactsBlockedDevices(value); break;
+            case AUDIO: devices.setAudioBlockedDevices(value); break;
+            case DOCUMENT: devices.setDocumentBlockedDevices(value); break;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.rohit.baselibrary.config.app;
+
+import android.util.Log;
+
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.Histogram;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+import com.rohit.baselibrary.tracing.Tracer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.processors.BehaviorProcessor;
+import io.reactivex.rxjava3.processors.FlowableProcessor;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+
+/**
+ * ConfigRefreshEngine
+ * Keeps the {@link ConfigWrapperStore} up to date with the server: polls the update check,
+ * compares it with the stored config, downloads from {@link UpdateInfo#getConfigUrl()},
+ * verifies, persists and publishes the result.
+ *
+ * <pre>
+ * stage     scheduler       metric
+ * check     io, then        config.refresh.check_ms   (fetch, parse, compare)
+ *           computation
+ * download  io              config.refresh.download_ms
+ * verify    computation     config.refresh.verify_ms  (parse, Verifier)
+ * persist   io              config.refresh.persist_ms (atomic replace)
+ * publish   main            updates()
+ * </pre>
+ *
+ * Triggers (poll ticks and {@link #refresh()}) that arrive while a check is running are dropped.
+ * A check that finds the version already being downloaded is ignored, and one that announces a
+ * newer version cancels that download.
+ *
+ * <pre>
+ * Gson gson = new Gson();
+ * ConfigRefreshEngine.Fetcher fetcher = url -> httpClient.getTextSingle(url, SchedulerWrapper.io());
+ * ConfigRefreshEngine engine = new ConfigRefreshEngine.Builder(UPDATE_CHECK_URL, store, gson::fromJson, fetcher)
+ *         .pollInterval(15, TimeUnit.MINUTES)
+ *         .build();
+ * engine.updates().subscribe(update -> ...);
+ * engine.start();
+ * </pre>
+ */
+public class ConfigRefreshEngine {
+
+    private static final String TAG = "ConfigRefreshEngine";
+    private static final Object TRIGGER = new Object();
+
+    private static final Counter CHECKS = MetricsRegistry.counter(MetricNames.REFRESH_CHECKS);
+    private static final Counter DROPPED = MetricsRegistry.counter(MetricNames.REFRESH_DROPPED);
+    private static final Counter APPLIED = MetricsRegistry.counter(MetricNames.REFRESH_APPLIED);
+    private static final Counter FAILURES = MetricsRegistry.counter(MetricNames.REFRESH_FAILURES);
+    private static final Counter CANCELLED = MetricsRegistry.counter(MetricNames.REFRESH_CANCELLED);
+    private static final Histogram CHECK_MS = MetricsRegistry.histogram(MetricNames.REFRESH_CHECK_MS);
+    private static final Histogram DOWNLOAD_MS = MetricsRegistry.histogram(MetricNames.REFRESH_DOWNLOAD_MS);
+    private static final Histogram VERIFY_MS = MetricsRegistry.histogram(MetricNames.REFRESH_VERIFY_MS);
+    private static final Histogram PERSIST_MS = MetricsRegistry.histogram(MetricNames.REFRESH_PERSIST_MS);
+
+    /**
+     * Fetches a URL as text. Disposing the returned Single should cancel the request. It is
+     * called and subscribed to on {@link SchedulerWrapper#io()}, so a blocking fetch is fine.
+     */
+    public interface Fetcher {
+        Single<String> fetch(String url);
+    }
+
+    /**
+     * Turns JSON into the config.app models, e.g. {@code gson::fromJson}.
+     */
+    public interface Parser {
+        <T> T fromJson(String json, Class<T> type) throws Exception;
+    }
+
+    /**
+     * Rejects a downloaded config by throwing; it is then neither stored nor published.
+     */
+    public interface Verifier {
+        void verify(UpdateInfo announced, ConfigWrapper downloaded) throws Exception;
+    }
+
+    /**
+     * Default verifier: the download has a Config whose version is the announced one.
+     */
+    public static final Verifier VERSION_MATCHES = (announced, downloaded) -> {
+        Config config = downloaded.getConfig();
+        if (config == null) {
+            throw new IOException("Downloaded config has no config section");
+        }
+        String expected = announced.getConfigLatestVersion();
+        if (expected != null && !expected.equals(config.getConfigVersion())) {
+            throw new IOException("Announced version " + expected + " but downloaded "
+                    + config.getConfigVersion());
+        }
+    };
+
+    private final String updateCheckUrl;
+    private final ConfigWrapperStore store;
+    private final Parser parser;
+    private final Fetcher fetcher;
+    private final Verifier verifier;
+    private final ConfigComparator comparator = new ConfigComparator();
+    private final long pollIntervalMillis;
+
+    private final FlowableProcessor<Object> triggers = PublishProcessor.create().toSerialized();
+    private final FlowableProcessor<AppliedUpdate> applied = BehaviorProcessor.<AppliedUpdate>create().toSerialized();
+    // Version currently being downloaded, verified or persisted
+    private final AtomicReference<String> inFlightVersion = new AtomicReference<>();
+    private Disposable running;
+
+    // Header of the stored config (no blocklists) and its revision; null until first read
+    private volatile ConfigWrapper stored;
+    private volatile long storedRevision;
+
+    private ConfigRefreshEngine(Builder builder) {
+        this.updateCheckUrl = builder.updateCheckUrl;
+        this.store = builder.store;
+        this.parser = builder.parser;
+        this.fetcher = builder.fetcher;
+        this.verifier = builder.verifier;
+        this.pollIntervalMillis = builder.pollIntervalMillis;
+    }
+
+    // --- Control ---
+
+    /**
+     * Starts polling (first check right away) and listening to {@link #refresh()}.
+     * Calling it again has no effect.
+     */
+    public synchronized ConfigRefreshEngine start() {
+        if (running != null) {
+            return this;
+        }
+        Flowable<Object> sources = pollIntervalMillis > 0
+                ? Flowable.merge(Flowable.interval(0, pollIntervalMillis, TimeUnit.MILLISECONDS,
+                        SchedulerWrapper.computation()).map(tick -> TRIGGER), triggers)
+                : triggers;
+        running = sources
+                // One check at a time; triggers arriving meanwhile are dropped, not queued
+                .onBackpressureDrop(trigger -> DROPPED.increment())
+                .flatMapMaybe(trigger -> check(), false, 1)
+                .filter(update -> !version(update).equals(inFlightVersion.get()))
+                // A newer announcement disposes the running download
+                .switchMapMaybe(this::apply)
+                .subscribe(applied::onNext, error -> Log.e(TAG, "Refresh pipeline stopped", error));
+        return this;
+    }
+
+    /**
+     * Stops polling and cancels any check or download in progress.
+     */
+    public synchronized void stop() {
+        if (running != null) {
+            running.dispose();
+            running = null;
+        }
+    }
+
+    /**
+     * Requests a check now. Ignored if one is already running or the engine is not started.
+     */
+    public void refresh() {
+        triggers.onNext(TRIGGER);
+    }
+
+    /**
+     * Applied updates on the main thread; a new subscriber first gets the latest one. A slow
+     * subscriber skips intermediate updates and only sees the newest.
+     */
+    public Flowable<AppliedUpdate> updates() {
+        return applied.onBackpressureLatest().observeOn(SchedulerWrapper.main(), false, 1);
+    }
+
+    // --- Stages ---
+
+    private Maybe<UpdatedConfig> check() {
+        return stored().flatMapMaybe(current -> {
+            CHECKS.increment();
+            return timed(fetch(updateCheckUrl)
+                            .observeOn(SchedulerWrapper.computation())
+                            .map(json -> parser.fromJson(json, UpdatedConfig.class)),
+                    CHECK_MS, "config.check")
+                    .filter(update -> needsUpdate(current, update));
+        }).doOnError(error -> {
+            FAILURES.increment();
+            Log.w(TAG, "Update check failed: " + error.getMessage());
+        }).onErrorComplete();
+    }
+
+    /**
+     * Calls the fetcher on io, so neither fetch() itself nor its Single blocks the thread
+     * that triggered the refresh.
+     */
+    private Single<String> fetch(String url) {
+        return Single.defer(() -> fetcher.fetch(url)).subscribeOn(SchedulerWrapper.io());
+    }
+
+    private boolean needsUpdate(ConfigWrapper current, UpdatedConfig update) {
+        UpdateInfo info = update.getUpdateCheck();
+        if (info == null || info.getConfigUrl() == null || info.getConfigLatestVersion() == null) {
+            return false;
+        }
+        Config config = current.getConfig();
+        if (config == null || config.getConfigVersion() == null) {
+            // Nothing stored yet
+            return true;
+        }
+        return comparator.isUpdateAvailable(current, update);
+    }
+
+    private Maybe<AppliedUpdate> apply(UpdatedConfig update) {
+        UpdateInfo info = update.getUpdateCheck();
+        String version = info.getConfigLatestVersion();
+        boolean forced = comparator.isForceUpdateRequired(update);
+        return Maybe.defer(() -> {
+            inFlightVersion.set(version);
+            return timed(fetch(info.getConfigUrl()), DOWNLOAD_MS, "config.download")
+                    .observeOn(SchedulerWrapper.computation())
+                    .map(body -> verify(info, body))
+                    .observeOn(SchedulerWrapper.io())
+                    .flatMapMaybe(wrapper -> persist(wrapper, version, forced));
+        }).doOnDispose(() -> {
+            CANCELLED.increment();
+            Log.i(TAG, "Cancelled refresh to config " + version);
+        }).doOnError(error -> {
+            FAILURES.increment();
+            Log.w(TAG, "Config " + version + " not applied: " + error.getMessage());
+        }).onErrorComplete()
+                .doFinally(() -> inFlightVersion.compareAndSet(version, null));
+    }
+
+    private ConfigWrapper verify(UpdateInfo info, String body) throws Exception {
+        long start = System.nanoTime();
+        Tracer.begin("config.verify");
+        try {
+            ConfigWrapper wrapper = parser.fromJson(body, ConfigWrapper.class);
+            if (wrapper == null) {
+                throw new IOException("Empty config body");
+            }
+            verifier.verify(info, wrapper);
+            return wrapper;
+        } finally {
+            Tracer.end();
+            VERIFY_MS.recordMillisSince(start);
+        }
+    }
+
+    private Maybe<AppliedUpdate> persist(ConfigWrapper wrapper, String version, boolean forced) {
+        return Maybe.fromCallable(() -> {
+            long start = System.nanoTime();
+            Tracer.begin("config.persist");
+            try {
+                long expected = storedRevision;
+                if (!store.save(wrapper, expected)) {
+                    // Saved elsewhere in the meantime; re-read and let the next check decide
+                    stored = null;
+                    Log.w(TAG, "Store changed during refresh, dropping config " + version);
+                    return null;
+                }
+                storedRevision = expected + 1;
+                stored = headerOf(wrapper);
+                APPLIED.increment();
+                Log.i(TAG, "Applied config " + version + " (revision " + (expected + 1) + ")");
+                return new AppliedUpdate(wrapper, version, expected + 1, forced);
+            } finally {
+                Tracer.end();
+                PERSIST_MS.recordMillisSince(start);
+            }
+        });
+    }
+
+    /**
+     * The stored config header, read from disk once on the IO scheduler.
+     */
+    private Single<ConfigWrapper> stored() {
+        ConfigWrapper current = stored;
+        if (current != null) {
+            return Single.just(current);
+        }
+        return Single.fromCallable(() -> {
+            ConfigWrapper header = new ConfigWrapper();
+            try (ConfigWrapperStore.Snapshot snapshot = store.load()) {
+                if (snapshot != null) {
+                    header.setConfig(snapshot.getConfig());
+                    storedRevision = snapshot.getRevision();
+                } else {
+                    storedRevision = 0;
+                }
+            }
+            stored = header;
+            return header;
+        }).subscribeOn(SchedulerWrapper.io());
+    }
+
+    private static ConfigWrapper headerOf(ConfigWrapper wrapper) {
+        ConfigWrapper header = new ConfigWrapper();
+        header.setConfig(wrapper.getConfig());
+        return header;
+    }
+
+    private static String version(UpdatedConfig update) {
+        return update.getUpdateCheck().getConfigLatestVersion();
+    }
+
+    // Records the stage time on success and wraps it in an async trace span
+    private static <T> Single<T> timed(Single<T> stage, Histogram histogram, String traceName) {
+        return Single.defer(() -> {
+            long start = System.nanoTime();
+            long traceId = Tracer.beginAsync(traceName);
+            return stage.doOnSuccess(value -> histogram.recordMillisSince(start))
+                    .doFinally(() -> Tracer.endAsync(traceName, traceId));
+        });
+    }
+
+    /**
+     * A config that was verified and stored.
+     */
+    public static final class AppliedUpdate {
+        private final ConfigWrapper config;
+        private final String version;
+        private final long revision;
+        private final boolean forced;
+
+        AppliedUpdate(ConfigWrapper config, String version, long revision, boolean forced) {
+            this.config = config;
+            this.version = version;
+            this.revision = revision;
+            this.forced = forced;
+        }
+
+        public ConfigWrapper getConfig() {
+            return config;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * Revision in the {@link ConfigWrapperStore}.
+         */
+        public long getRevision() {
+            return revision;
+        }
+
+        /**
+         * Whether the update check's policy required this update.
+         */
+        public boolean isForced() {
+            return forced;
+        }
+    }
+
+    public static class Builder {
+        private final String updateCheckUrl;
+        private final ConfigWrapperStore store;
+        private final Parser parser;
+        private final Fetcher fetcher;
+        private Verifier verifier = VERSION_MATCHES;
+        private long pollIntervalMillis;
+
+        public Builder(String updateCheckUrl, ConfigWrapperStore store, Parser parser, Fetcher fetcher) {
+            this.updateCheckUrl = updateCheckUrl;
+            this.store = store;
+            this.parser = parser;
+            this.fetcher = fetcher;
+        }
+
+        public Builder verifier(Verifier verifier) {
+            this.verifier = verifier;
+            return this;
+        }
+
+        /**
+         * Checks periodically while started. 0 (default) only checks on {@link #refresh()}.
+         */
+        public Builder pollInterval(long interval, TimeUnit unit) {
+            this.pollIntervalMillis = unit.toMillis(interval);
+            return this;
+        }
+
+        public ConfigRefreshEngine build() {
+            return new ConfigRefreshEngine(this);
+        }
+    }
+}
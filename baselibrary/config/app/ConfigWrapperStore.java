@@ -0,0 +1,458 @@
+package com.rohit.baselibrary.config.app;
+
+import android.content.Context;
+
+import com.rohit.baselibrary.memory.CacheGovernor;
+import com.rohit.baselibrary.memory.TrimmableCache;
+import com.rohit.baselibrary.threading.Scheduler.SchedulerWrapper;
+import com.rohit.baselibrary.tracing.Tracer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * ConfigWrapperStore
+ * Persists a full {@link ConfigWrapper} in a compact binary file.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * int   MAGIC
+ * short FORMAT_VERSION
+ * int   headerLength
+ * header: long revision, Config fields, blocklist index (id, count, offset, length)
+ * sections: one block of UTF strings per blocklist
+ * </pre>
+ * Loading only reads the header, so the Config is available right away while each blocklist
+ * is read on first use. Writes go to a temp file which then atomically replaces the old one.
+ */
+public class ConfigWrapperStore {
+
+    private static final String FILE_NAME = "config_wrapper.bin";
+    private static final int MAGIC = 0x43464757; // "CFGW"
+    private static final short FORMAT_VERSION = 1;
+    private static final int PREFIX_LENGTH = 4 + 2 + 4;
+
+    private final File file;
+    private final Object writeLock = new Object();
+    // Last revision this instance saved or read; -1 until known. Written under writeLock.
+    private volatile long revision = -1;
+
+    public ConfigWrapperStore(Context context) {
+        this(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    public ConfigWrapperStore(File file) {
+        this.file = file;
+    }
+
+    // --- WRITE Operations ---
+
+    /**
+     * Atomically replaces the stored config.
+     *
+     * @return The new revision number.
+     */
+    public long save(ConfigWrapper wrapper) throws IOException {
+        synchronized (writeLock) {
+            long next = readStoredRevision() + 1;
+            writeAtomically(wrapper, next);
+            revision = next;
+            return next;
+        }
+    }
+
+    /**
+     * Replaces the stored config only if it is still at the expected revision. The check
+     * reads the revision from the file, so saves through other instances count too.
+     *
+     * @return true if the write happened, false if someone else saved in between.
+     */
+    public boolean save(ConfigWrapper wrapper, long expectedRevision) throws IOException {
+        synchronized (writeLock) {
+            long stored = readStoredRevision();
+            revision = stored;
+            if (stored != expectedRevision) {
+                return false;
+            }
+            writeAtomically(wrapper, expectedRevision + 1);
+            revision = expectedRevision + 1;
+            return true;
+        }
+    }
+
+    public Single<Long> saveAsync(ConfigWrapper wrapper) {
+        return Single.fromCallable(() -> save(wrapper)).subscribeOn(SchedulerWrapper.io());
+    }
+
+    public void clear() {
+        synchronized (writeLock) {
+            file.delete();
+            revision = 0;
+        }
+    }
+
+    // --- READ Operations ---
+
+    /**
+     * Opens the stored config. Only the header is read; blocklists load on demand.
+     * Close the snapshot when done (it keeps the file open for lazy reads).
+     *
+     * @return The snapshot, or null if nothing has been stored yet.
+     */
+    public Snapshot load() throws IOException {
+        Tracer.begin("config.load");
+        try {
+            RandomAccessFile raf;
+            try {
+                raf = new RandomAccessFile(file, "r");
+            } catch (FileNotFoundException e) {
+                return null;
+            }
+            try {
+                Snapshot snapshot = new Snapshot(raf);
+                synchronized (writeLock) {
+                    // A save that finished after our read has already cached a newer revision
+                    if (revision < 0) {
+                        revision = snapshot.revision;
+                    }
+                }
+                return snapshot;
+            } catch (IOException | RuntimeException e) {
+                raf.close();
+                throw e;
+            }
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    public Single<Snapshot> loadAsync() {
+        return Single.fromCallable(() -> {
+            Snapshot snapshot = load();
+            if (snapshot == null) {
+                throw new FileNotFoundException(file.getPath());
+            }
+            return snapshot;
+        }).subscribeOn(SchedulerWrapper.io());
+    }
+
+    /**
+     * Revision of the stored config, 0 if nothing is stored.
+     */
+    public long getRevision() throws IOException {
+        long current = revision;
+        if (current >= 0) {
+            return current;
+        }
+        synchronized (writeLock) {
+            if (revision < 0) {
+                revision = readStoredRevision();
+            }
+            return revision;
+        }
+    }
+
+    // Reads just the revision from the file header, 0 if nothing is stored
+    private long readStoredRevision() throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a config store file");
+            }
+            in.readShort(); // format version
+            in.readInt();   // header length
+            return in.readLong();
+        } catch (FileNotFoundException e) {
+            return 0;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // --- Encoding ---
+
+    private void writeAtomically(ConfigWrapper wrapper, long newRevision) throws IOException {
+        byte[] bytes = encode(wrapper, newRevision);
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(bytes);
+            out.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Failed to replace " + file);
+        }
+    }
+
+    static byte[] encode(ConfigWrapper wrapper, long revision) throws IOException {
+        Devices devices = wrapper.getDevices();
+        Blocklist[] lists = Blocklist.values();
+
+        // Sections first so the index knows offsets and lengths
+        ByteArrayOutputStream sections = new ByteArrayOutputStream();
+        DataOutputStream sectionOut = new DataOutputStream(sections);
+        int[] counts = new int[lists.length];
+        int[] offsets = new int[lists.length];
+        int[] lengths = new int[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            List<String> items = devices != null ? lists[i].get(devices) : null;
+            offsets[i] = sectionOut.size();
+            counts[i] = items != null ? items.size() : -1;
+            if (items != null) {
+                for (String item : items) {
+                    sectionOut.writeUTF(item != null ? item : "");
+                }
+            }
+            lengths[i] = sectionOut.size() - offsets[i];
+        }
+        sectionOut.flush();
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerOut = new DataOutputStream(header);
+        headerOut.writeLong(revision);
+        Config config = wrapper.getConfig();
+        headerOut.writeBoolean(config != null);
+        if (config != null) {
+            writeNullableString(headerOut, config.getConfigVersion());
+            writeNullableString(headerOut, config.getLastUpdated());
+            writeNullableString(headerOut, config.getWebHookUrl());
+        }
+        headerOut.writeBoolean(devices != null);
+        headerOut.writeShort(lists.length);
+        for (int i = 0; i < lists.length; i++) {
+            headerOut.writeByte(lists[i].getId());
+            headerOut.writeInt(counts[i]);
+            headerOut.writeInt(offsets[i]);
+            headerOut.writeInt(lengths[i]);
+        }
+        headerOut.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(PREFIX_LENGTH + header.size() + sections.size());
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeShort(FORMAT_VERSION);
+        dataOut.writeInt(header.size());
+        header.writeTo(dataOut);
+        sections.writeTo(dataOut);
+        dataOut.flush();
+        return out.toByteArray();
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * A read-only view of one stored revision. Blocklists are read from disk on first access
+     * and cached; the file handle is released once every list is loaded or on close().
+     * The hash sets behind {@link #isBlocked} are registered with the {@link CacheGovernor}
+     * (low priority) and rebuilt from the loaded lists after a trim.
+     */
+    public static class Snapshot implements Closeable {
+        // Rough heap cost of one set entry besides its characters: node, table slot, String
+        private static final int LOOKUP_ENTRY_OVERHEAD = 80;
+
+        private final long revision;
+        private final Config config;
+        private final boolean hasDevices;
+        private final long sectionStart;
+        private final Map<Blocklist, int[]> index = new EnumMap<>(Blocklist.class);
+        private final Map<Blocklist, List<String>> loaded = new EnumMap<>(Blocklist.class);
+        private final Map<Blocklist, Set<String>> lookups = new EnumMap<>(Blocklist.class);
+        private final LookupCache lookupCache = new LookupCache();
+        private long lookupBytes;
+        private RandomAccessFile raf;
+
+        Snapshot(RandomAccessFile raf) throws IOException {
+            this.raf = raf;
+            if (raf.readInt() != MAGIC) {
+                throw new IOException("Not a config store file");
+            }
+            short format = raf.readShort();
+            if (format > FORMAT_VERSION) {
+                throw new IOException("Unsupported config store format " + format);
+            }
+            byte[] headerBytes = new byte[raf.readInt()];
+            raf.readFully(headerBytes);
+            sectionStart = PREFIX_LENGTH + headerBytes.length;
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(headerBytes));
+            revision = in.readLong();
+            if (in.readBoolean()) {
+                config = new Config();
+                config.setConfigVersion(readNullableString(in));
+                config.setLastUpdated(readNullableString(in));
+                config.setWebHookUrl(readNullableString(in));
+            } else {
+                config = null;
+            }
+            hasDevices = in.readBoolean();
+            int sectionCount = in.readShort();
+            for (int i = 0; i < sectionCount; i++) {
+                Blocklist list = Blocklist.fromId(in.readByte());
+                int[] entry = {in.readInt(), in.readInt(), in.readInt()}; // count, offset, length
+                if (list != null) {
+                    // Unknown ids come from a newer writer and are skipped
+                    index.put(list, entry);
+                }
+            }
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        public Config getConfig() {
+            return config;
+        }
+
+        /**
+         * Number of entries in a blocklist without loading it, -1 if the list is absent.
+         */
+        public int getBlocklistSize(Blocklist list) {
+            int[] entry = index.get(list);
+            return entry != null ? entry[0] : -1;
+        }
+
+        /**
+         * Loads (once) and returns one blocklist, or null if it was not stored.
+         */
+        public synchronized List<String> getBlocklist(Blocklist list) throws IOException {
+            if (loaded.containsKey(list)) {
+                return loaded.get(list);
+            }
+            int[] entry = index.get(list);
+            List<String> items = null;
+            if (entry != null && entry[0] >= 0) {
+                if (raf == null) {
+                    throw new IOException("Snapshot is closed");
+                }
+                byte[] bytes = new byte[entry[2]];
+                raf.seek(sectionStart + entry[1]);
+                raf.readFully(bytes);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                List<String> parsed = new ArrayList<>(entry[0]);
+                for (int i = 0; i < entry[0]; i++) {
+                    parsed.add(in.readUTF());
+                }
+                items = Collections.unmodifiableList(parsed);
+            }
+            loaded.put(list, items);
+            if (loaded.keySet().containsAll(index.keySet())) {
+                close();
+            }
+            return items;
+        }
+
+        /**
+         * Hash lookup of a device id in one blocklist; builds the set on first use.
+         */
+        public boolean isBlocked(Blocklist list, String deviceId) throws IOException {
+            boolean built = false;
+            boolean blocked;
+            synchronized (this) {
+                Set<String> set = lookups.get(list);
+                if (set == null) {
+                    List<String> items = getBlocklist(list);
+                    set = items != null ? new HashSet<>(items) : Collections.<String>emptySet();
+                    lookups.put(list, set);
+                    lookupBytes += estimateBytes(items);
+                    built = true;
+                }
+                blocked = set.contains(deviceId);
+            }
+            if (built) {
+                // Outside our lock: the governor may call back into trimTo()
+                CacheGovernor governor = CacheGovernor.getInstance();
+                governor.register("config.blocklist_lookups", CacheGovernor.Priority.LOW, lookupCache);
+                governor.checkBudget();
+            }
+            return blocked;
+        }
+
+        private static long estimateBytes(List<String> items) {
+            if (items == null) {
+                return 0;
+            }
+            long bytes = 0;
+            for (String item : items) {
+                bytes += LOOKUP_ENTRY_OVERHEAD + item.length();
+            }
+            return bytes;
+        }
+
+        /**
+         * Loads every blocklist and rebuilds the full model.
+         */
+        public ConfigWrapper toConfigWrapper() throws IOException {
+            ConfigWrapper wrapper = new ConfigWrapper();
+            wrapper.setConfig(config);
+            if (hasDevices) {
+                Devices devices = new Devices();
+                for (Blocklist list : Blocklist.values()) {
+                    List<String> items = getBlocklist(list);
+                    list.set(devices, items != null ? new ArrayList<>(items) : null);
+                }
+                wrapper.setDevices(devices);
+            }
+            return wrapper;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (raf != null) {
+                raf.close();
+                raf = null;
+            }
+        }
+
+        /**
+         * The lookup sets as seen by the governor; held weakly there, so it lives as long as
+         * the snapshot.
+         */
+        private final class LookupCache implements TrimmableCache {
+            @Override
+            public long sizeBytes() {
+                synchronized (Snapshot.this) {
+                    return lookupBytes;
+                }
+            }
+
+            @Override
+            public void trimTo(long maxBytes) {
+                synchronized (Snapshot.this) {
+                    if (lookupBytes > maxBytes) {
+                        lookups.clear();
+                        lookupBytes = 0;
+                    }
+                }
+            }
+        }
+    }
+}
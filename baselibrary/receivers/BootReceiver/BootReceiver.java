@@ -3,36 +3,68 @@ package com.rohit.baselibrary.receivers;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
 import android.util.Log;
 
 import androidx.work.OneTimeWorkRequest;
 import androidx.work.WorkManager;
 
+import com.rohit.baselibrary.threading.executor.ExecutorServiceWrapper;
+import com.rohit.baselibrary.tracing.Tracer;
 import com.rohit.baselibrary.utils.FileLogger.FileLogger;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class BootReceiver extends BroadcastReceiver {
+
+    // goAsync() gives a receiver about 10 seconds before the system considers it hung
+    private static final long LOCKED_PHASE_TIMEOUT_SECONDS = 8;
+
     @Override
     public void onReceive(Context context, Intent intent) {
         String action = intent.getAction();
-        if (Intent.ACTION_BOOT_COMPLETED.equals(action) ||
-                Intent.ACTION_LOCKED_BOOT_COMPLETED.equals(action) ||
+        if (Intent.ACTION_LOCKED_BOOT_COMPLETED.equals(action)) {
+            // WorkManager keeps its database in credential-protected storage and cannot run
+            // before unlock, so the minimal phase runs here with device-protected storage
+            runLockedPhase(DirectBoot.deviceProtectedContext(context), goAsync());
+        } else if (Intent.ACTION_BOOT_COMPLETED.equals(action) ||
                 "com.rohit.test.TRIGGER_BOOT".equals(action)) {
                 // Remove Com.rohit.test.Trigger_Boot.equals(action) from the if statement
                 // and Manifest on Final Publication
 
-            // Use Device Protected Storage if needed
-            Context storageContext = context;
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-                storageContext = context.createDeviceProtectedStorageContext();
-            }
-
-            // Schedule work with WorkManager
+            // Full phase: migrate locked-phase state and run the remaining boot tasks
             OneTimeWorkRequest workRequest =
                     new OneTimeWorkRequest.Builder(BootWorker.class)
                             .build();
 
-            WorkManager.getInstance(storageContext).enqueue(workRequest);
+            WorkManager.getInstance(context).enqueue(workRequest);
         }
     }
+
+    private static void runLockedPhase(Context storageContext, PendingResult pendingResult) {
+        // Coordinate from the single lane so waiting never occupies an IO thread
+        ExecutorServiceWrapper.runOnSingleThread(() -> {
+            Tracer.begin("boot.locked");
+            try (FileLogger logger = new FileLogger(storageContext, "BootReceiver", true)) {
+                logger.logInfo("Locked boot phase started");
+                List<BootTaskGraph.TaskResult> results = BootTaskGraph.getInstance().runLockedPhase(
+                        storageContext, ExecutorServiceWrapper.getIoExecutor(),
+                        LOCKED_PHASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                for (BootTaskGraph.TaskResult result : results) {
+                    logger.log(result.getStatus() == BootTaskGraph.Status.FAILED ? "ERROR" : "INFO",
+                            "Boot task " + result);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IllegalStateException e) {
+                Log.e("BootReceiver", "Invalid boot task graph", e);
+            } catch (IOException e) {
+                Log.w("BootReceiver", "Failed to close the boot log", e);
+            } finally {
+                Tracer.end();
+                pendingResult.finish();
+            }
+        });
+    }
 }
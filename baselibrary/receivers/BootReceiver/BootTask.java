@@ -0,0 +1,164 @@
+package com.rohit.baselibrary.receivers;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * BootTask
+ * One unit of post-boot work. Tasks name the tasks they depend on and the conditions they
+ * need; {@link BootTaskGraph} runs independent tasks in parallel.
+ *
+ * <pre>
+ * new BootTask.Builder("config_refresh", context -> refreshConfig(context))
+ *         .dependsOn("logger_init")
+ *         .requires(BootTask.Constraint.NETWORK)
+ *         .build();
+ * </pre>
+ *
+ * Tasks run in the {@link Phase#UNLOCKED} phase unless they opt into {@link Phase#LOCKED},
+ * which runs straight after LOCKED_BOOT_COMPLETED with a device-protected storage context.
+ */
+public final class BootTask {
+
+    /**
+     * When a task runs relative to the first user unlock.
+     */
+    public enum Phase {
+        /**
+         * Before unlock, with device-protected storage only. Keep these tasks small and
+         * idempotent: they run again after unlock if the locked phase was missed.
+         */
+        LOCKED,
+        /**
+         * After unlock, from BootWorker, with full (credential-protected) storage.
+         */
+        UNLOCKED
+    }
+
+    /**
+     * Work performed by a task. Throwing marks the task as failed.
+     */
+    public interface Action {
+        void run(Context context) throws Exception;
+    }
+
+    /**
+     * Conditions checked right before a task starts; unmet conditions skip the task.
+     */
+    public enum Constraint {
+        NETWORK,
+        USER_UNLOCKED;
+
+        boolean isMet(Context context) {
+            switch (this) {
+                case NETWORK:
+                    ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+                    NetworkInfo info = cm != null ? cm.getActiveNetworkInfo() : null;
+                    return info != null && info.isConnected();
+                case USER_UNLOCKED:
+                    return DirectBoot.isUserUnlocked(context);
+                default:
+                    return true;
+            }
+        }
+    }
+
+    private final String name;
+    private final Action action;
+    private final List<String> dependencies;
+    private final Set<Constraint> constraints;
+    private final boolean retryOnFailure;
+    private final Phase phase;
+
+    private BootTask(Builder builder) {
+        this.name = builder.name;
+        this.action = builder.action;
+        this.dependencies = Collections.unmodifiableList(new ArrayList<>(builder.dependencies));
+        this.constraints = Collections.unmodifiableSet(builder.constraints.isEmpty()
+                ? EnumSet.noneOf(Constraint.class) : EnumSet.copyOf(builder.constraints));
+        this.retryOnFailure = builder.retryOnFailure;
+        this.phase = builder.phase;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    public Set<Constraint> getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * If true, a failure of this task makes the BootWorker ask WorkManager for a retry.
+     */
+    public boolean isRetryOnFailure() {
+        return retryOnFailure;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public static class Builder {
+        private final String name;
+        private final Action action;
+        private final List<String> dependencies = new ArrayList<>();
+        private final Set<Constraint> constraints = EnumSet.noneOf(Constraint.class);
+        private boolean retryOnFailure;
+        private Phase phase = Phase.UNLOCKED;
+
+        public Builder(String name, Action action) {
+            if (name == null || action == null) {
+                throw new IllegalArgumentException("name and action are required");
+            }
+            this.name = name;
+            this.action = action;
+        }
+
+        public Builder dependsOn(String... taskNames) {
+            Collections.addAll(dependencies, taskNames);
+            return this;
+        }
+
+        public Builder requires(Constraint... required) {
+            Collections.addAll(constraints, required);
+            return this;
+        }
+
+        public Builder retryOnFailure(boolean retry) {
+            this.retryOnFailure = retry;
+            return this;
+        }
+
+        /**
+         * Runs the task before unlock ({@link Phase#LOCKED}) or after it (default).
+         * A LOCKED task may not depend on an UNLOCKED one.
+         */
+        public Builder phase(Phase phase) {
+            if (phase == null) {
+                throw new IllegalArgumentException("phase is required");
+            }
+            this.phase = phase;
+            return this;
+        }
+
+        public BootTask build() {
+            return new BootTask(this);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.rohit.baselibrary.receivers;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.rohit.baselibrary.tracing.Tracer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BootTaskGraph
+ * Registry of {@link BootTask}s run by {@link BootWorker} after a restart.
+ * Tasks start as soon as all their dependencies have succeeded, so independent tasks run in
+ * parallel. A task whose dependency failed or was skipped is skipped too.
+ *
+ * Register tasks in Application.onCreate(), which runs before the worker.
+ *
+ * Boot runs in two phases: {@link BootTask.Phase#LOCKED} tasks run from BootReceiver as soon
+ * as LOCKED_BOOT_COMPLETED arrives, {@link BootTask.Phase#UNLOCKED} tasks run from BootWorker
+ * after unlock. An UNLOCKED task may depend on a LOCKED one; that dependency counts as met.
+ */
+public class BootTaskGraph {
+
+    private static final String TAG = "BootTaskGraph";
+    private static final BootTaskGraph INSTANCE = new BootTaskGraph();
+
+    private final Map<String, BootTask> tasks = new LinkedHashMap<>();
+    private volatile boolean lockedPhaseCompleted;
+    private final AtomicBoolean lockedPhaseStarted = new AtomicBoolean();
+    // Released once every LOCKED task has finished, even if the run that started them timed out
+    private final CountDownLatch lockedPhaseFinished = new CountDownLatch(1);
+    // Why the first locked phase run could not start, handed to the callers waiting for it
+    private volatile IllegalStateException lockedPhaseError;
+
+    public static BootTaskGraph getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds or replaces a task. Dependencies may be registered later, but must exist by run time.
+     */
+    public synchronized BootTaskGraph register(BootTask task) {
+        tasks.put(task.getName(), task);
+        return this;
+    }
+
+    public synchronized void unregister(String name) {
+        tasks.remove(name);
+    }
+
+    public synchronized List<BootTask> getTasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        SKIPPED
+    }
+
+    public static final class TaskResult {
+        private final String name;
+        private final Status status;
+        private final long durationMillis;
+        private final String reason;
+        private final boolean retryRequested;
+
+        TaskResult(String name, Status status, long durationMillis, String reason, boolean retryRequested) {
+            this.name = name;
+            this.status = status;
+            this.durationMillis = durationMillis;
+            this.reason = reason;
+            this.retryRequested = retryRequested;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * Why the task failed or was skipped, null on success.
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * True if the task failed and was registered with retryOnFailure.
+         */
+        public boolean isRetryRequested() {
+            return retryRequested;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + status + " in " + durationMillis + " ms" + (reason != null ? " (" + reason + ")" : "");
+        }
+    }
+
+    /**
+     * Runs every registered task, whatever its phase, on the executor and waits for the graph
+     * to finish.
+     *
+     * @return Results in completion order; tasks that did not finish in time are missing.
+     * @throws IllegalStateException if a dependency is unknown or the graph has a cycle.
+     */
+    public List<TaskResult> run(Context context, Executor executor, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return run(context, null, executor, timeout, unit);
+    }
+
+    /**
+     * Runs the tasks of one phase on the executor and waits for them to finish.
+     *
+     * @param phase The phase to run, or null for every task.
+     * @return Results in completion order; tasks that did not finish in time are missing.
+     * @throws IllegalStateException if a dependency is unknown, the graph has a cycle or a
+     *                               LOCKED task depends on an UNLOCKED one.
+     */
+    public List<TaskResult> run(Context context, BootTask.Phase phase, Executor executor,
+                                long timeout, TimeUnit unit) throws InterruptedException {
+        return run(context, phase, executor, timeout, unit, null);
+    }
+
+    /**
+     * @param onFinished Run once the last task has finished, on the thread that finished it;
+     *                   may be long after this method timed out. Null for none.
+     */
+    private List<TaskResult> run(Context context, BootTask.Phase phase, Executor executor,
+                                 long timeout, TimeUnit unit, Runnable onFinished) throws InterruptedException {
+        Map<String, BootTask> snapshot;
+        synchronized (this) {
+            snapshot = new LinkedHashMap<>(tasks);
+        }
+        validate(snapshot);
+
+        // Dependencies on tasks outside this run belong to an earlier phase and count as met
+        Map<String, BootTask> selected = new LinkedHashMap<>();
+        for (BootTask task : snapshot.values()) {
+            if (phase == null || task.getPhase() == phase) {
+                selected.put(task.getName(), task);
+            }
+        }
+        Map<String, List<String>> dependencies = new HashMap<>();
+        Map<String, List<BootTask>> dependents = new HashMap<>();
+        Map<String, AtomicInteger> remaining = new HashMap<>();
+        for (BootTask task : selected.values()) {
+            List<String> inPhase = new ArrayList<>();
+            for (String dependency : task.getDependencies()) {
+                if (selected.containsKey(dependency)) {
+                    inPhase.add(dependency);
+                    List<BootTask> list = dependents.get(dependency);
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        dependents.put(dependency, list);
+                    }
+                    list.add(task);
+                }
+            }
+            dependencies.put(task.getName(), inPhase);
+            remaining.put(task.getName(), new AtomicInteger(inPhase.size()));
+        }
+
+        Map<String, TaskResult> results = new ConcurrentHashMap<>();
+        List<TaskResult> ordered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(selected.size());
+        if (selected.isEmpty() && onFinished != null) {
+            onFinished.run();
+        }
+        Runner runner = new Runner(context, executor, dependencies, dependents, remaining, results, ordered,
+                done, onFinished);
+
+        for (BootTask task : selected.values()) {
+            if (dependencies.get(task.getName()).isEmpty()) {
+                runner.submit(task);
+            }
+        }
+        if (!done.await(timeout, unit)) {
+            Log.w(TAG, "Boot graph timed out with " + done.getCount() + " task(s) unfinished");
+        } else if (phase == BootTask.Phase.LOCKED) {
+            lockedPhaseCompleted = true;
+        }
+        synchronized (ordered) {
+            return new ArrayList<>(ordered);
+        }
+    }
+
+    /**
+     * Runs the LOCKED phase at most once per process. The first caller runs it; later callers
+     * wait for its tasks to finish (up to the timeout) instead of running them again.
+     * BootReceiver runs it on LOCKED_BOOT_COMPLETED. BootWorker calls it too, so it runs the
+     * phase when it was missed (no LOCKED_BOOT_COMPLETED before Android N, or the process was
+     * restarted) and waits for it when the receiver's run is still in progress.
+     *
+     * Any caller may return while locked tasks are still running, if the timeout passed first.
+     * Check {@link #isLockedPhaseCompleted()} before reading what the phase writes.
+     *
+     * @return The results of this caller's run, or an empty list if another caller ran it.
+     * @throws IllegalStateException if the graph is invalid, for every caller.
+     */
+    public List<TaskResult> runLockedPhase(Context context, Executor executor, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (!lockedPhaseStarted.compareAndSet(false, true)) {
+            if (!lockedPhaseFinished.await(timeout, unit)) {
+                Log.w(TAG, "Locked boot phase still running after the timeout");
+            }
+            IllegalStateException error = lockedPhaseError;
+            if (error != null) {
+                throw error;
+            }
+            return Collections.emptyList();
+        }
+        try {
+            return run(context, BootTask.Phase.LOCKED, executor, timeout, unit, () -> {
+                lockedPhaseCompleted = true;
+                lockedPhaseFinished.countDown();
+            });
+        } catch (IllegalStateException e) {
+            // No task was started, so nothing will release the waiters
+            lockedPhaseError = e;
+            lockedPhaseFinished.countDown();
+            throw e;
+        }
+    }
+
+    /**
+     * True once every task of a LOCKED phase run has finished in this process.
+     */
+    public boolean isLockedPhaseCompleted() {
+        return lockedPhaseCompleted;
+    }
+
+    /**
+     * Checks dependencies exist, respect the phase order and the graph is acyclic (Kahn's
+     * algorithm).
+     */
+    private static void validate(Map<String, BootTask> graph) {
+        Map<String, List<BootTask>> dependents = new HashMap<>();
+        Map<String, Integer> inDegree = new HashMap<>();
+        for (BootTask task : graph.values()) {
+            inDegree.put(task.getName(), task.getDependencies().size());
+            for (String dependency : task.getDependencies()) {
+                BootTask upstream = graph.get(dependency);
+                if (upstream == null) {
+                    throw new IllegalStateException("Boot task '" + task.getName()
+                            + "' depends on unknown task '" + dependency + "'");
+                }
+                if (upstream.getPhase().compareTo(task.getPhase()) > 0) {
+                    throw new IllegalStateException("Boot task '" + task.getName() + "' runs "
+                            + task.getPhase() + " but depends on " + upstream.getPhase()
+                            + " task '" + dependency + "'");
+                }
+                List<BootTask> list = dependents.get(dependency);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    dependents.put(dependency, list);
+                }
+                list.add(task);
+            }
+        }
+        Deque<String> ready = new ArrayDeque<>();
+        for (Map.Entry<String, Integer> entry : inDegree.entrySet()) {
+            if (entry.getValue() == 0) {
+                ready.add(entry.getKey());
+            }
+        }
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            visited++;
+            List<BootTask> next = dependents.get(name);
+            if (next == null) {
+                continue;
+            }
+            for (BootTask task : next) {
+                int degree = inDegree.get(task.getName()) - 1;
+                inDegree.put(task.getName(), degree);
+                if (degree == 0) {
+                    ready.add(task.getName());
+                }
+            }
+        }
+        if (visited != graph.size()) {
+            throw new IllegalStateException("Boot task graph contains a cycle");
+        }
+    }
+
+    private static final class Runner {
+        private final Context context;
+        private final Executor executor;
+        private final Map<String, List<String>> dependencies;
+        private final Map<String, List<BootTask>> dependents;
+        private final Map<String, AtomicInteger> remaining;
+        private final Map<String, TaskResult> results;
+        private final List<TaskResult> ordered;
+        private final CountDownLatch done;
+        private final Runnable onFinished;
+        private final AtomicInteger unfinished;
+
+        Runner(Context context, Executor executor, Map<String, List<String>> dependencies,
+               Map<String, List<BootTask>> dependents, Map<String, AtomicInteger> remaining,
+               Map<String, TaskResult> results, List<TaskResult> ordered, CountDownLatch done,
+               Runnable onFinished) {
+            this.context = context;
+            this.executor = executor;
+            this.dependencies = dependencies;
+            this.dependents = dependents;
+            this.remaining = remaining;
+            this.results = results;
+            this.ordered = ordered;
+            this.done = done;
+            this.onFinished = onFinished;
+            this.unfinished = new AtomicInteger((int) done.getCount());
+        }
+
+        /**
+         * Runs the task on the executor. Whatever happens to it, it gets a result and its
+         * dependents are released, so the graph never waits on a task that is gone.
+         */
+        void submit(BootTask task) {
+            try {
+                executor.execute(() -> {
+                    TaskResult result = null;
+                    try {
+                        result = execute(task);
+                    } catch (Throwable t) {
+                        // An Error from the task, or a constraint check that threw
+                        Log.e(TAG, "Boot task " + task.getName() + " failed", t);
+                        result = new TaskResult(task.getName(), Status.FAILED, 0, String.valueOf(t),
+                                task.isRetryOnFailure());
+                    } finally {
+                        finish(task, result);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                Log.e(TAG, "Boot task " + task.getName() + " was rejected by the executor", e);
+                TaskResult skipped = checkDependencies(task);
+                finish(task, skipped != null ? skipped : new TaskResult(task.getName(), Status.FAILED, 0,
+                        "rejected by the executor", task.isRetryOnFailure()));
+            }
+        }
+
+        private void finish(BootTask task, TaskResult result) {
+            try {
+                results.put(task.getName(), result);
+                ordered.add(result);
+                Log.i(TAG, result.toString());
+            } finally {
+                done.countDown();
+                if (unfinished.decrementAndGet() == 0 && onFinished != null) {
+                    onFinished.run();
+                }
+            }
+
+            List<BootTask> next = dependents.get(task.getName());
+            if (next != null) {
+                for (BootTask dependent : next) {
+                    if (remaining.get(dependent.getName()).decrementAndGet() == 0) {
+                        submit(dependent);
+                    }
+                }
+            }
+        }
+
+        /**
+         * A SKIPPED result if a dependency did not succeed, otherwise null.
+         */
+        private TaskResult checkDependencies(BootTask task) {
+            for (String dependency : dependencies.get(task.getName())) {
+                TaskResult upstream = results.get(dependency);
+                if (upstream == null || upstream.getStatus() != Status.SUCCEEDED) {
+                    return new TaskResult(task.getName(), Status.SKIPPED, 0,
+                            "dependency " + dependency + " did not succeed", false);
+                }
+            }
+            return null;
+        }
+
+        private TaskResult execute(BootTask task) {
+            TaskResult skipped = checkDependencies(task);
+            if (skipped != null) {
+                return skipped;
+            }
+            for (BootTask.Constraint constraint : task.getConstraints()) {
+                if (!constraint.isMet(context)) {
+                    return new TaskResult(task.getName(), Status.SKIPPED, 0,
+                            "constraint " + constraint + " not met", false);
+                }
+            }
+            long start = System.nanoTime();
+            Tracer.begin("boot.task", task.getName());
+            try {
+                task.getAction().run(context);
+                return new TaskResult(task.getName(), Status.SUCCEEDED, elapsedMillis(start), null, false);
+            } catch (Exception e) {
+                Log.e(TAG, "Boot task " + task.getName() + " failed", e);
+                return new TaskResult(task.getName(), Status.FAILED, elapsedMillis(start),
+                        String.valueOf(e.getMessage()), task.isRetryOnFailure());
+            } finally {
+                Tracer.end();
+            }
+        }
+
+        private static long elapsedMillis(long startNanos) {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+}
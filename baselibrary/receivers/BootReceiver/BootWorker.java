@@ -7,9 +7,24 @@ import androidx.annotation.NonNull;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
+import com.rohit.baselibrary.CachedConfigStore;
+import com.rohit.baselibrary.DirectBootConfigCache;
+import com.rohit.baselibrary.threading.executor.ExecutorServiceWrapper;
+import com.rohit.baselibrary.tracing.Tracer;
 import com.rohit.baselibrary.utils.FileLogger.FileLogger;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class BootWorker extends Worker {
+
+    // WorkManager stops a worker after 10 minutes; leave room to report
+    private static final long GRAPH_TIMEOUT_MINUTES = 9;
+    // Share of that budget for a locked phase run from here; its tasks are meant to be small
+    private static final long LOCKED_PHASE_TIMEOUT_MINUTES = 1;
+
     public BootWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
     }
@@ -17,13 +32,94 @@ public class BootWorker extends Worker {
     @NonNull
     @Override
     public Result doWork() {
+        Tracer.begin("boot.worker");
+        try {
+            return runBootWork();
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    private Result runBootWork() {
         Log.i("BootWorker", "Running post-boot tasks...");
 
-        // Example: log to file
-        FileLogger logger = new FileLogger(getApplicationContext(), "BootWorker");
-        logger.logInfo("Device restarted, WorkManager task executed.");
+        Context context = getApplicationContext();
+        BootTaskGraph graph = BootTaskGraph.getInstance();
+        List<BootTaskGraph.TaskResult> results = new ArrayList<>();
+        long start = System.nanoTime();
+
+        // Runs the locked phase if this process missed it (pre-N, test trigger or restart), or
+        // waits for BootReceiver's run still in progress, so its writes are there to merge
+        Tracer.begin("boot.locked");
+        try {
+            results.addAll(graph.runLockedPhase(DirectBoot.deviceProtectedContext(context),
+                    ExecutorServiceWrapper.getIoExecutor(), LOCKED_PHASE_TIMEOUT_MINUTES, TimeUnit.MINUTES));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        } catch (IllegalStateException e) {
+            Log.e("BootWorker", "Invalid boot task graph", e);
+            return Result.failure();
+        } finally {
+            Tracer.end();
+        }
+        if (!graph.isLockedPhaseCompleted()) {
+            // Locked tasks are still writing device-protected data; merging now would miss it
+            Log.w("BootWorker", "Locked boot phase not finished, retrying later");
+            return Result.retry();
+        }
+
+        // Credential-protected storage is available now: fold in what the locked phase wrote
+        int mergedLogs;
+        int mergedKeys;
+        Tracer.begin("boot.merge");
+        try {
+            mergedLogs = FileLogger.mergeDeviceProtectedLogs(context);
+            CachedConfigStore config = CachedConfigStore.sharedPreferences(context);
+            DirectBootConfigCache bootCache = new DirectBootConfigCache(context);
+            mergedKeys = bootCache.mergeInto(config);
+            bootCache.refresh(config);
+        } finally {
+            Tracer.end();
+        }
+
+        // Example: log to file. Closed before returning so the file is not held until the idle timeout
+        FileLogger logger = new FileLogger(context, "BootWorker");
+        try {
+            logger.logInfo("Device restarted, WorkManager task executed. Merged " + mergedLogs
+                    + " locked-phase log file(s) and " + mergedKeys + " config key(s).");
+
+            // Run the registered boot task graph; independent tasks run in parallel
+            Tracer.begin("boot.graph");
+            try {
+                results.addAll(graph.run(context, BootTask.Phase.UNLOCKED, ExecutorServiceWrapper.getIoExecutor(),
+                        GRAPH_TIMEOUT_MINUTES - LOCKED_PHASE_TIMEOUT_MINUTES, TimeUnit.MINUTES));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Result.retry();
+            } catch (IllegalStateException e) {
+                logger.logError("Invalid boot task graph: " + e.getMessage());
+                return Result.failure();
+            } finally {
+                Tracer.end();
+            }
+
+            boolean retry = false;
+            for (BootTaskGraph.TaskResult result : results) {
+                logger.log(result.getStatus() == BootTaskGraph.Status.FAILED ? "ERROR" : "INFO",
+                        "Boot task " + result);
+                retry |= result.isRetryRequested();
+            }
+            logger.logInfo("Boot tasks finished: " + results.size() + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
 
-        // Do your actual boot-time work here
-        return Result.success();
+            return retry ? Result.retry() : Result.success();
+        } finally {
+            try {
+                logger.close();
+            } catch (IOException e) {
+                Log.w("BootWorker", "Failed to close the boot log", e);
+            }
+        }
     }
 }
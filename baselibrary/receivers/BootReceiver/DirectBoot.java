@@ -0,0 +1,39 @@
+package com.rohit.baselibrary.receivers;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.UserManager;
+
+/**
+ * DirectBoot
+ * Helpers for code that may run before the user unlocks a device with File-Based Encryption.
+ * Before unlock only device-protected storage can be read or written.
+ */
+public final class DirectBoot {
+
+    private DirectBoot() {
+        // Static helpers only
+    }
+
+    /**
+     * True once credential-protected storage is available (always true before Android N).
+     */
+    public static boolean isUserUnlocked(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return true;
+        }
+        UserManager um = (UserManager) context.getSystemService(Context.USER_SERVICE);
+        return um == null || um.isUserUnlocked();
+    }
+
+    /**
+     * A context whose files, databases and preferences live in device-protected storage,
+     * or the context itself before Android N.
+     */
+    public static Context deviceProtectedContext(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && !context.isDeviceProtectedStorage()) {
+            return context.createDeviceProtectedStorageContext();
+        }
+        return context;
+    }
+}
@@ -0,0 +1,158 @@
+package com.rohit.baselibrary.threading.Scheduler;
+
+import com.rohit.baselibrary.threading.executor.ExecutorProvider;
+import com.rohit.baselibrary.threading.executor.ExecutorServiceWrapper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+/**
+ * TestSchedulerProvider
+ * Virtual-time provider for plain JVM unit tests. Every Rx scheduler and every executor lane
+ * is driven by one shared {@link TestScheduler}, so work only runs when the test advances time.
+ *
+ * Test-only: this lives in the testFixtures source set and is never packaged with the
+ * library. Put it on the test classpath (e.g. testImplementation(testFixtures(...))).
+ *
+ * <pre>
+ * TestSchedulerProvider provider = TestSchedulerProvider.install();
+ * // ... code under test schedules a retry in 30 seconds ...
+ * provider.advanceTimeBy(30, TimeUnit.SECONDS);
+ * TestSchedulerProvider.uninstall();
+ * </pre>
+ */
+public class TestSchedulerProvider implements SchedulerProvider {
+
+    private final TestScheduler scheduler;
+    private final ExecutorProvider executorProvider;
+
+    public TestSchedulerProvider() {
+        this(new TestScheduler());
+    }
+
+    public TestSchedulerProvider(TestScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.executorProvider = new VirtualExecutorProvider(new SchedulerExecutorService(scheduler));
+    }
+
+    /**
+     * Creates a provider and installs it into both SchedulerWrapper and ExecutorServiceWrapper.
+     */
+    public static TestSchedulerProvider install() {
+        TestSchedulerProvider provider = new TestSchedulerProvider();
+        SchedulerWrapper.setProvider(provider);
+        ExecutorServiceWrapper.setProvider(provider.executorProvider());
+        return provider;
+    }
+
+    /**
+     * Restores the production providers.
+     */
+    public static void uninstall() {
+        SchedulerWrapper.resetProvider();
+        ExecutorServiceWrapper.resetProvider();
+    }
+
+    // --- Virtual clock ---
+
+    /**
+     * Moves the clock forward, running every task that becomes due on the way.
+     */
+    public void advanceTimeBy(long delay, TimeUnit unit) {
+        scheduler.advanceTimeBy(delay, unit);
+    }
+
+    /**
+     * Moves the clock to an absolute point in virtual time.
+     */
+    public void advanceTimeTo(long time, TimeUnit unit) {
+        scheduler.advanceTimeTo(time, unit);
+    }
+
+    /**
+     * Runs all tasks due at the current virtual time without moving the clock.
+     */
+    public void triggerActions() {
+        scheduler.triggerActions();
+    }
+
+    public long now(TimeUnit unit) {
+        return scheduler.now(unit);
+    }
+
+    public TestScheduler getTestScheduler() {
+        return scheduler;
+    }
+
+    // --- SchedulerProvider ---
+
+    @Override
+    public Scheduler io() {
+        return scheduler;
+    }
+
+    @Override
+    public Scheduler main() {
+        return scheduler;
+    }
+
+    @Override
+    public Scheduler computation() {
+        return scheduler;
+    }
+
+    @Override
+    public Scheduler single() {
+        return scheduler;
+    }
+
+    @Override
+    public Scheduler newThread() {
+        return scheduler;
+    }
+
+    /**
+     * Executor lanes driven by the same virtual clock as the Rx schedulers.
+     */
+    public ExecutorProvider executorProvider() {
+        return executorProvider;
+    }
+
+    private static final class VirtualExecutorProvider implements ExecutorProvider {
+        private final SchedulerExecutorService executor;
+
+        VirtualExecutorProvider(SchedulerExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public ExecutorService io() {
+            return executor;
+        }
+
+        @Override
+        public ExecutorService network() {
+            return executor;
+        }
+
+        @Override
+        public ExecutorService single() {
+            return executor;
+        }
+
+        @Override
+        public ScheduledExecutorService scheduled() {
+            return executor;
+        }
+
+        @Override
+        public Executor main() {
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.rohit.baselibrary.threading.Scheduler;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * DefaultSchedulerProvider
+ * Production provider returning the standard RxJava3 and Android Schedulers.
+ */
+public class DefaultSchedulerProvider implements SchedulerProvider {
+
+    public static final DefaultSchedulerProvider INSTANCE = new DefaultSchedulerProvider();
+
+    private DefaultSchedulerProvider() {
+        // Use INSTANCE
+    }
+
+    @Override
+    public Scheduler io() {
+        return Schedulers.io();
+    }
+
+    @Override
+    public Scheduler main() {
+        return AndroidSchedulers.mainThread();
+    }
+
+    @Override
+    public Scheduler computation() {
+        return Schedulers.computation();
+    }
+
+    @Override
+    public Scheduler single() {
+        return Schedulers.single();
+    }
+
+    @Override
+    public Scheduler newThread() {
+        return Schedulers.newThread();
+    }
+}
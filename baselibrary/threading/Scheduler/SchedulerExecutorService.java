@@ -0,0 +1,182 @@
+package com.rohit.baselibrary.threading.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * SchedulerExecutorService
+ * Exposes an RxJava3 {@link Scheduler} as a {@link ScheduledExecutorService}.
+ * Backed by a TestScheduler, executor based code runs on virtual time: nothing executes
+ * until the test advances the clock.
+ */
+public class SchedulerExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final Scheduler scheduler;
+    private final Set<ScheduledTask<?>> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutdown;
+
+    public SchedulerExecutorService(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submitTask(new ScheduledTask<Void>(command, null, 0L, 0L));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return submitTask(new ScheduledTask<Void>(command, null, unit.toNanos(delay), 0L));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return submitTask(new ScheduledTask<>(callable, unit.toNanos(delay)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) throw new IllegalArgumentException("period must be > 0");
+        return submitTask(new ScheduledTask<Void>(command, null, unit.toNanos(initialDelay), unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) throw new IllegalArgumentException("delay must be > 0");
+        return submitTask(new ScheduledTask<Void>(command, null, unit.toNanos(initialDelay), -unit.toNanos(delay)));
+    }
+
+    private <V> ScheduledTask<V> submitTask(ScheduledTask<V> task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        pending.add(task);
+        task.arm();
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> dropped = new ArrayList<>();
+        for (ScheduledTask<?> task : new ArrayList<>(pending)) {
+            task.cancel(false);
+            dropped.add(task);
+        }
+        return dropped;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && pending.isEmpty();
+    }
+
+    /**
+     * Virtual time cannot move while we wait, so this only reports the current state
+     * unless the backing scheduler runs on real threads.
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isTerminated()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * A FutureTask whose trigger time is measured on the scheduler clock.
+     * period > 0 means fixed rate, period < 0 fixed delay, 0 one-shot.
+     */
+    private final class ScheduledTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+        private final long period;
+        private volatile long triggerTime;
+        private volatile Disposable handle;
+
+        ScheduledTask(Runnable runnable, V result, long delayNanos, long period) {
+            super(runnable, result);
+            this.triggerTime = now() + delayNanos;
+            this.period = period;
+        }
+
+        ScheduledTask(Callable<V> callable, long delayNanos) {
+            super(callable);
+            this.triggerTime = now() + delayNanos;
+            this.period = 0L;
+        }
+
+        void arm() {
+            handle = scheduler.scheduleDirect(this, Math.max(0L, triggerTime - now()), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+                pending.remove(this);
+            } else if (runAndReset() && !shutdown) {
+                triggerTime = period > 0 ? triggerTime + period : now() - period;
+                arm();
+            } else {
+                pending.remove(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Disposable current = handle;
+            if (current != null) {
+                current.dispose();
+            }
+            pending.remove(this);
+            return cancelled;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0L;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(triggerTime - now(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+}
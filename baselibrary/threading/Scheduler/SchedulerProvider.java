@@ -0,0 +1,36 @@
+package com.rohit.baselibrary.threading.Scheduler;
+
+import io.reactivex.rxjava3.core.Scheduler;
+
+/**
+ * SchedulerProvider
+ * Source of the RxJava3 Schedulers handed out by {@link SchedulerWrapper}.
+ * Swap the active provider to run scheduled code on virtual time in unit tests.
+ */
+public interface SchedulerProvider {
+
+    /**
+     * Scheduler for IO-bound work (network, disk, etc.).
+     */
+    Scheduler io();
+
+    /**
+     * Scheduler for the Android Main Thread.
+     */
+    Scheduler main();
+
+    /**
+     * Scheduler for computational work.
+     */
+    Scheduler computation();
+
+    /**
+     * Scheduler backed by a single background thread.
+     */
+    Scheduler single();
+
+    /**
+     * Scheduler that starts a new thread for each unit of work.
+     */
+    Scheduler newThread();
+}
@@ -1,62 +1,82 @@
 package com.rohit.baselibrary.threading.Scheduler;
 
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Scheduler;
-import io.reactivex.rxjava3.schedulers.Schedulers;
 
 /**
  * SchedulerWrapper
  * A utility class to provide central access to RxJava3 Schedulers.
  * Useful for switching between threads and facilitating unit testing.
+ * Schedulers come from the active {@link SchedulerProvider}; tests install a
+ * TestSchedulerProvider (testFixtures) to run on virtual time.
  */
 public class SchedulerWrapper {
 
+    private static volatile SchedulerProvider provider = DefaultSchedulerProvider.INSTANCE;
+
+    /**
+     * Replaces the provider used by every static accessor (e.g. a TestSchedulerProvider).
+     */
+    public static void setProvider(SchedulerProvider newProvider) {
+        provider = newProvider != null ? newProvider : DefaultSchedulerProvider.INSTANCE;
+    }
+
+    /**
+     * Restores the production schedulers.
+     */
+    public static void resetProvider() {
+        provider = DefaultSchedulerProvider.INSTANCE;
+    }
+
+    public static SchedulerProvider getProvider() {
+        return provider;
+    }
+
     /**
      * Returns a scheduler intended for IO-bound work (network, disk, etc.).
      */
     public static Scheduler io() {
-        return Schedulers.io();
+        return provider.io();
     }
 
     /**
      * Returns the scheduler for the Android Main Thread.
      */
     public static Scheduler main() {
-        return AndroidSchedulers.mainThread();
+        return provider.main();
     }
 
     /**
      * Returns a scheduler intended for computational work (loops, processing, etc.).
      */
     public static Scheduler computation() {
-        return Schedulers.computation();
+        return provider.computation();
     }
 
     /**
      * Returns a scheduler that executes work on a single background thread.
      */
     public static Scheduler single() {
-        return Schedulers.single();
+        return provider.single();
     }
 
     /**
      * Returns a scheduler that starts a new thread for each unit of work.
      */
     public static Scheduler newThread() {
-        return Schedulers.newThread();
+        return provider.newThread();
     }
 
     /**
      * Executes a task on the IO scheduler.
      */
     public static void runOnIO(Runnable runnable) {
-        Schedulers.io().scheduleDirect(runnable);
+        provider.io().scheduleDirect(runnable);
     }
 
     /**
      * Executes a task on the Main thread.
      */
     public static void runOnMain(Runnable runnable) {
-        AndroidSchedulers.mainThread().scheduleDirect(runnable);
+        provider.main().scheduleDirect(runnable);
     }
 }
@@ -0,0 +1,95 @@
+package com.rohit.baselibrary.threading;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BackoffHints
+ * Persists load-shedding hints sent by the server (Retry-After, a minimum polling interval)
+ * per unique work name, so they survive process death and apply to the next schedule.
+ */
+public class BackoffHints {
+
+    private static final String PREF_NAME = "work_backoff_hints";
+    private static final String NOT_BEFORE = ".not_before";
+    private static final String MIN_INTERVAL = ".min_interval";
+
+    private final SharedPreferences sharedPreferences;
+
+    public BackoffHints(Context context) {
+        this.sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * The work should not run again before now + delay.
+     */
+    public void setRetryAfter(String name, long delay, TimeUnit unit) {
+        sharedPreferences.edit()
+                .putLong(name + NOT_BEFORE, System.currentTimeMillis() + unit.toMillis(delay))
+                .apply();
+    }
+
+    /**
+     * The work should not run more often than this. Pass 0 to drop the hint.
+     */
+    public void setMinInterval(String name, long interval, TimeUnit unit) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        if (interval <= 0) {
+            editor.remove(name + MIN_INTERVAL);
+        } else {
+            editor.putLong(name + MIN_INTERVAL, unit.toMillis(interval));
+        }
+        editor.apply();
+    }
+
+    /**
+     * Remaining Retry-After delay in milliseconds, 0 if there is none or it has passed.
+     */
+    public long getRemainingDelayMillis(String name) {
+        long notBefore = sharedPreferences.getLong(name + NOT_BEFORE, 0);
+        return Math.max(0, notBefore - System.currentTimeMillis());
+    }
+
+    /**
+     * Server minimum interval in milliseconds, 0 if there is none.
+     */
+    public long getMinIntervalMillis(String name) {
+        return sharedPreferences.getLong(name + MIN_INTERVAL, 0);
+    }
+
+    public void clear(String name) {
+        sharedPreferences.edit().remove(name + NOT_BEFORE).remove(name + MIN_INTERVAL).apply();
+    }
+
+    /**
+     * Parses an HTTP Retry-After header: either delta-seconds or an HTTP-date.
+     *
+     * @return The delay in milliseconds, or -1 if the value is missing or malformed.
+     */
+    public static long parseRetryAfter(String headerValue) {
+        if (headerValue == null || headerValue.trim().isEmpty()) {
+            return -1;
+        }
+        String value = headerValue.trim();
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds, try the date form
+        }
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            Date date = format.parse(value);
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.rohit.baselibrary.threading;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * BatchWorker
+ * Base class for workers scheduled by {@link WorkBatcher}. One run receives every item queued
+ * since the last successful run.
+ *
+ * Returning retry keeps the items for the next attempt; success or failure drops them.
+ * Items added while the batch runs are picked up by a follow-up job. Runs are recorded in
+ * {@link WorkTelemetry} under the batch name.
+ *
+ * Follow-up jobs are chained to the running one, and WorkManager fails chained work when its
+ * prerequisite fails. A failed batch is therefore recorded as a failure in telemetry but ends
+ * the job as a success; its items are dropped either way.
+ */
+public abstract class BatchWorker extends TrackedWorker {
+
+    private static final String TAG = "BatchWorker";
+
+    public BatchWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Processes one batch, e.g. uploads all queued log segments in one request.
+     */
+    @NonNull
+    protected abstract Result processBatch(@NonNull List<String> items);
+
+    @NonNull
+    @Override
+    protected final Result doTrackedWork() {
+        String name = getInputData().getString(WorkBatcher.KEY_BATCH_NAME);
+        if (name == null) {
+            Log.e(TAG, "Missing batch name");
+            return Result.failure();
+        }
+        List<String> items;
+        try {
+            items = WorkBatcher.takeBatch(getApplicationContext(), name);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to take batch " + name, e);
+            return Result.retry();
+        }
+        Result result;
+        try {
+            result = items.isEmpty() ? Result.success() : processBatch(items);
+        } catch (RuntimeException e) {
+            // finishBatch() must still run, or producers keep waiting for this worker
+            Log.e(TAG, "Batch " + name + " failed", e);
+            result = Result.failure();
+        }
+        boolean retry = result instanceof Result.Retry;
+        boolean morePending = WorkBatcher.finishBatch(getApplicationContext(), name, retry);
+        if (morePending && !retry) {
+            // Producers left items queued during the run to this worker
+            WorkBatcher.scheduleFollowUp(getApplicationContext(), getClass(), getInputData());
+        }
+        if (result instanceof Result.Failure) {
+            recordOutcome(WorkTelemetry.Outcome.FAILURE);
+            return Result.success();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package com.rohit.baselibrary.threading;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * FleetJitter
+ * Deterministic per-device offsets that spread periodic work across a fleet.
+ *
+ * The offset is a hash of the device id and the work name, so a device always gets the same
+ * slot for the same job (runs stay evenly spaced across restarts and re-enqueues), different
+ * devices land uniformly across the window, and different jobs on one device do not line up.
+ */
+public final class FleetJitter {
+
+    private FleetJitter() {
+        // Static helpers only
+    }
+
+    /**
+     * @param deviceId     Stable device identifier (e.g. {@code Device.getId()}); null is treated as "".
+     * @param salt         Usually the unique work name.
+     * @param windowMillis Size of the window to spread over.
+     * @return An offset in [0, windowMillis), or 0 if the window is empty.
+     */
+    public static long offsetMillis(String deviceId, String salt, long windowMillis) {
+        if (windowMillis <= 0) {
+            return 0;
+        }
+        return (hash(deviceId, salt) & Long.MAX_VALUE) % windowMillis;
+    }
+
+    /**
+     * A value in [0, 1) from the same hash, for callers that scale it themselves.
+     */
+    public static double fraction(String deviceId, String salt) {
+        return (hash(deviceId, salt) >>> 11) * 0x1.0p-53;
+    }
+
+    private static long hash(String deviceId, String salt) {
+        byte[] input = ((deviceId != null ? deviceId : "") + ':' + (salt != null ? salt : ""))
+                .getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(input);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (digest[i] & 0xFF);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available on Android; fall back to a 64-bit FNV-1a just in case
+            long value = 0xcbf29ce484222325L;
+            for (byte b : input) {
+                value ^= b & 0xFF;
+                value *= 0x100000001b3L;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.rohit.baselibrary.threading;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.ListenableWorker;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.Operation;
+import androidx.work.OutOfQuotaPolicy;
+import androidx.work.WorkContinuation;
+import androidx.work.WorkManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OneTimeRequest
+ * Builder for one unique one-time job (optionally followed by a chain of jobs), created with
+ * {@link WorkManagerHandler#oneTime(Class, String)}.
+ *
+ * Nothing is forced: by default the job has no constraints and an existing job with the same
+ * name is kept ({@link ExistingWorkPolicy#KEEP}), so in-flight work is never cancelled.
+ *
+ * <pre>
+ * workHandler.oneTime(CompactLogsWorker.class, "compact_logs")
+ *         .requiresBatteryNotLow(true)
+ *         .then(workHandler.oneTime(UploadLogsWorker.class, "upload_logs")
+ *                 .requiredNetwork(NetworkType.UNMETERED))
+ *         .enqueue();
+ * </pre>
+ */
+public class OneTimeRequest {
+
+    private final WorkManager workManager;
+    private final String uniqueName;
+    private final OneTimeWorkRequest.Builder builder;
+    private final Constraints.Builder constraints = new Constraints.Builder();
+    private final List<OneTimeRequest> next = new ArrayList<>();
+    private ExistingWorkPolicy policy = ExistingWorkPolicy.KEEP;
+    private Data inputData = Data.EMPTY;
+    private long initialDelayMillis;
+
+    OneTimeRequest(WorkManager workManager, Class<? extends ListenableWorker> workerClass, String uniqueName) {
+        this.workManager = workManager;
+        this.uniqueName = uniqueName;
+        this.builder = new OneTimeWorkRequest.Builder(workerClass).addTag(uniqueName);
+    }
+
+    public OneTimeRequest inputData(Data inputData) {
+        this.inputData = inputData;
+        return this;
+    }
+
+    public OneTimeRequest addTag(String tag) {
+        builder.addTag(tag);
+        return this;
+    }
+
+    // --- Constraints (none by default) ---
+
+    public OneTimeRequest requiredNetwork(NetworkType networkType) {
+        constraints.setRequiredNetworkType(networkType);
+        return this;
+    }
+
+    public OneTimeRequest requiresCharging(boolean required) {
+        constraints.setRequiresCharging(required);
+        return this;
+    }
+
+    public OneTimeRequest requiresBatteryNotLow(boolean required) {
+        constraints.setRequiresBatteryNotLow(required);
+        return this;
+    }
+
+    public OneTimeRequest requiresStorageNotLow(boolean required) {
+        constraints.setRequiresStorageNotLow(required);
+        return this;
+    }
+
+    /**
+     * Only honoured on API 23+.
+     */
+    public OneTimeRequest requiresDeviceIdle(boolean required) {
+        constraints.setRequiresDeviceIdle(required);
+        return this;
+    }
+
+    // --- Timing ---
+
+    public OneTimeRequest initialDelay(long delay, TimeUnit unit) {
+        builder.setInitialDelay(delay, unit);
+        initialDelayMillis = unit.toMillis(delay);
+        return this;
+    }
+
+    public OneTimeRequest backoff(BackoffPolicy backoffPolicy, long delay, TimeUnit unit) {
+        builder.setBackoffCriteria(backoffPolicy, delay, unit);
+        return this;
+    }
+
+    /**
+     * Runs the job as expedited work; when the app is out of expedited quota it runs as
+     * normal work instead of being dropped. Expedited jobs may only have network and storage
+     * constraints.
+     */
+    public OneTimeRequest expedited() {
+        return expedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST);
+    }
+
+    public OneTimeRequest expedited(OutOfQuotaPolicy outOfQuotaPolicy) {
+        builder.setExpedited(outOfQuotaPolicy);
+        return this;
+    }
+
+    // --- Uniqueness and chaining ---
+
+    /**
+     * What to do when work with the same unique name already exists. Defaults to KEEP.
+     */
+    public OneTimeRequest policy(ExistingWorkPolicy existingWorkPolicy) {
+        this.policy = existingWorkPolicy;
+        return this;
+    }
+
+    /**
+     * Runs the given requests (in parallel with each other) after this one succeeds. Requests
+     * chained onto those form the next stage, which starts once the whole stage has succeeded.
+     * Their unique names and policies are ignored; the chain is unique under this request's name.
+     */
+    public OneTimeRequest then(OneTimeRequest... requests) {
+        for (OneTimeRequest request : requests) {
+            next.add(request);
+        }
+        return this;
+    }
+
+    public String getUniqueName() {
+        return uniqueName;
+    }
+
+    OneTimeWorkRequest build() {
+        return builder
+                .setInputData(WorkTelemetry.stampEnqueue(inputData, initialDelayMillis, uniqueName))
+                .setConstraints(constraints.build())
+                .build();
+    }
+
+    /**
+     * Enqueues this request and its chain as unique work.
+     */
+    public Operation enqueue() {
+        if (next.isEmpty()) {
+            return workManager.enqueueUniqueWork(uniqueName, policy, build());
+        }
+        WorkContinuation continuation = workManager.beginUniqueWork(uniqueName, policy, build());
+        List<OneTimeWorkRequest> stage = new ArrayList<>();
+        List<OneTimeRequest> current = next;
+        while (!current.isEmpty()) {
+            stage.clear();
+            List<OneTimeRequest> following = new ArrayList<>();
+            for (OneTimeRequest request : current) {
+                stage.add(request.build());
+                following.addAll(request.next);
+            }
+            continuation = continuation.then(new ArrayList<>(stage));
+            current = following;
+        }
+        return continuation.enqueue();
+    }
+}
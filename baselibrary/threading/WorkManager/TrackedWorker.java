@@ -0,0 +1,147 @@
+package com.rohit.baselibrary.threading;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.rohit.baselibrary.tracing.Tracer;
+
+/**
+ * TrackedWorker
+ * Worker base class that records every run in {@link WorkTelemetry} and rate-limits progress
+ * updates.
+ *
+ * Subclasses implement {@link #doTrackedWork()} instead of doWork(). Runs are recorded under
+ * {@link WorkTelemetry#KEY_TAG} from the input data if set, otherwise under the first tag that
+ * is not the worker's class name (the unique name for work scheduled by WorkManagerHandler).
+ */
+public abstract class TrackedWorker extends Worker {
+
+    // Each progress update is a WorkManager database write
+    private static final long DEFAULT_PROGRESS_INTERVAL_MS = 1000;
+
+    private long progressIntervalMs = DEFAULT_PROGRESS_INTERVAL_MS;
+    private long lastProgressAt = -1;
+    private Data lastProgress;
+    private WorkTelemetry.Outcome outcomeOverride;
+
+    public TrackedWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    protected abstract Result doTrackedWork();
+
+    @NonNull
+    @Override
+    public final Result doWork() {
+        long startedAt = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        int attempt = getRunAttemptCount();
+        Result result = null;
+        // Tracing may be switched on or off during the run; end only a span that was begun
+        boolean traced = Tracer.isEnabled();
+        if (traced) {
+            Tracer.begin("worker", getClass().getSimpleName());
+        }
+        try {
+            result = doTrackedWork();
+            return result;
+        } finally {
+            if (traced) {
+                Tracer.end();
+            }
+            long runMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+            WorkTelemetry.Outcome outcome;
+            if (isStopped()) {
+                outcome = WorkTelemetry.Outcome.CANCELLED;
+            } else if (outcomeOverride != null) {
+                outcome = outcomeOverride;
+            } else if (result instanceof Result.Success) {
+                outcome = WorkTelemetry.Outcome.SUCCESS;
+            } else if (result instanceof Result.Retry) {
+                outcome = WorkTelemetry.Outcome.RETRY;
+            } else {
+                // Failure, or an exception escaped doTrackedWork
+                outcome = WorkTelemetry.Outcome.FAILURE;
+            }
+            WorkTelemetry.record(getApplicationContext(), getTelemetryTag(),
+                    startDelayMillis(startedAt, attempt), runMillis, outcome, attempt);
+        }
+    }
+
+    /**
+     * Time between the earliest allowed start (enqueue + initial delay) and the actual start.
+     * Only known for first attempts of work stamped by {@link WorkTelemetry#stampEnqueue}.
+     */
+    private long startDelayMillis(long startedAt, int attempt) {
+        long enqueuedAt = getInputData().getLong(WorkTelemetry.KEY_ENQUEUED_AT, -1);
+        if (enqueuedAt < 0 || attempt > 0) {
+            return -1;
+        }
+        long eligibleAt = enqueuedAt + getInputData().getLong(WorkTelemetry.KEY_INITIAL_DELAY, 0);
+        return Math.max(0, startedAt - eligibleAt);
+    }
+
+    /**
+     * Records this run with the given outcome instead of the one derived from the returned
+     * result.
+     */
+    protected final void recordOutcome(@NonNull WorkTelemetry.Outcome outcome) {
+        this.outcomeOverride = outcome;
+    }
+
+    protected String getTelemetryTag() {
+        String tag = getInputData().getString(WorkTelemetry.KEY_TAG);
+        if (tag != null) {
+            return tag;
+        }
+        String className = getClass().getName();
+        for (String candidate : getTags()) {
+            if (!candidate.equals(className)) {
+                return candidate;
+            }
+        }
+        return getClass().getSimpleName();
+    }
+
+    // --- Progress ---
+
+    /**
+     * Minimum time between two progress writes. Defaults to one second.
+     */
+    protected void setProgressInterval(long intervalMs) {
+        this.progressIntervalMs = Math.max(0, intervalMs);
+    }
+
+    /**
+     * Publishes progress at most once per interval; identical updates are dropped.
+     * Progress of 100 is always published.
+     */
+    protected void reportProgress(int percent) {
+        reportProgress(new Data.Builder().putInt("progress", percent).build(), percent >= 100);
+    }
+
+    /**
+     * Publishes progress at most once per interval unless forced; identical updates are dropped.
+     *
+     * @return true if the update was written.
+     */
+    protected boolean reportProgress(@NonNull Data progress, boolean force) {
+        long now = SystemClock.elapsedRealtime();
+        if (progress.equals(lastProgress)) {
+            return false;
+        }
+        if (!force && lastProgressAt >= 0 && now - lastProgressAt < progressIntervalMs) {
+            return false;
+        }
+        lastProgressAt = now;
+        lastProgress = progress;
+        setProgressAsync(progress);
+        return true;
+    }
+}
@@ -0,0 +1,349 @@
+package com.rohit.baselibrary.threading;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UTFDataFormatException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkBatcher
+ * Merges many small enqueues (e.g. one upload per log segment) into a single worker run.
+ *
+ * Items are appended to a small file queue and one unique job is scheduled for the batch with
+ * {@link ExistingWorkPolicy#KEEP}, so every add within the window rides on the same job and
+ * the job scheduler wakes the device once. The {@link BatchWorker} receives every queued item.
+ */
+public class WorkBatcher {
+
+    private static final String TAG = "WorkBatcher";
+    static final String KEY_BATCH_NAME = "work_batcher_name";
+    // The job re-schedules itself when items arrive mid-run, so it carries its own settings
+    private static final String KEY_WINDOW = "work_batcher_window";
+    private static final String KEY_NETWORK = "work_batcher_network";
+    private static final String KEY_CHARGING = "work_batcher_charging";
+    private static final String KEY_BATTERY_NOT_LOW = "work_batcher_battery_not_low";
+    private static final String KEY_STORAGE_NOT_LOW = "work_batcher_storage_not_low";
+    private static final String DIR_NAME = "work_batches";
+
+    // One lock per batch name, shared by producers and the worker in this process
+    private static final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<>();
+    // Where the batch job of each name is, as far as this process knows; absent means idle.
+    // Read and written under the batch's lock
+    private static final Map<String, RunState> runStates = new ConcurrentHashMap<>();
+    // Files already checked for a record torn by a crash, so appends land after good data
+    private static final Set<String> repaired = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    // writeUTF stores the encoded length in two bytes
+    private static final int MAX_ITEM_BYTES = 0xFFFF;
+
+    private enum RunState {
+        // Between takeBatch() and finishBatch(): the worker checks the queue again at the end
+        RUNNING,
+        // The batch is done but WorkManager may still report the job RUNNING, and KEEP ignores it
+        FINISHING
+    }
+
+    private final Context context;
+    private final String name;
+    private final Class<? extends BatchWorker> workerClass;
+    private final long windowMillis;
+    private final Constraints constraints;
+
+    /**
+     * @param name        Unique batch name; also the unique work name.
+     * @param workerClass Worker that processes the items.
+     * @param window      How long to collect items before the job may run.
+     * @param constraints Constraints for the batch job.
+     */
+    public WorkBatcher(Context context, String name, Class<? extends BatchWorker> workerClass,
+                       long window, TimeUnit unit, Constraints constraints) {
+        this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        this.name = name;
+        this.workerClass = workerClass;
+        this.windowMillis = unit.toMillis(window);
+        this.constraints = constraints != null ? constraints : Constraints.NONE;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Queues one item and makes sure a batch job is scheduled. Safe to call from any thread;
+     * does a small file append, so avoid the main thread.
+     *
+     * @throws IllegalArgumentException if the item is null or longer than 64 KB encoded.
+     */
+    public void add(String item) {
+        addAll(Collections.singletonList(item));
+    }
+
+    /**
+     * Queues several items with one append. All items are checked first, so a bad item
+     * queues none of them.
+     *
+     * @throws IllegalArgumentException if an item is null or longer than 64 KB encoded.
+     */
+    public void addAll(Collection<String> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        for (String item : items) {
+            checkItem(item);
+        }
+        ExistingWorkPolicy policy;
+        synchronized (lock(name)) {
+            File queue = queueFile(context, name);
+            long before = queue.length();
+            try {
+                append(queue, items);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to queue " + items.size() + " item(s) for " + name, e);
+                if (queue.length() <= before) {
+                    return;
+                }
+                // Part of the batch reached the file; schedule so it is not left behind
+            }
+            RunState state = runStates.get(name);
+            if (state == RunState.RUNNING) {
+                // finishBatch() will see these items and the worker schedules the follow-up
+                return;
+            }
+            if (state == RunState.FINISHING) {
+                // Chain behind the finishing job; later adds find this one pending and KEEP it
+                runStates.remove(name);
+                policy = ExistingWorkPolicy.APPEND_OR_REPLACE;
+            } else {
+                policy = ExistingWorkPolicy.KEEP;
+            }
+        }
+        schedule(context, name, workerClass, windowMillis, constraints, policy);
+    }
+
+    /**
+     * Number of items waiting for the next run (not counting a batch being processed).
+     */
+    public int getPendingCount() {
+        synchronized (lock(name)) {
+            return read(queueFile(context, name)).size();
+        }
+    }
+
+    private static void schedule(Context context, String name, Class<? extends BatchWorker> workerClass,
+                                 long windowMillis, Constraints constraints, ExistingWorkPolicy policy) {
+        Data inputData = new Data.Builder()
+                .putString(KEY_BATCH_NAME, name)
+                .putLong(KEY_WINDOW, windowMillis)
+                .putString(KEY_NETWORK, constraints.getRequiredNetworkType().name())
+                .putBoolean(KEY_CHARGING, constraints.requiresCharging())
+                .putBoolean(KEY_BATTERY_NOT_LOW, constraints.requiresBatteryNotLow())
+                .putBoolean(KEY_STORAGE_NOT_LOW, constraints.requiresStorageNotLow())
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(workerClass)
+                .addTag(name)
+                .setInitialDelay(windowMillis, TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .setInputData(WorkTelemetry.stampEnqueue(inputData, windowMillis, name))
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(name, policy, request);
+    }
+
+    /**
+     * Schedules a follow-up job with the settings of the job that is running now. It is
+     * appended to the running job, which still counts as existing work for KEEP. BatchWorker
+     * never ends a job in failure, so the appended job is not failed with it.
+     */
+    static void scheduleFollowUp(Context context, Class<? extends BatchWorker> workerClass, Data inputData) {
+        String name = inputData.getString(KEY_BATCH_NAME);
+        NetworkType networkType;
+        try {
+            networkType = NetworkType.valueOf(inputData.getString(KEY_NETWORK));
+        } catch (RuntimeException e) {
+            networkType = NetworkType.NOT_REQUIRED;
+        }
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(networkType)
+                .setRequiresCharging(inputData.getBoolean(KEY_CHARGING, false))
+                .setRequiresBatteryNotLow(inputData.getBoolean(KEY_BATTERY_NOT_LOW, false))
+                .setRequiresStorageNotLow(inputData.getBoolean(KEY_STORAGE_NOT_LOW, false))
+                .build();
+        schedule(context, name, workerClass, inputData.getLong(KEY_WINDOW, 0), constraints,
+                ExistingWorkPolicy.APPEND_OR_REPLACE);
+    }
+
+    // --- Worker side ---
+
+    /**
+     * Moves queued items into the in-flight file and returns everything in flight (items of a
+     * previous failed run first). Until {@link #finishBatch} producers leave scheduling to
+     * the worker.
+     */
+    static List<String> takeBatch(Context context, String name) throws IOException {
+        synchronized (lock(name)) {
+            File queue = queueFile(context, name);
+            File inflight = inflightFile(context, name);
+            List<String> queued = read(queue);
+            if (!queued.isEmpty()) {
+                append(inflight, queued);
+            }
+            queue.delete();
+            List<String> batch = read(inflight);
+            runStates.put(name, RunState.RUNNING);
+            return batch;
+        }
+    }
+
+    /**
+     * Ends a run: the in-flight items are dropped unless they should be retried. Producers
+     * and this check agree under the batch's lock, so an item is either seen here or added
+     * after it and scheduled by its producer.
+     *
+     * @return true if new items arrived during the run and need another job.
+     */
+    static boolean finishBatch(Context context, String name, boolean keepForRetry) {
+        synchronized (lock(name)) {
+            if (!keepForRetry) {
+                inflightFile(context, name).delete();
+            }
+            File queue = queueFile(context, name);
+            boolean morePending = queue.exists() && queue.length() > 0;
+            if (keepForRetry || morePending) {
+                // The retry or the caller's follow-up takes everything queued from now on
+                runStates.remove(name);
+            } else {
+                runStates.put(name, RunState.FINISHING);
+            }
+            return morePending;
+        }
+    }
+
+    private static Object lock(String name) {
+        Object lock = locks.get(name);
+        if (lock == null) {
+            Object created = new Object();
+            lock = locks.putIfAbsent(name, created);
+            if (lock == null) {
+                lock = created;
+            }
+        }
+        return lock;
+    }
+
+    private static File queueFile(Context context, String name) {
+        return new File(batchDir(context), name + ".queue");
+    }
+
+    private static File inflightFile(Context context, String name) {
+        return new File(batchDir(context), name + ".inflight");
+    }
+
+    private static File batchDir(Context context) {
+        File dir = new File(context.getFilesDir(), DIR_NAME);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        return dir;
+    }
+
+    private static void checkItem(String item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Batch items must not be null");
+        }
+        if (encodedLength(item) > MAX_ITEM_BYTES) {
+            throw new IllegalArgumentException("Batch item is longer than " + MAX_ITEM_BYTES + " bytes encoded");
+        }
+    }
+
+    /**
+     * Length of the item in the modified UTF-8 written by {@link DataOutputStream#writeUTF},
+     * without the two-byte length prefix.
+     */
+    private static long encodedLength(String item) {
+        long length = 0;
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length++;
+            } else if (c <= 0x07FF) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void append(File file, Collection<String> items) throws IOException {
+        if (repaired.add(file.getPath())) {
+            // First append to this file in this process: cut a torn tail left by a crash
+            read(file);
+        }
+        try (OutputStream fileOut = new FileOutputStream(file, true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            for (String item : items) {
+                out.writeUTF(item);
+            }
+        }
+    }
+
+    /**
+     * Reads every complete item. A record torn by a crash mid-append is cut off the file, so
+     * later appends follow the last good item instead of the garbage.
+     */
+    private static List<String> read(File file) {
+        List<String> items = new ArrayList<>();
+        if (!file.exists()) {
+            return items;
+        }
+        long valid = 0;
+        boolean torn = false;
+        try (InputStream fileIn = new FileInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn))) {
+            while (true) {
+                String item = in.readUTF();
+                items.add(item);
+                valid += 2 + encodedLength(item);
+            }
+        } catch (EOFException | UTFDataFormatException e) {
+            // End of file, or a record torn by a crash mid-append; keep what was complete
+            torn = valid < file.length();
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to read " + file, e);
+        }
+        if (torn) {
+            Log.w(TAG, "Dropping " + (file.length() - valid) + " torn byte(s) at the end of " + file);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to truncate " + file, e);
+            }
+        }
+        return items;
+    }
+}
@@ -9,41 +9,78 @@ import androidx.work.ExistingPeriodicWorkPolicy;
 import androidx.work.ExistingWorkPolicy;
 import androidx.work.ListenableWorker;
 import androidx.work.NetworkType;
-import androidx.work.OneTimeWorkRequest;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkInfo;
 import androidx.work.WorkManager;
 
+import com.rohit.baselibrary.model.Device;
+
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * WorkManagerHandler
  * A wrapper class to simplify scheduling and managing background tasks using Android WorkManager.
+ *
+ * Periodic work is offset by a deterministic per-device jitter ({@link FleetJitter}) so a
+ * fleet that reboots or updates at the same time does not hit the backend in the same minute.
+ * Server hints ({@link #applyServerBackoff}) stretch or delay the schedule.
  */
 public class WorkManagerHandler {
 
+    // WorkManager rejects flex windows shorter than this
+    private static final long MIN_FLEX_MILLIS = PeriodicWorkRequest.MIN_PERIODIC_FLEX_MILLIS;
+
+    // Last periodic spec per unique name, so a server hint can re-enqueue it
+    private static final Map<String, PeriodicSpec> periodicSpecs = new ConcurrentHashMap<>();
+
     private final WorkManager workManager;
+    private final BackoffHints backoffHints;
+    private final String deviceId;
 
     public WorkManagerHandler(Context context) {
         this.workManager = WorkManager.getInstance(context);
+        this.backoffHints = new BackoffHints(context);
+        String id = new Device(context, null).getId();
+        this.deviceId = id != null ? id : "";
     }
 
     /**
-     * Schedule a one-time background task.
+     * Schedule a one-time background task that needs a network connection and replaces any
+     * work with the same name. Use {@link #oneTime(Class, String)} to choose the constraints
+     * and policy.
      *
      * @param workerClass The class extending ListenableWorker to run.
      * @param tag         A unique tag for the work.
      * @param inputData   Key-value pairs to pass to the worker.
      */
     public void scheduleOneTimeWork(Class<? extends ListenableWorker> workerClass, String tag, Data inputData) {
-        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(workerClass)
-                .addTag(tag)
-                .setInputData(inputData)
-                .setConstraints(getDefaultConstraints())
-                .build();
+        oneTime(workerClass, tag)
+                .inputData(inputData)
+                .requiredNetwork(NetworkType.CONNECTED)
+                .policy(ExistingWorkPolicy.REPLACE)
+                .enqueue();
+    }
 
-        workManager.enqueueUniqueWork(tag, ExistingWorkPolicy.REPLACE, request);
+    /**
+     * Starts a one-time request with no constraints and the KEEP policy; configure it and call
+     * {@link OneTimeRequest#enqueue()}.
+     *
+     * @param uniqueName Unique work name, also added as a tag.
+     */
+    public OneTimeRequest oneTime(Class<? extends ListenableWorker> workerClass, String uniqueName) {
+        return new OneTimeRequest(workManager, workerClass, uniqueName);
+    }
+
+    /**
+     * Creates a batcher that merges every item added within the window into one run of the
+     * worker.
+     */
+    public WorkBatcher batcher(Context context, String name, Class<? extends BatchWorker> workerClass,
+                               long window, TimeUnit unit, Constraints constraints) {
+        return new WorkBatcher(context, name, workerClass, window, unit, constraints);
     }
 
     /**
@@ -55,12 +92,86 @@ public class WorkManagerHandler {
      * @param timeUnit       The unit of time for the interval.
      */
     public void schedulePeriodicWork(Class<? extends ListenableWorker> workerClass, String tag, long repeatInterval, TimeUnit timeUnit) {
-        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(workerClass, repeatInterval, timeUnit)
+        schedulePeriodicWork(workerClass, tag, repeatInterval, repeatInterval, timeUnit);
+    }
+
+    /**
+     * Schedule a periodic background task that may run anywhere in the last flexInterval of
+     * each period, letting WorkManager batch it with other work.
+     *
+     * The first run is delayed by a per-device offset within one period (plus any pending
+     * server Retry-After), so runs across the fleet are spread evenly. An existing schedule
+     * with the same name is kept and only updated.
+     *
+     * @param flexInterval Width of the window at the end of each period; clamped to
+     *                     [5 minutes, repeatInterval].
+     */
+    public void schedulePeriodicWork(Class<? extends ListenableWorker> workerClass, String tag,
+                                     long repeatInterval, long flexInterval, TimeUnit timeUnit) {
+        schedulePeriodicWork(workerClass, tag, repeatInterval, flexInterval, timeUnit, getDefaultConstraints());
+    }
+
+    /**
+     * Same as above with explicit constraints, e.g. {@link Constraints#NONE} for local-only work.
+     */
+    public void schedulePeriodicWork(Class<? extends ListenableWorker> workerClass, String tag,
+                                     long repeatInterval, long flexInterval, TimeUnit timeUnit,
+                                     Constraints constraints) {
+        PeriodicSpec spec = new PeriodicSpec(workerClass, timeUnit.toMillis(repeatInterval),
+                timeUnit.toMillis(flexInterval), constraints);
+        periodicSpecs.put(tag, spec);
+        enqueuePeriodic(tag, spec, ExistingPeriodicWorkPolicy.UPDATE);
+    }
+
+    /**
+     * Applies a load-shedding hint from the server to periodic work: the next run waits at
+     * least retryAfter (plus the device's jitter), and later runs are at least minInterval
+     * apart. Hints are persisted and also apply to later schedulePeriodicWork calls.
+     *
+     * @param retryAfterMillis Delay before the next run, e.g. from {@link BackoffHints#parseRetryAfter}; <= 0 for none.
+     * @param minIntervalMillis Minimum period; 0 to keep the requested interval.
+     */
+    public void applyServerBackoff(String tag, long retryAfterMillis, long minIntervalMillis) {
+        if (retryAfterMillis > 0) {
+            backoffHints.setRetryAfter(tag, retryAfterMillis, TimeUnit.MILLISECONDS);
+        }
+        backoffHints.setMinInterval(tag, minIntervalMillis, TimeUnit.MILLISECONDS);
+        PeriodicSpec spec = periodicSpecs.get(tag);
+        if (spec != null) {
+            // The running schedule keeps its old start time on UPDATE, so re-enqueue it
+            enqueuePeriodic(tag, spec, ExistingPeriodicWorkPolicy.CANCEL_AND_REENQUEUE);
+        }
+    }
+
+    /**
+     * Drops the server hints for a periodic task; they stop applying from the next schedule.
+     */
+    public void clearServerBackoff(String tag) {
+        backoffHints.clear(tag);
+    }
+
+    private void enqueuePeriodic(String tag, PeriodicSpec spec, ExistingPeriodicWorkPolicy policy) {
+        long interval = Math.max(Math.max(spec.intervalMillis, PeriodicWorkRequest.MIN_PERIODIC_INTERVAL_MILLIS),
+                backoffHints.getMinIntervalMillis(tag));
+        long flex = Math.max(MIN_FLEX_MILLIS, Math.min(spec.flexMillis, interval));
+        long initialDelay = backoffHints.getRemainingDelayMillis(tag) + FleetJitter.offsetMillis(deviceId, tag, interval);
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(spec.workerClass,
+                interval, TimeUnit.MILLISECONDS, flex, TimeUnit.MILLISECONDS)
                 .addTag(tag)
-                .setConstraints(getDefaultConstraints())
+                .setInitialDelay(initialDelay, TimeUnit.MILLISECONDS)
+                .setConstraints(spec.constraints)
                 .build();
 
-        workManager.enqueueUniquePeriodicWork(tag, ExistingPeriodicWorkPolicy.UPDATE, request);
+        workManager.enqueueUniquePeriodicWork(tag, policy, request);
+    }
+
+    /**
+     * The per-device offset used for a unique work name, e.g. to jitter one-time syncs the
+     * same way.
+     */
+    public long getJitterMillis(String tag, long windowMillis) {
+        return FleetJitter.offsetMillis(deviceId, tag, windowMillis);
     }
 
     /**
@@ -106,4 +217,19 @@ public class WorkManagerHandler {
                 .setRequiredNetworkType(NetworkType.CONNECTED)
                 .build();
     }
+
+    private static final class PeriodicSpec {
+        final Class<? extends ListenableWorker> workerClass;
+        final long intervalMillis;
+        final long flexMillis;
+        final Constraints constraints;
+
+        PeriodicSpec(Class<? extends ListenableWorker> workerClass, long intervalMillis, long flexMillis,
+                     Constraints constraints) {
+            this.workerClass = workerClass;
+            this.intervalMillis = intervalMillis;
+            this.flexMillis = flexMillis;
+            this.constraints = constraints;
+        }
+    }
 }
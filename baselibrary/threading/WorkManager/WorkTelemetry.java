@@ -0,0 +1,282 @@
+package com.rohit.baselibrary.threading;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.work.Data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * WorkTelemetry
+ * Rolling per-tag record of worker runs: start delay, run time, result and attempt number.
+ *
+ * Each tag has a fixed-size ring file of {@link #CAPACITY} records of {@link #RECORD_SIZE}
+ * bytes, so the store never grows and a write is one small positioned write. Records survive
+ * process death, which matters because WorkManager often starts a fresh process to run work.
+ * Every record carries a CRC, so a record torn by a crash is skipped when reading.
+ *
+ * Runs are recorded by {@link TrackedWorker}; other workers can call
+ * {@link #record(Context, String, long, long, Outcome, int)} themselves.
+ */
+public class WorkTelemetry {
+
+    private static final String TAG = "WorkTelemetry";
+    private static final String DIR_NAME = "work_telemetry";
+
+    // Input data stamped at enqueue time so the worker can measure its start delay
+    public static final String KEY_ENQUEUED_AT = "work_telemetry_enqueued_at";
+    public static final String KEY_INITIAL_DELAY = "work_telemetry_initial_delay";
+    // Overrides the tag a run is recorded under (defaults to the unique work name)
+    public static final String KEY_TAG = "work_telemetry_tag";
+
+    public static final int CAPACITY = 256;
+    // "WTL2": records carry a CRC. Files of the earlier format read as empty and start over
+    private static final int MAGIC = 0x57544c32;
+    private static final int HEADER_SIZE = 4 + 8;
+    // long startedAt, int startDelayMs, int runMs, byte outcome, short attempt, then int crc
+    private static final int PAYLOAD_SIZE = 8 + 4 + 4 + 1 + 2;
+    static final int RECORD_SIZE = PAYLOAD_SIZE + 4;
+
+    private static final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<>();
+
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        RETRY,
+        CANCELLED
+    }
+
+    private WorkTelemetry() {
+        // Static helpers only
+    }
+
+    /**
+     * Adds input data that lets a {@link TrackedWorker} measure how long it waited to start
+     * and record the run under the given tag (unless the data already names one).
+     */
+    public static Data stampEnqueue(Data inputData, long initialDelayMillis, String tag) {
+        Data.Builder builder = new Data.Builder()
+                .putAll(inputData)
+                .putLong(KEY_ENQUEUED_AT, System.currentTimeMillis())
+                .putLong(KEY_INITIAL_DELAY, initialDelayMillis);
+        if (inputData.getString(KEY_TAG) == null) {
+            builder.putString(KEY_TAG, tag);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Appends one run, overwriting the oldest once the ring is full.
+     *
+     * @param startDelayMillis Time from when the job could first run to when it started, -1 if unknown.
+     * @param attempt          Run attempt count (0 for the first run).
+     */
+    public static void record(Context context, String tag, long startDelayMillis, long runMillis,
+                              Outcome outcome, int attempt) {
+        File file = file(context, tag);
+        synchronized (lock(tag)) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                long written = 0;
+                if (raf.length() >= HEADER_SIZE && raf.readInt() == MAGIC) {
+                    written = raf.readLong();
+                }
+                ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+                record.putLong(System.currentTimeMillis());
+                record.putInt(clampToInt(startDelayMillis));
+                record.putInt(clampToInt(runMillis));
+                record.put((byte) outcome.ordinal());
+                record.putShort((short) Math.min(attempt, Short.MAX_VALUE));
+                record.putInt(crc(record.array()));
+                raf.seek(HEADER_SIZE + (written % CAPACITY) * RECORD_SIZE);
+                raf.write(record.array());
+                // Header last. Once the ring is full the slot being overwritten is still counted,
+                // so a crash mid-record leaves a torn record there; its CRC no longer matches
+                raf.seek(0);
+                raf.writeInt(MAGIC);
+                raf.writeLong(written + 1);
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to record run for " + tag, e);
+            }
+        }
+    }
+
+    /**
+     * Reads the retained runs of a tag (at most {@link #CAPACITY}).
+     */
+    public static Stats getStats(Context context, String tag) {
+        File file = file(context, tag);
+        synchronized (lock(tag)) {
+            if (!file.exists()) {
+                return new Stats(tag, new byte[0], 0);
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC) {
+                    return new Stats(tag, new byte[0], 0);
+                }
+                int count = (int) Math.min(raf.readLong(), CAPACITY);
+                byte[] records = new byte[count * RECORD_SIZE];
+                raf.readFully(records);
+                return new Stats(tag, records, count);
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to read runs for " + tag, e);
+                return new Stats(tag, new byte[0], 0);
+            }
+        }
+    }
+
+    public static void clear(Context context, String tag) {
+        synchronized (lock(tag)) {
+            file(context, tag).delete();
+        }
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, PAYLOAD_SIZE);
+        return (int) crc.getValue();
+    }
+
+    private static int clampToInt(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    private static Object lock(String tag) {
+        Object lock = locks.get(tag);
+        if (lock == null) {
+            Object created = new Object();
+            lock = locks.putIfAbsent(tag, created);
+            if (lock == null) {
+                lock = created;
+            }
+        }
+        return lock;
+    }
+
+    private static File file(Context context, String tag) {
+        File dir = new File(context.getFilesDir(), DIR_NAME);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        // Tags are free text; keep the file name safe
+        return new File(dir, tag.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin");
+    }
+
+    /**
+     * Summary of the retained runs of one tag. Percentiles use the nearest-rank method and
+     * return -1 when there is no data. Torn records are left out.
+     */
+    public static final class Stats {
+        private final String tag;
+        private final int count;
+        private final long[] startDelays;
+        private final long[] runTimes;
+        private final int[] outcomes = new int[Outcome.values().length];
+        private int maxAttempt;
+        private long lastRunAt;
+
+        Stats(String tag, byte[] records, int stored) {
+            this.tag = tag;
+            long[] delays = new long[stored];
+            int delayCount = 0;
+            long[] runs = new long[stored];
+            int valid = 0;
+            byte[] record = new byte[RECORD_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            for (int i = 0; i < stored; i++) {
+                System.arraycopy(records, i * RECORD_SIZE, record, 0, RECORD_SIZE);
+                buffer.clear();
+                long startedAt = buffer.getLong();
+                int delay = buffer.getInt();
+                int runTime = buffer.getInt();
+                int outcome = buffer.get();
+                int attempt = buffer.getShort();
+                if (buffer.getInt() != crc(record)) {
+                    continue;
+                }
+                runs[valid++] = runTime;
+                if (delay >= 0) {
+                    delays[delayCount++] = delay;
+                }
+                if (outcome >= 0 && outcome < outcomes.length) {
+                    outcomes[outcome]++;
+                }
+                maxAttempt = Math.max(maxAttempt, attempt);
+                lastRunAt = Math.max(lastRunAt, startedAt);
+            }
+            count = valid;
+            int skipped = stored - valid;
+            if (skipped > 0) {
+                Log.w(TAG, "Skipped " + skipped + " torn record(s) for " + tag);
+            }
+            runTimes = Arrays.copyOf(runs, valid);
+            startDelays = Arrays.copyOf(delays, delayCount);
+            Arrays.sort(startDelays);
+            Arrays.sort(runTimes);
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getCount(Outcome outcome) {
+            return outcomes[outcome.ordinal()];
+        }
+
+        /**
+         * Highest attempt number seen (0 if no run was a retry).
+         */
+        public int getMaxAttempt() {
+            return maxAttempt;
+        }
+
+        /**
+         * Wall-clock time of the most recent recorded run, 0 if none.
+         */
+        public long getLastRunAt() {
+            return lastRunAt;
+        }
+
+        /**
+         * @param percentile 0..100, e.g. 50, 95, 99.
+         */
+        public long getRunTimePercentile(double percentile) {
+            return percentile(runTimes, percentile);
+        }
+
+        /**
+         * Start delay percentile, over first attempts whose enqueue time is known.
+         */
+        public long getStartDelayPercentile(double percentile) {
+            return percentile(startDelays, percentile);
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return -1;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return tag + ": runs=" + count
+                    + " ok=" + getCount(Outcome.SUCCESS)
+                    + " failed=" + getCount(Outcome.FAILURE)
+                    + " retry=" + getCount(Outcome.RETRY)
+                    + " run p50/p95=" + getRunTimePercentile(50) + "/" + getRunTimePercentile(95) + "ms"
+                    + " startDelay p50/p95=" + getStartDelayPercentile(50) + "/" + getStartDelayPercentile(95) + "ms";
+        }
+    }
+}
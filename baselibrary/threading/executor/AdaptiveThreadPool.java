@@ -0,0 +1,286 @@
+package com.rohit.baselibrary.threading.executor;
+
+import android.util.Log;
+
+import com.rohit.baselibrary.metrics.Histogram;
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+import com.rohit.baselibrary.metrics.StripedLong;
+import com.rohit.baselibrary.tracing.Tracer;
+
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AdaptiveThreadPool
+ * A ThreadPoolExecutor that resizes itself between a lower and upper bound based on observed
+ * queue latency and throughput.
+ *
+ * Every tuning round uses Little's law (threads needed = arrival rate x service time) as the
+ * target, then hill-climbs: a grow step that did not raise throughput is rolled back so
+ * CPU-bound work does not get more threads than it can use.
+ *
+ * Tuning piggybacks on execute() once per interval, so an idle pool never wakes the device;
+ * idle threads above the current size simply time out.
+ *
+ * Queue wait and run time of every task are also recorded in the executor.&lt;name&gt;.*
+ * histograms of the {@link MetricsRegistry}.
+ */
+public class AdaptiveThreadPool extends ThreadPoolExecutor {
+
+    private static final String TAG = "AdaptiveThreadPool";
+
+    // Queue wait above this means the pool is too small
+    private static final long QUEUE_WAIT_TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    // A grow step must raise throughput by this fraction to be kept
+    private static final double MIN_GAIN = 0.05;
+    // Extra capacity over the Little's law estimate
+    private static final double HEADROOM = 1.25;
+    // Rounds to hold off growing after a rolled-back step
+    private static final int GROW_COOLDOWN_ROUNDS = 5;
+
+    private final int minThreads;
+    private final int maxThreads;
+    private final long tuningIntervalNanos;
+    private final ReentrantLock tuneLock = new ReentrantLock();
+
+    private final StripedLong submitted = StripedLong.create();
+    private final StripedLong completed = StripedLong.create();
+    private final StripedLong queueWaitNanos = StripedLong.create();
+    private final StripedLong serviceNanos = StripedLong.create();
+    private final Histogram queueWaitUs;
+    private final Histogram runUs;
+    private final String traceName;
+
+    // Tuning state, guarded by tuneLock
+    private volatile long lastSampleNanos = System.nanoTime();
+    private long lastSubmitted;
+    private long lastCompleted;
+    private long lastQueueWait;
+    private long lastService;
+    private double lastThroughput;
+    private boolean lastStepWasGrow;
+    private int growCooldown;
+
+    public AdaptiveThreadPool(String name, int minThreads, int maxThreads, long tuningInterval, TimeUnit unit) {
+        super(minThreads, minThreads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory(name));
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("Invalid bounds: " + minThreads + ".." + maxThreads);
+        }
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.tuningIntervalNanos = unit.toNanos(tuningInterval);
+        this.queueWaitUs = MetricsRegistry.histogram(MetricNames.executor(name, MetricNames.EXECUTOR_QUEUE_WAIT_US));
+        this.runUs = MetricsRegistry.histogram(MetricNames.executor(name, MetricNames.EXECUTOR_RUN_US));
+        this.traceName = "executor." + name;
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) throw new NullPointerException();
+        TimedRunnable timed = new TimedRunnable(command);
+        super.execute(timed);
+        // Only accepted tasks count as arrivals; a rejected one has thrown by now
+        submitted.increment();
+        if (timed.enqueueNanos - lastSampleNanos >= tuningIntervalNanos && tuneLock.tryLock()) {
+            try {
+                tuneLocked();
+            } finally {
+                tuneLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if (r instanceof TimedRunnable) {
+            TimedRunnable timed = (TimedRunnable) r;
+            timed.startNanos = System.nanoTime();
+            long waitNanos = timed.startNanos - timed.enqueueNanos;
+            queueWaitNanos.add(waitNanos);
+            queueWaitUs.record(waitNanos / 1000L);
+            // afterExecute() ends the span only if one was begun, even if tracing was toggled
+            timed.traced = Tracer.isEnabled();
+            if (timed.traced) {
+                Tracer.begin(traceName);
+            }
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if (r instanceof TimedRunnable) {
+            if (((TimedRunnable) r).traced) {
+                Tracer.end();
+            }
+            long runNanos = System.nanoTime() - ((TimedRunnable) r).startNanos;
+            serviceNanos.add(runNanos);
+            runUs.record(runNanos / 1000L);
+            completed.increment();
+        }
+    }
+
+    /**
+     * Samples the counters since the previous call and resizes the pool if needed.
+     *
+     * @return The pool size after this round.
+     */
+    public int tune() {
+        tuneLock.lock();
+        try {
+            return tuneLocked();
+        } finally {
+            tuneLock.unlock();
+        }
+    }
+
+    private int tuneLocked() {
+        long now = System.nanoTime();
+        long elapsed = Math.max(1L, now - lastSampleNanos);
+
+        long submittedNow = submitted.sum();
+        long completedNow = completed.sum();
+        long queueWaitNow = queueWaitNanos.sum();
+        long serviceNow = serviceNanos.sum();
+
+        long arrivals = submittedNow - lastSubmitted;
+        long done = completedNow - lastCompleted;
+        long waitDelta = queueWaitNow - lastQueueWait;
+        long serviceDelta = serviceNow - lastService;
+
+        lastSampleNanos = now;
+        lastSubmitted = submittedNow;
+        lastCompleted = completedNow;
+        lastQueueWait = queueWaitNow;
+        lastService = serviceNow;
+
+        int current = getCorePoolSize();
+        if (done == 0) {
+            // Idle round: drift back towards the floor
+            if (arrivals == 0 && getQueue().isEmpty() && current > minThreads) {
+                return resize(current, current - 1, "idle");
+            }
+            return current;
+        }
+
+        double seconds = elapsed / 1e9;
+        double throughput = done / seconds;
+        double arrivalRate = arrivals / seconds;
+        double avgServiceSec = (serviceDelta / (double) done) / 1e9;
+        long avgWaitNanos = waitDelta / done;
+
+        int littleTarget = (int) Math.ceil(arrivalRate * avgServiceSec * HEADROOM);
+        int target = clamp(littleTarget);
+
+        // Hill-climbing guard: undo a grow step that bought no throughput (CPU-bound work)
+        if (lastStepWasGrow && throughput < lastThroughput * (1 + MIN_GAIN)) {
+            lastThroughput = throughput;
+            growCooldown = GROW_COOLDOWN_ROUNDS;
+            return resize(current, current - 1,
+                    String.format(Locale.US, "no gain after grow (%.1f tasks/s)", throughput));
+        }
+        lastThroughput = throughput;
+
+        if (growCooldown > 0) {
+            growCooldown--;
+            target = Math.min(target, current);
+        } else if (avgWaitNanos > QUEUE_WAIT_TARGET_NANOS && target <= current) {
+            // Queue is backing up even though Little's law says we're big enough: probe one step
+            target = clamp(current + 1);
+        } else if (avgWaitNanos <= QUEUE_WAIT_TARGET_NANOS && target > current) {
+            // Latency is fine, no need to grow
+            target = current;
+        } else if (target < current) {
+            // Shrink one step at a time so a short lull does not collapse the pool
+            target = current - 1;
+        }
+
+        if (target == current) {
+            lastStepWasGrow = false;
+            return current;
+        }
+        return resize(current, target, String.format(Locale.US,
+                "arrivals=%.1f/s service=%.1fms wait=%.1fms littleTarget=%d",
+                arrivalRate, avgServiceSec * 1e3, avgWaitNanos / 1e6, littleTarget));
+    }
+
+    private int resize(int from, int to, String reason) {
+        to = clamp(to);
+        if (to == from) {
+            lastStepWasGrow = false;
+            return from;
+        }
+        if (to > from) {
+            setMaximumPoolSize(to);
+            setCorePoolSize(to);
+        } else {
+            setCorePoolSize(to);
+            setMaximumPoolSize(to);
+        }
+        lastStepWasGrow = to > from;
+        Log.i(TAG, "Resized " + from + " -> " + to + " threads: " + reason);
+        return to;
+    }
+
+    private int clamp(int size) {
+        return Math.max(minThreads, Math.min(maxThreads, size));
+    }
+
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Average queue wait in milliseconds over the pool's lifetime.
+     */
+    public double getAverageQueueWaitMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : queueWaitNanos.sum() / (double) count / 1e6;
+    }
+
+    /**
+     * Records when a task was queued and when it started running.
+     */
+    private static final class TimedRunnable implements Runnable {
+        final Runnable delegate;
+        final long enqueueNanos = System.nanoTime();
+        long startNanos;
+        boolean traced;
+
+        TimedRunnable(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(r, prefix + "-" + counter.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.rohit.baselibrary.threading.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * ExecutorProvider
+ * Source of the executors handed out by {@link ExecutorServiceWrapper}.
+ * Swap the active provider to run executor based code on virtual time in unit tests.
+ */
+public interface ExecutorProvider {
+
+    /**
+     * Executor for intensive background tasks.
+     */
+    ExecutorService io();
+
+    /**
+     * Executor for short-lived asynchronous tasks (e.g., Network).
+     */
+    ExecutorService network();
+
+    /**
+     * Executor for sequential background tasks.
+     */
+    ExecutorService single();
+
+    /**
+     * Executor for delayed and periodic tasks (retry backoff, flush windows, polling).
+     */
+    ScheduledExecutorService scheduled();
+
+    /**
+     * Executor posting to the Android Main (UI) thread.
+     */
+    Executor main();
+}
@@ -3,96 +3,204 @@ package com.rohit.baselibrary.threading.executor;
 import android.os.Handler;
 import android.os.Looper;
 
+import com.rohit.baselibrary.metrics.MetricNames;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ExecutorServiceWrapper
  * A wrapper class over Java's ExecutorService API to manage background threads efficiently.
+ * Executors come from the active {@link ExecutorProvider}; tests can swap it for a virtual-time one.
  */
 public class ExecutorServiceWrapper {
 
-    private static final int NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
-    
-    // Fixed thread pool for intensive background tasks
-    private static final ExecutorService ioExecutor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
-    
-    // Cached thread pool for short-lived asynchronous tasks (e.g., Network)
-    private static final ExecutorService networkExecutor = Executors.newCachedThreadPool();
-    
-    // Single thread executor for sequential background tasks
-    private static final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
-    
-    // Main thread executor to post results back to UI
-    private static final Executor mainThreadExecutor = new MainThreadExecutor();
+    private static volatile ExecutorProvider provider = DefaultExecutorProvider.INSTANCE;
 
     private ExecutorServiceWrapper() {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * Replaces the provider used by every static method (e.g. a virtual-time provider in tests).
+     */
+    public static void setProvider(ExecutorProvider newProvider) {
+        provider = newProvider != null ? newProvider : DefaultExecutorProvider.INSTANCE;
+    }
+
+    /**
+     * Restores the production thread pools.
+     */
+    public static void resetProvider() {
+        provider = DefaultExecutorProvider.INSTANCE;
+    }
+
+    public static ExecutorProvider getProvider() {
+        return provider;
+    }
+
     /**
      * Runs a task on a fixed background thread pool.
      */
     public static void runOnIO(Runnable runnable) {
-        ioExecutor.execute(runnable);
+        provider.io().execute(runnable);
     }
 
     /**
      * Runs a task on a cached background thread pool (best for network).
      */
     public static void runOnNetwork(Runnable runnable) {
-        networkExecutor.execute(runnable);
+        provider.network().execute(runnable);
     }
 
     /**
      * Runs a task on a single background thread sequentially.
      */
     public static void runOnSingleThread(Runnable runnable) {
-        singleThreadExecutor.execute(runnable);
+        provider.single().execute(runnable);
     }
 
     /**
      * Runs a task on the Android Main (UI) thread.
      */
     public static void runOnMain(Runnable runnable) {
-        mainThreadExecutor.execute(runnable);
+        provider.main().execute(runnable);
+    }
+
+    /**
+     * Runs a task once after the given delay (e.g. retry backoff).
+     */
+    public static ScheduledFuture<?> runDelayed(Runnable runnable, long delay, TimeUnit unit) {
+        return provider.scheduled().schedule(runnable, delay, unit);
+    }
+
+    /**
+     * Runs a task repeatedly at a fixed rate (e.g. periodic polling).
+     */
+    public static ScheduledFuture<?> runPeriodically(Runnable runnable, long initialDelay, long period, TimeUnit unit) {
+        return provider.scheduled().scheduleAtFixedRate(runnable, initialDelay, period, unit);
     }
 
     public static ExecutorService getIoExecutor() {
-        return ioExecutor;
+        return provider.io();
     }
 
     public static ExecutorService getNetworkExecutor() {
-        return networkExecutor;
+        return provider.network();
     }
 
     public static ExecutorService getSingleThreadExecutor() {
-        return singleThreadExecutor;
+        return provider.single();
+    }
+
+    public static ScheduledExecutorService getScheduledExecutor() {
+        return provider.scheduled();
     }
 
     public static Executor getMainThreadExecutor() {
-        return mainThreadExecutor;
+        return provider.main();
     }
 
     /**
      * Shuts down all executors.
      */
     public static void shutdownAll() {
-        ioExecutor.shutdown();
-        networkExecutor.shutdown();
-        singleThreadExecutor.shutdown();
+        ExecutorProvider current = provider;
+        current.io().shutdown();
+        current.network().shutdown();
+        current.single().shutdown();
+        current.scheduled().shutdown();
+    }
+
+    /**
+     * Production provider backed by real thread pools.
+     */
+    private static final class DefaultExecutorProvider implements ExecutorProvider {
+        private static final int NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+        // Upper bound for the IO lane when its work turns out to be blocking
+        private static final int MAX_IO_THREADS = Math.max(8, NUMBER_OF_THREADS * 4);
+
+        static final DefaultExecutorProvider INSTANCE = new DefaultExecutorProvider();
+
+        // Adaptive thread pool for intensive background tasks, starts at one thread per core
+        private final AdaptiveThreadPool ioExecutor =
+                new AdaptiveThreadPool("io", NUMBER_OF_THREADS, MAX_IO_THREADS, 2, TimeUnit.SECONDS);
+
+        // Cached thread pool for short-lived asynchronous tasks (e.g., Network)
+        private final ExecutorService networkExecutor = Executors.newCachedThreadPool();
+
+        // Single thread executor for sequential background tasks
+        private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+
+        // Single thread timer for delayed and periodic tasks
+        private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+
+        // Main thread executor to post results back to UI
+        private final Executor mainThreadExecutor = new MainThreadExecutor();
+
+        private DefaultExecutorProvider() {
+            registerGauges("io", ioExecutor);
+            registerGauges("network", networkExecutor);
+        }
+
+        // Pool size, queue length and busy threads, sampled only when metrics are exported
+        private static void registerGauges(String name, ExecutorService executor) {
+            if (!(executor instanceof ThreadPoolExecutor)) {
+                return;
+            }
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            MetricsRegistry.gauge(MetricNames.executor(name, MetricNames.EXECUTOR_POOL_SIZE), pool::getPoolSize);
+            MetricsRegistry.gauge(MetricNames.executor(name, MetricNames.EXECUTOR_QUEUE_LENGTH), () -> pool.getQueue().size());
+            MetricsRegistry.gauge(MetricNames.executor(name, MetricNames.EXECUTOR_ACTIVE), pool::getActiveCount);
+        }
+
+        @Override
+        public ExecutorService io() {
+            return ioExecutor;
+        }
+
+        @Override
+        public ExecutorService network() {
+            return networkExecutor;
+        }
+
+        @Override
+        public ExecutorService single() {
+            return singleThreadExecutor;
+        }
+
+        @Override
+        public ScheduledExecutorService scheduled() {
+            return scheduledExecutor;
+        }
+
+        @Override
+        public Executor main() {
+            return mainThreadExecutor;
+        }
     }
 
     /**
      * Inner class to handle Main Thread execution using Handler.
      */
     private static class MainThreadExecutor implements Executor {
-        private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+        private volatile Handler mainThreadHandler;
 
         @Override
         public void execute(Runnable command) {
-            mainThreadHandler.post(command);
+            Handler handler = mainThreadHandler;
+            if (handler == null) {
+                handler = new Handler(Looper.getMainLooper());
+                mainThreadHandler = handler;
+            }
+            handler.post(command);
         }
     }
 }
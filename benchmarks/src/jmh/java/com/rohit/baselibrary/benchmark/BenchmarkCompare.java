@@ -0,0 +1,130 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (e.g. results/&lt;base&gt;.json and results/&lt;head&gt;.json).
+ *
+ * <pre>
+ * BenchmarkCompare base.json head.json [thresholdPercent]
+ * </pre>
+ * Prints score and allocation per op side by side and exits with status 1 if any benchmark
+ * got worse by more than the threshold (default 10%). Throughput is better when higher,
+ * every time-based mode when lower. Benchmarks present in only one file are listed but
+ * never fail the comparison.
+ */
+public final class BenchmarkCompare {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkCompare <base.json> <head.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Result> base = read(args[0]);
+        Map<String, Result> head = read(args[1]);
+
+        Map<String, Boolean> keys = new TreeMap<>();
+        for (String key : base.keySet()) {
+            keys.put(key, true);
+        }
+        for (String key : head.keySet()) {
+            keys.put(key, true);
+        }
+
+        int regressions = 0;
+        System.out.println(String.format(Locale.US, "%-90s %14s %14s %9s %12s %12s",
+                "benchmark", "base", "head", "change", "B/op base", "B/op head"));
+        for (String key : keys.keySet()) {
+            Result before = base.get(key);
+            Result after = head.get(key);
+            if (before == null || after == null) {
+                System.out.println(String.format(Locale.US, "%-90s %s", key, before == null ? "(new)" : "(removed)"));
+                continue;
+            }
+            // Positive change = better
+            double change = (after.score - before.score) / before.score * 100.0;
+            if (!after.higherIsBetter) {
+                change = -change;
+            }
+            boolean regressed = change < -threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format(Locale.US, "%-90s %14.4g %14.4g %+8.1f%% %12s %12s%s",
+                    key, before.score, after.score, change,
+                    formatAlloc(before.allocBytesPerOp), formatAlloc(after.allocBytesPerOp),
+                    regressed ? "  REGRESSION" : ""));
+        }
+        System.out.println(regressions + " regression(s) beyond " + threshold + "%");
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static String formatAlloc(double bytes) {
+        return Double.isNaN(bytes) ? "-" : String.format(Locale.US, "%.1f", bytes);
+    }
+
+    /**
+     * One row per benchmark, mode and parameter set.
+     */
+    private static Map<String, Result> read(String path) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            JsonArray runs = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : runs) {
+                JsonObject run = element.getAsJsonObject();
+                String mode = run.get("mode").getAsString();
+                StringBuilder key = new StringBuilder(run.get("benchmark").getAsString()
+                        .replace("com.rohit.baselibrary.benchmark.", ""));
+                key.append(" [").append(mode).append(']');
+                if (run.has("params")) {
+                    Map<String, String> params = new TreeMap<>();
+                    for (Map.Entry<String, JsonElement> param : run.getAsJsonObject("params").entrySet()) {
+                        params.put(param.getKey(), param.getValue().getAsString());
+                    }
+                    for (Map.Entry<String, String> param : params.entrySet()) {
+                        key.append(' ').append(param.getKey()).append('=').append(param.getValue());
+                    }
+                }
+                JsonObject primary = run.getAsJsonObject("primaryMetric");
+                double alloc = Double.NaN;
+                JsonObject secondary = run.getAsJsonObject("secondaryMetrics");
+                if (secondary != null && secondary.has(ALLOC_METRIC)) {
+                    alloc = secondary.getAsJsonObject(ALLOC_METRIC).get("score").getAsDouble();
+                }
+                results.put(key.toString(), new Result(primary.get("score").getAsDouble(), "thrpt".equals(mode), alloc));
+            }
+        }
+        return results;
+    }
+
+    private static final class Result {
+        final double score;
+        final boolean higherIsBetter;
+        final double allocBytesPerOp;
+
+        Result(double score, boolean higherIsBetter, double allocBytesPerOp) {
+            this.score = score;
+            this.higherIsBetter = higherIsBetter;
+            this.allocBytesPerOp = allocBytesPerOp;
+        }
+    }
+}
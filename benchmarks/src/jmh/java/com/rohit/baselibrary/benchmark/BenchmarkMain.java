@@ -0,0 +1,64 @@
+package com.rohit.baselibrary.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs the suite with the GC profiler (allocation per op) and writes JSON results to
+ * results/&lt;label&gt;.json, where label is -Dbench.label or the current git commit.
+ * Any JMH command-line option can be passed through, e.g. a benchmark regex or -f 3.
+ *
+ * Compare two result files with {@link BenchmarkCompare}.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        File dir = new File("results");
+        dir.mkdirs();
+        File result = new File(dir, label() + ".json");
+
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.getPath())
+                .build())
+                .run();
+        System.out.println("Results written to " + result.getPath());
+    }
+
+    private static String label() {
+        String label = System.getProperty("bench.label");
+        if (label != null && !label.isEmpty()) {
+            return label;
+        }
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                if (git.waitFor() == 0 && line != null && !line.isEmpty()) {
+                    return line.trim();
+                }
+            }
+        } catch (IOException e) {
+            // Not a git checkout; fall through
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local-" + System.currentTimeMillis();
+    }
+}
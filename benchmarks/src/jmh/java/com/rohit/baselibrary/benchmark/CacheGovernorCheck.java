@@ -0,0 +1,191 @@
+package com.rohit.baselibrary.benchmark;
+
+import android.content.ComponentCallbacks2;
+
+import com.rohit.baselibrary.config.app.Blocklist;
+import com.rohit.baselibrary.config.app.ConfigWrapperStore;
+import com.rohit.baselibrary.memory.CacheGovernor;
+import com.rohit.baselibrary.memory.MemoryPressure;
+import com.rohit.baselibrary.memory.SimulatedPressureSource;
+import com.rohit.baselibrary.memory.TrimEvent;
+import com.rohit.baselibrary.memory.TrimmableCache;
+import com.rohit.baselibrary.tracing.Tracer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives {@link CacheGovernor} with a {@link SimulatedPressureSource} on a plain JVM and
+ * exits with status 1 if a trim does not follow the policy: the share kept per pressure and
+ * priority, budget trims in priority order, the onTrimMemory() level mapping, and the
+ * blocklist lookups of a real {@link ConfigWrapperStore.Snapshot} being released and rebuilt,
+ * and the {@link Tracer} rings being dropped.
+ */
+public final class CacheGovernorCheck {
+
+    private static int failures;
+
+    private CacheGovernorCheck() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        checkPressure(MemoryPressure.LOW, 500, 1000, 1000);
+        checkPressure(MemoryPressure.MODERATE, 0, 500, 1000);
+        checkPressure(MemoryPressure.CRITICAL, 0, 0, 500);
+        checkBudget();
+        checkTrimLevels();
+        checkSnapshotLookups();
+        checkTraceRings();
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        System.exit(failures > 0 ? 1 : 0);
+    }
+
+    private static void checkPressure(MemoryPressure pressure, long low, long normal, long high) {
+        CacheGovernor governor = new CacheGovernor();
+        SimulatedPressureSource source = new SimulatedPressureSource();
+        source.attach(governor);
+        FakeCache lowCache = new FakeCache(1000);
+        FakeCache normalCache = new FakeCache(1000);
+        FakeCache highCache = new FakeCache(1000);
+        governor.register("low", CacheGovernor.Priority.LOW, lowCache);
+        governor.register("normal", CacheGovernor.Priority.NORMAL, normalCache);
+        governor.register("high", CacheGovernor.Priority.HIGH, highCache);
+
+        TrimEvent event = source.signal(pressure);
+        System.out.println(event);
+        expect(pressure + " low", low, lowCache.size);
+        expect(pressure + " normal", normal, normalCache.size);
+        expect(pressure + " high", high, highCache.size);
+        expect(pressure + " freed", 3000 - low - normal - high, event.getFreedBytes());
+    }
+
+    private static void checkBudget() {
+        CacheGovernor governor = new CacheGovernor();
+        List<TrimEvent> events = new ArrayList<>();
+        governor.addListener(events::add);
+        FakeCache lowSmall = new FakeCache(400);
+        FakeCache lowLarge = new FakeCache(800);
+        FakeCache normal = new FakeCache(2000);
+        FakeCache high = new FakeCache(4000);
+        governor.register("low.small", CacheGovernor.Priority.LOW, lowSmall);
+        governor.register("low.large", CacheGovernor.Priority.LOW, lowLarge);
+        governor.register("normal", CacheGovernor.Priority.NORMAL, normal);
+        governor.register("high", CacheGovernor.Priority.HIGH, high);
+
+        // 7200 bytes against 6000: both LOW caches go, the larger one first...
+        governor.setBudgetBytes(6000);
+        // ...so the next 1200 come out of NORMAL while HIGH stays whole
+        governor.setBudgetBytes(4800);
+        for (TrimEvent event : events) {
+            System.out.println(event);
+        }
+        expect("budget events", 2, events.size());
+        expect("budget low.large", 0L, lowLarge.size);
+        expect("budget low.small", 0L, lowSmall.size);
+        expect("budget normal", 800L, normal.size);
+        expect("budget high", 4000L, high.size);
+        expect("budget total", 4800L, governor.totalBytes());
+        expect("budget within", null, governor.checkBudget());
+    }
+
+    private static void checkTrimLevels() {
+        int[] levels = {
+                ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE, ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW,
+                ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL, ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN,
+                ComponentCallbacks2.TRIM_MEMORY_BACKGROUND, ComponentCallbacks2.TRIM_MEMORY_MODERATE,
+                ComponentCallbacks2.TRIM_MEMORY_COMPLETE,
+        };
+        MemoryPressure[] expected = {
+                MemoryPressure.LOW, MemoryPressure.MODERATE, MemoryPressure.CRITICAL, MemoryPressure.LOW,
+                MemoryPressure.LOW, MemoryPressure.MODERATE, MemoryPressure.CRITICAL,
+        };
+        for (int i = 0; i < levels.length; i++) {
+            expect("trim level " + levels[i], expected[i], MemoryPressure.fromTrimLevel(levels[i]));
+        }
+        expect("trim level 0", null, MemoryPressure.fromTrimLevel(0));
+    }
+
+    private static void checkSnapshotLookups() throws IOException {
+        File dir = BenchmarkFiles.createTempDir("governor");
+        try {
+            ConfigWrapperStore store = new ConfigWrapperStore(new File(dir, "config_wrapper.bin"));
+            store.save(ConfigFixtures.configWrapper("1", 1000));
+            String present = ConfigFixtures.deviceId(Blocklist.GPS, 500);
+            try (ConfigWrapperStore.Snapshot snapshot = store.load()) {
+                CacheGovernor governor = CacheGovernor.getInstance();
+                long empty = governor.totalBytes();
+                expect("lookup hit", true, snapshot.isBlocked(Blocklist.GPS, present));
+                long built = governor.totalBytes() - empty;
+                System.out.println("Blocklist lookups: " + built + " bytes");
+                expect("lookups registered", true, built > 0);
+
+                SimulatedPressureSource source = new SimulatedPressureSource();
+                source.attach(governor);
+                System.out.println(source.signalTrimLevel(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN));
+                expect("lookups released", empty, governor.totalBytes());
+                expect("lookup after trim", true, snapshot.isBlocked(Blocklist.GPS, present));
+                expect("lookup miss after trim", false, snapshot.isBlocked(Blocklist.GPS, "device-gps-unknown"));
+            }
+        } finally {
+            BenchmarkFiles.deleteRecursively(dir);
+        }
+    }
+
+    private static void checkTraceRings() throws InterruptedException {
+        CacheGovernor governor = CacheGovernor.getInstance();
+        long before = governor.totalBytes();
+        Tracer.setEnabled(true);
+        try {
+            for (int i = 0; i < 4; i++) {
+                Thread thread = new Thread(() -> Tracer.instant("worker"));
+                thread.start();
+                thread.join();
+            }
+            Tracer.instant("main");
+            long rings = governor.totalBytes() - before;
+            System.out.println("Trace rings: " + rings + " bytes");
+            expect("rings registered", 5 * 2048 * 40L, rings);
+
+            SimulatedPressureSource source = new SimulatedPressureSource();
+            source.attach(governor);
+            // LOW keeps half: three of the four dead rings go, the main thread's ring stays
+            TrimEvent low = source.signal(MemoryPressure.LOW);
+            System.out.println(low);
+            expect("dead rings dropped first", 3 * 2048 * 40L, low.getFreedByCache().get("trace.rings"));
+            TrimEvent moderate = source.signal(MemoryPressure.MODERATE);
+            System.out.println(moderate);
+            expect("rings released", 2 * 2048 * 40L, moderate.getFreedByCache().get("trace.rings"));
+        } finally {
+            Tracer.setEnabled(false);
+            Tracer.clear();
+        }
+    }
+
+    private static void expect(String what, Object expected, Object actual) {
+        boolean ok = expected == null ? actual == null : expected.equals(actual);
+        if (!ok) {
+            failures++;
+            System.out.println("FAILED " + what + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    private static final class FakeCache implements TrimmableCache {
+        long size;
+
+        FakeCache(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public long sizeBytes() {
+            return size;
+        }
+
+        @Override
+        public void trimTo(long maxBytes) {
+            size = Math.min(size, maxBytes);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.config.app.ConfigComparator;
+import com.rohit.baselibrary.config.app.ConfigWrapper;
+import com.rohit.baselibrary.config.app.UpdatedConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigComparator on the poll path: one call per update check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigComparatorBenchmark {
+
+    // Distinct String instances, so equals() compares characters instead of short-circuiting
+    @Param({"same", "different"})
+    public String latest;
+
+    private final ConfigComparator comparator = new ConfigComparator();
+    private ConfigWrapper current;
+    private UpdatedConfig update;
+
+    @Setup
+    public void setUp() {
+        current = ConfigFixtures.configWrapper(new String("2026.10.01-build.1842"), 0);
+        String latestVersion = "same".equals(latest)
+                ? new String("2026.10.01-build.1842")
+                : new String("2026.10.01-build.1843");
+        update = ConfigFixtures.updatedConfig(latestVersion, false);
+    }
+
+    @Benchmark
+    public boolean isUpdateAvailable() {
+        return comparator.isUpdateAvailable(current, update);
+    }
+
+    @Benchmark
+    public boolean isForceUpdateRequired() {
+        return comparator.isForceUpdateRequired(update);
+    }
+}
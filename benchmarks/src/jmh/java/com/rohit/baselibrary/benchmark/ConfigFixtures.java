@@ -0,0 +1,64 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.config.app.Blocklist;
+import com.rohit.baselibrary.config.app.Config;
+import com.rohit.baselibrary.config.app.ConfigWrapper;
+import com.rohit.baselibrary.config.app.Devices;
+import com.rohit.baselibrary.config.app.Policy;
+import com.rohit.baselibrary.config.app.UpdateInfo;
+import com.rohit.baselibrary.config.app.UpdatedConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic config payloads shared by the config benchmarks.
+ */
+final class ConfigFixtures {
+
+    private ConfigFixtures() {
+    }
+
+    /**
+     * A config whose every blocklist holds devicesPerList ids ("device-&lt;list&gt;-&lt;n&gt;").
+     */
+    static ConfigWrapper configWrapper(String version, int devicesPerList) {
+        Config config = new Config();
+        config.setConfigVersion(version);
+        config.setLastUpdated("2026-10-01T00:00:00Z");
+        config.setWebHookUrl("https://hooks.example.com/events");
+
+        Devices devices = new Devices();
+        for (Blocklist list : Blocklist.values()) {
+            list.set(devices, deviceIds(list, devicesPerList));
+        }
+
+        ConfigWrapper wrapper = new ConfigWrapper();
+        wrapper.setConfig(config);
+        wrapper.setDevices(devices);
+        return wrapper;
+    }
+
+    static List<String> deviceIds(Blocklist list, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(deviceId(list, i));
+        }
+        return ids;
+    }
+
+    static String deviceId(Blocklist list, int index) {
+        return "device-" + list.name().toLowerCase() + "-" + index;
+    }
+
+    static UpdatedConfig updatedConfig(String latestVersion, boolean forceUpdate) {
+        UpdateInfo updateInfo = new UpdateInfo();
+        updateInfo.setConfigLatestVersion(latestVersion);
+        Policy policy = new Policy();
+        policy.setForceUpdate(forceUpdate);
+        UpdatedConfig updated = new UpdatedConfig();
+        updated.setUpdateCheck(updateInfo);
+        updated.setPolicy(policy);
+        return updated;
+    }
+}
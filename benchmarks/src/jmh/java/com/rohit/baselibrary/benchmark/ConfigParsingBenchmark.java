@@ -0,0 +1,90 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.google.gson.Gson;
+import com.rohit.baselibrary.config.app.Config;
+import com.rohit.baselibrary.config.app.ConfigWrapper;
+import com.rohit.baselibrary.config.app.ConfigWrapperStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading the app config: Gson over the JSON string (what a JSON-in-prefs cache parses on
+ * every start) versus ConfigWrapperStore, both header-only (Config ready, blocklists lazy)
+ * and fully materialised. The save benchmarks include the fsync of the atomic write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigParsingBenchmark {
+
+    @Param({"100", "10000"})
+    public int devicesPerList;
+
+    private final Gson gson = new Gson();
+    private File dir;
+    private ConfigWrapper wrapper;
+    private String json;
+    private ConfigWrapperStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        wrapper = ConfigFixtures.configWrapper("2026.10.01", devicesPerList);
+        json = gson.toJson(wrapper);
+        dir = BenchmarkFiles.createTempDir("configparse");
+        store = new ConfigWrapperStore(new File(dir, "config_wrapper.bin"));
+        store.save(wrapper);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public ConfigWrapper gsonParse() {
+        return gson.fromJson(json, ConfigWrapper.class);
+    }
+
+    @Benchmark
+    public String gsonSerialize() {
+        return gson.toJson(wrapper);
+    }
+
+    @Benchmark
+    public Config binaryLoadHeader() throws IOException {
+        try (ConfigWrapperStore.Snapshot snapshot = store.load()) {
+            return snapshot.getConfig();
+        }
+    }
+
+    @Benchmark
+    public ConfigWrapper binaryLoadFull() throws IOException {
+        try (ConfigWrapperStore.Snapshot snapshot = store.load()) {
+            return snapshot.toConfigWrapper();
+        }
+    }
+
+    @Benchmark
+    public long binarySave() throws IOException {
+        return store.save(wrapper);
+    }
+}
@@ -0,0 +1,88 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.config.app.Blocklist;
+import com.rohit.baselibrary.config.app.ConfigWrapper;
+import com.rohit.baselibrary.config.app.ConfigWrapperStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Is this device blocked?" against one blocklist: a linear List.contains over
+ * Devices (how callers check the parsed JSON model) versus the hash lookup of
+ * ConfigWrapperStore.Snapshot.isBlocked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DevicesLookupBenchmark {
+
+    @Param({"100", "10000"})
+    public int devicesPerList;
+
+    private File dir;
+    private List<String> gpsList;
+    private ConfigWrapperStore.Snapshot snapshot;
+    private String present;
+    private String absent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ConfigWrapper wrapper = ConfigFixtures.configWrapper("1", devicesPerList);
+        gpsList = wrapper.getDevices().getGpsBlockedDevices();
+        present = new String(ConfigFixtures.deviceId(Blocklist.GPS, devicesPerList / 2));
+        absent = "device-gps-unknown";
+
+        dir = BenchmarkFiles.createTempDir("devices");
+        ConfigWrapperStore store = new ConfigWrapperStore(new File(dir, "config_wrapper.bin"));
+        store.save(wrapper);
+        snapshot = store.load();
+        // Build the lookup set outside the measurement
+        snapshot.isBlocked(Blocklist.GPS, absent);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        snapshot.close();
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public boolean listContainsPresent() {
+        return gpsList.contains(present);
+    }
+
+    @Benchmark
+    public boolean listContainsAbsent() {
+        return gpsList.contains(absent);
+    }
+
+    @Benchmark
+    public boolean snapshotIsBlockedPresent() throws IOException {
+        return snapshot.isBlocked(Blocklist.GPS, present);
+    }
+
+    @Benchmark
+    public boolean snapshotIsBlockedAbsent() throws IOException {
+        return snapshot.isBlocked(Blocklist.GPS, absent);
+    }
+}
@@ -0,0 +1,119 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.ConfigBackend;
+import com.rohit.baselibrary.EncryptedConfigBackend;
+import com.rohit.baselibrary.StaticKeyProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * Cost of encryption at rest: EncryptedConfigBackend versus the same in-memory backend in
+ * plaintext, for the cold-start bulk load and a single-key write. Storage is in memory, so
+ * the difference is the HMAC/AES-GCM work alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptedBackendBenchmark {
+
+    @Param({"50"})
+    public int keys;
+
+    private InMemoryBackend plain;
+    private EncryptedConfigBackend encrypted;
+    private Map<String, Object> singlePut;
+    private final Set<String> noRemovals = Collections.emptySet();
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keys; i++) {
+            switch (i % 4) {
+                case 0: values.put("key_" + i, "value for setting number " + i); break;
+                case 1: values.put("key_" + i, i); break;
+                case 2: values.put("key_" + i, (i & 1) == 0); break;
+                default: values.put("key_" + i, (long) i << 32); break;
+            }
+        }
+        plain = new InMemoryBackend();
+        plain.write(false, values, noRemovals);
+
+        // Fixed key bytes so every run encrypts the same way
+        byte[] aesKey = new byte[32];
+        byte[] macKey = new byte[32];
+        for (int i = 0; i < 32; i++) {
+            aesKey[i] = (byte) (i + 1);
+            macKey[i] = (byte) (0x80 + i);
+        }
+        encrypted = new EncryptedConfigBackend(new InMemoryBackend(), new StaticKeyProvider(aesKey, macKey));
+        encrypted.write(false, values, noRemovals).blockingAwait();
+
+        singlePut = Collections.<String, Object>singletonMap("key_0", "updated value");
+    }
+
+    @Benchmark
+    public Map<String, ?> plainLoadAll() {
+        return plain.loadAll();
+    }
+
+    @Benchmark
+    public Map<String, ?> encryptedLoadAll() {
+        return encrypted.loadAll();
+    }
+
+    @Benchmark
+    public void plainWrite() {
+        plain.write(false, singlePut, noRemovals).blockingAwait();
+    }
+
+    @Benchmark
+    public void encryptedWrite() {
+        encrypted.write(false, singlePut, noRemovals).blockingAwait();
+    }
+
+    /**
+     * Backend over a map; loadAll copies it like a real backend reading from disk would.
+     */
+    static final class InMemoryBackend implements ConfigBackend {
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+        @Override
+        public Map<String, ?> loadAll() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public Completable write(boolean clearFirst, Map<String, Object> puts, Set<String> removals) {
+            if (clearFirst) {
+                values.clear();
+            }
+            values.putAll(puts);
+            for (String key : removals) {
+                values.remove(key);
+            }
+            return Completable.complete();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.threading.executor.AdaptiveThreadPool;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pools compared by the executor benchmarks, sized like ExecutorServiceWrapper's IO lane.
+ */
+final class ExecutorPools {
+
+    static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private ExecutorPools() {
+    }
+
+    /**
+     * @param kind "adaptive" (the IO lane: one thread per core, up to 4x) or "fixed"
+     *             (one thread per core, the lane before 027).
+     */
+    static ExecutorService create(String kind) {
+        switch (kind) {
+            case "adaptive":
+                // Shorter tuning interval than production so it converges within a trial
+                return new AdaptiveThreadPool("bench", CORES, Math.max(8, CORES * 4), 200, TimeUnit.MILLISECONDS);
+            case "fixed":
+                return Executors.newFixedThreadPool(CORES);
+            default:
+                throw new IllegalArgumentException("Unknown pool " + kind);
+        }
+    }
+
+    static void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
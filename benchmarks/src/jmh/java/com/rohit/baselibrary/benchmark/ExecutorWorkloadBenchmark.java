@@ -0,0 +1,79 @@
+package com.rohit.baselibrary.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batches of CPU-bound, blocking and mixed tasks on the adaptive IO lane versus a fixed
+ * one-thread-per-core pool. The adaptive pool should match the fixed one on "cpu" and beat
+ * it on "io" and "mixed", where extra threads hide the blocking time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorWorkloadBenchmark {
+
+    private static final int BATCH = 64;
+    // About 50 us of arithmetic on a desktop core
+    private static final long CPU_TOKENS = 20_000;
+    private static final long BLOCK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    @Param({"adaptive", "fixed"})
+    public String pool;
+
+    @Param({"cpu", "io", "mixed"})
+    public String workload;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = ExecutorPools.create(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        ExecutorPools.shutdown(executor);
+    }
+
+    /**
+     * Time per task, measured over a batch submitted at once.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void batch() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            boolean blocking = "io".equals(workload) || ("mixed".equals(workload) && (i & 1) == 0);
+            executor.execute(blocking ? () -> {
+                LockSupport.parkNanos(BLOCK_NANOS);
+                done.countDown();
+            } : () -> {
+                Blackhole.consumeCPU(CPU_TOKENS);
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
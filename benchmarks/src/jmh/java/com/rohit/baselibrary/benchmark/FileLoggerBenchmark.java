@@ -0,0 +1,60 @@
+package com.rohit.baselibrary.benchmark;
+
+import android.content.Context;
+
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+import com.rohit.baselibrary.utils.FileLogger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileLogger.log: timestamp formatting, rotation check and one file append per line.
+ * metrics=false shows what the 043 instrumentation costs on this path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileLoggerBenchmark {
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private File dir;
+    private FileLogger logger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MetricsRegistry.setEnabled(metrics);
+        dir = BenchmarkFiles.createTempDir("filelogger");
+        logger = new FileLogger(new Context(dir), "bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MetricsRegistry.setEnabled(true);
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void logInfo() {
+        logger.logInfo("config refreshed: version=42 keys=118 took=37ms");
+    }
+}
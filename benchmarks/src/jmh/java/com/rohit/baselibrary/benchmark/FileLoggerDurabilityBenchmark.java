@@ -0,0 +1,81 @@
+package com.rohit.baselibrary.benchmark;
+
+import android.content.Context;
+
+import com.rohit.baselibrary.utils.FileLogger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lines per millisecond for each FileLogger durability mode, with one writer and with four
+ * writers sharing a logger. GROUP_COMMIT gains from the second: one force() acknowledges
+ * every writer that arrived while the previous one ran.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class FileLoggerDurabilityBenchmark {
+
+    @Param({"NONE", "PERIODIC", "GROUP_COMMIT"})
+    public FileLogger.Durability durability;
+
+    private File dir;
+    private FileLogger logger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = BenchmarkFiles.createTempDir("durability");
+        logger = new FileLogger(new Context(dir), "bench");
+        logger.setDurability(durability);
+    }
+
+    // NONE writes tens of MB per second; start every iteration from an empty directory
+    @TearDown(Level.Iteration)
+    public void clearFiles() throws IOException {
+        logger.close();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                BenchmarkFiles.deleteRecursively(file);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        logger.close();
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void oneWriter() {
+        logger.logError("config refresh failed: version=42 keys=118 took=37ms");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fourWriters() {
+        logger.logError("config refresh failed: version=42 keys=118 took=37ms");
+    }
+}
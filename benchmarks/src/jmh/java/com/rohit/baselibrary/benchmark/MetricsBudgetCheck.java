@@ -0,0 +1,61 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Enforces the overhead budget of the metrics core: runs {@link MetricsOverheadBenchmark}
+ * and exits with status 1 if an update costs more than
+ * {@link MetricsRegistry#COUNTER_BUDGET_NANOS} / {@link MetricsRegistry#HISTOGRAM_BUDGET_NANOS}
+ * or allocates.
+ *
+ * Contention is capped at the number of cores: with more threads than cores the average time
+ * per op includes time spent descheduled, which is not the cost of the update.
+ */
+public final class MetricsBudgetCheck {
+
+    // gc.alloc.rate.norm is an estimate; anything below this is noise, not a per-op allocation
+    private static final double MAX_ALLOC_BYTES_PER_OP = 1.0;
+
+    private MetricsBudgetCheck() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(MetricsOverheadBenchmark.class.getSimpleName())
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+
+        int failures = 0;
+        System.out.println("Threads: " + threads);
+        for (RunResult run : results) {
+            String method = run.getParams().getBenchmark();
+            long budget = method.endsWith("counterIncrement")
+                    ? MetricsRegistry.COUNTER_BUDGET_NANOS
+                    : MetricsRegistry.HISTOGRAM_BUDGET_NANOS;
+            double nanos = run.getPrimaryResult().getScore();
+            Result<?> alloc = run.getSecondaryResults().get("gc.alloc.rate.norm");
+            double bytes = alloc != null ? alloc.getScore() : 0;
+            boolean ok = nanos <= budget && bytes < MAX_ALLOC_BYTES_PER_OP;
+            if (!ok) {
+                failures++;
+            }
+            System.out.println(String.format(Locale.US, "%-20s enabled=%-5s %8.1f ns/op (budget %d) %6.2f B/op  %s",
+                    method.substring(method.lastIndexOf('.') + 1), run.getParams().getParam("enabled"),
+                    nanos, budget, bytes, ok ? "OK" : "OVER BUDGET"));
+        }
+        System.exit(failures > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.metrics.Counter;
+import com.rohit.baselibrary.metrics.Histogram;
+import com.rohit.baselibrary.metrics.MetricsRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one metric update with four threads hitting the same metric, the case the
+ * overhead budget in MetricsRegistry is defined for. {@link MetricsBudgetCheck} runs this
+ * class and fails when a result exceeds its budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    private final Counter counter = MetricsRegistry.counter("bench.counter");
+    private final Histogram histogram = MetricsRegistry.histogram("bench.histogram_us");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MetricsRegistry.setEnabled(enabled);
+        MetricsRegistry.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MetricsRegistry.setEnabled(true);
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        // Spread over many buckets, as real latencies are
+        histogram.record(ThreadLocalRandom.current().nextInt(1 << 20));
+    }
+}
@@ -0,0 +1,89 @@
+package com.rohit.baselibrary.benchmark;
+
+import android.Manifest;
+
+import androidx.activity.ComponentActivity;
+
+import com.rohit.baselibrary.PermissionManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PermissionManager.getPermissionStatusReport over a typical app's permission list.
+ * "warm" reads from the grant cache; "cold" drops it first, as after ON_RESUME. The grant
+ * checks hit a stubbed Context, so cold numbers show the library's own cost, not the
+ * package manager's binder call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionReportBenchmark {
+
+    private static final List<String> PERMISSIONS = Arrays.asList(
+            Manifest.permission.CAMERA,
+            Manifest.permission.RECORD_AUDIO,
+            Manifest.permission.ACCESS_FINE_LOCATION,
+            Manifest.permission.ACCESS_BACKGROUND_LOCATION,
+            Manifest.permission.READ_CONTACTS,
+            Manifest.permission.POST_NOTIFICATIONS,
+            Manifest.permission.BLUETOOTH_CONNECT,
+            Manifest.permission.BLUETOOTH_SCAN,
+            Manifest.permission.READ_MEDIA_IMAGES,
+            Manifest.permission.READ_MEDIA_VIDEO,
+            Manifest.permission.READ_MEDIA_AUDIO,
+            Manifest.permission.SYSTEM_ALERT_WINDOW,
+            Manifest.permission.WRITE_SETTINGS);
+
+    @Param({"warm", "cold"})
+    public String cache;
+
+    private File dir;
+    private PermissionManager manager;
+    private boolean cold;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dir = BenchmarkFiles.createTempDir("permissions");
+        ComponentActivity activity = new ComponentActivity(dir);
+        // Every other permission granted, so both status branches are taken
+        for (int i = 0; i < PERMISSIONS.size(); i += 2) {
+            activity.grant(PERMISSIONS.get(i));
+        }
+        manager = new PermissionManager(activity, null);
+        cold = "cold".equals(cache);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public Map<String, String> statusReport() {
+        if (cold) {
+            manager.invalidateCache();
+        }
+        return manager.getPermissionStatusReport(PERMISSIONS);
+    }
+}
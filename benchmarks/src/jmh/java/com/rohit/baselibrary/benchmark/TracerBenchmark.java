@@ -0,0 +1,59 @@
+package com.rohit.baselibrary.benchmark;
+
+import com.rohit.baselibrary.tracing.Tracer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one begin/end pair and one async span, with tracing off (the production default)
+ * and on. Rings wrap continuously here, which is the steady state of a long trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Tracer.clear();
+        Tracer.setEnabled(enabled);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Tracer.setEnabled(false);
+        Tracer.clear();
+    }
+
+    @Benchmark
+    public void span() {
+        Tracer.begin("bench.span", "detail");
+        Tracer.end();
+    }
+
+    @Benchmark
+    public void asyncSpan() {
+        long id = Tracer.beginAsync("bench.async");
+        Tracer.endAsync("bench.async", id);
+    }
+}
@@ -0,0 +1,36 @@
+package android;
+
+/**
+ * JVM stand-in for android.Manifest (the permission names the library refers to).
+ */
+public final class Manifest {
+
+    private Manifest() {
+    }
+
+    public static final class permission {
+        public static final String ACCESS_BACKGROUND_LOCATION = "android.permission.ACCESS_BACKGROUND_LOCATION";
+        public static final String ACCESS_COARSE_LOCATION = "android.permission.ACCESS_COARSE_LOCATION";
+        public static final String ACCESS_FINE_LOCATION = "android.permission.ACCESS_FINE_LOCATION";
+        public static final String ACCESS_WIFI_STATE = "android.permission.ACCESS_WIFI_STATE";
+        public static final String BLUETOOTH_CONNECT = "android.permission.BLUETOOTH_CONNECT";
+        public static final String BLUETOOTH_SCAN = "android.permission.BLUETOOTH_SCAN";
+        public static final String CAMERA = "android.permission.CAMERA";
+        public static final String CHANGE_WIFI_STATE = "android.permission.CHANGE_WIFI_STATE";
+        public static final String FOREGROUND_SERVICE_CAMERA = "android.permission.FOREGROUND_SERVICE_CAMERA";
+        public static final String FOREGROUND_SERVICE_LOCATION = "android.permission.FOREGROUND_SERVICE_LOCATION";
+        public static final String FOREGROUND_SERVICE_MICROPHONE = "android.permission.FOREGROUND_SERVICE_MICROPHONE";
+        public static final String POST_NOTIFICATIONS = "android.permission.POST_NOTIFICATIONS";
+        public static final String READ_CONTACTS = "android.permission.READ_CONTACTS";
+        public static final String READ_EXTERNAL_STORAGE = "android.permission.READ_EXTERNAL_STORAGE";
+        public static final String READ_MEDIA_AUDIO = "android.permission.READ_MEDIA_AUDIO";
+        public static final String READ_MEDIA_IMAGES = "android.permission.READ_MEDIA_IMAGES";
+        public static final String READ_MEDIA_VIDEO = "android.permission.READ_MEDIA_VIDEO";
+        public static final String RECORD_AUDIO = "android.permission.RECORD_AUDIO";
+        public static final String SYSTEM_ALERT_WINDOW = "android.permission.SYSTEM_ALERT_WINDOW";
+        public static final String WRITE_SETTINGS = "android.permission.WRITE_SETTINGS";
+
+        private permission() {
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package android.app;
+
+import android.content.Context;
+
+import java.io.File;
+
+/**
+ * JVM stand-in for android.app.Activity.
+ */
+public class Activity extends Context {
+
+    public Activity(File filesDir) {
+        super(filesDir);
+    }
+}
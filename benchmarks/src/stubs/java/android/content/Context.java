@@ -0,0 +1,63 @@
+package android.content;
+
+import android.content.pm.PackageManager;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JVM stand-in for android.content.Context: a files directory and a set of granted
+ * permissions, which is all the benchmarked code reads.
+ */
+public class Context {
+
+    private final File filesDir;
+    private final Set<String> granted = Collections.synchronizedSet(new HashSet<String>());
+
+    public Context(File filesDir) {
+        this.filesDir = filesDir;
+        filesDir.mkdirs();
+    }
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public File getFilesDir() {
+        return filesDir;
+    }
+
+    public String getPackageName() {
+        return "com.rohit.baselibrary.benchmark";
+    }
+
+    public boolean isDeviceProtectedStorage() {
+        return true;
+    }
+
+    public Context createDeviceProtectedStorageContext() {
+        return this;
+    }
+
+    public int checkSelfPermission(String permission) {
+        return granted.contains(permission) ? PackageManager.PERMISSION_GRANTED : PackageManager.PERMISSION_DENIED;
+    }
+
+    /**
+     * Benchmark setup only: marks a permission (or special access) as granted.
+     */
+    public void grant(String permission) {
+        granted.add(permission);
+    }
+
+    public void startActivity(Intent intent) {
+    }
+
+    public void registerComponentCallbacks(ComponentCallbacks callback) {
+    }
+
+    public void unregisterComponentCallbacks(ComponentCallbacks callback) {
+    }
+}
@@ -0,0 +1,29 @@
+package android.content;
+
+import android.net.Uri;
+
+/**
+ * JVM stand-in for android.content.Intent.
+ */
+public class Intent {
+
+    private final String action;
+    private final Uri data;
+
+    public Intent(String action, Uri data) {
+        this.action = action;
+        this.data = data;
+    }
+
+    public Intent(String action) {
+        this(action, null);
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public Uri getData() {
+        return data;
+    }
+}
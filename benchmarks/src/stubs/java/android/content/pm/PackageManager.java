@@ -0,0 +1,9 @@
+package android.content.pm;
+
+/**
+ * JVM stand-in for android.content.pm.PackageManager (constants only).
+ */
+public abstract class PackageManager {
+    public static final int PERMISSION_GRANTED = 0;
+    public static final int PERMISSION_DENIED = -1;
+}
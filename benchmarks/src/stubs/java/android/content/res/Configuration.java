@@ -0,0 +1,7 @@
+package android.content.res;
+
+/**
+ * JVM stand-in for android.content.res.Configuration; only the type exists.
+ */
+public class Configuration {
+}
@@ -0,0 +1,33 @@
+package android.os;
+
+/**
+ * JVM stand-in for android.os.Build. The simulated API level comes from -Dbench.sdk
+ * (default 34) and is fixed when the class loads, as on a device.
+ */
+public final class Build {
+
+    private Build() {
+    }
+
+    public static final class VERSION {
+        public static final int SDK_INT = Integer.getInteger("bench.sdk", 34);
+
+        private VERSION() {
+        }
+    }
+
+    public static final class VERSION_CODES {
+        public static final int M = 23;
+        public static final int N = 24;
+        public static final int O = 26;
+        public static final int P = 28;
+        public static final int Q = 29;
+        public static final int R = 30;
+        public static final int S = 31;
+        public static final int TIRAMISU = 33;
+        public static final int UPSIDE_DOWN_CAKE = 34;
+
+        private VERSION_CODES() {
+        }
+    }
+}
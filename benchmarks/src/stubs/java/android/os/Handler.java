@@ -0,0 +1,15 @@
+package android.os;
+
+/**
+ * JVM stand-in for android.os.Handler. Runs posted work on the calling thread.
+ */
+public class Handler {
+
+    public Handler(Looper looper) {
+    }
+
+    public boolean post(Runnable r) {
+        r.run();
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * JVM stand-in for android.os.Looper. There is no main thread on the JVM; only the type exists.
+ */
+public final class Looper {
+
+    private static final Looper MAIN = new Looper();
+
+    private Looper() {
+    }
+
+    public static Looper getMainLooper() {
+        return MAIN;
+    }
+}
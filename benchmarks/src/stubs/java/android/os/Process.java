@@ -0,0 +1,14 @@
+package android.os;
+
+/**
+ * JVM stand-in for android.os.Process.
+ */
+public final class Process {
+
+    private Process() {
+    }
+
+    public static int myPid() {
+        return (int) ProcessHandle.current().pid();
+    }
+}
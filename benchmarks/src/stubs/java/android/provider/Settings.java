@@ -0,0 +1,32 @@
+package android.provider;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+
+/**
+ * JVM stand-in for android.provider.Settings. Special access is granted through
+ * {@link Context#grant(String)} with the matching permission name.
+ */
+public final class Settings {
+
+    public static final String ACTION_APPLICATION_DETAILS_SETTINGS = "android.settings.APPLICATION_DETAILS_SETTINGS";
+    public static final String ACTION_MANAGE_OVERLAY_PERMISSION = "android.settings.action.MANAGE_OVERLAY_PERMISSION";
+    public static final String ACTION_MANAGE_WRITE_SETTINGS = "android.settings.action.MANAGE_WRITE_SETTINGS";
+
+    private Settings() {
+    }
+
+    public static boolean canDrawOverlays(Context context) {
+        return context.checkSelfPermission(Manifest.permission.SYSTEM_ALERT_WINDOW) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    public static final class System {
+        private System() {
+        }
+
+        public static boolean canWrite(Context context) {
+            return context.checkSelfPermission(Manifest.permission.WRITE_SETTINGS) == PackageManager.PERMISSION_GRANTED;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package android.util;
+
+/**
+ * JVM stand-in for android.util.Base64, backed by java.util.Base64. Only the flags the library
+ * uses are honoured: URL_SAFE and NO_PADDING. Output never wraps.
+ */
+public final class Base64 {
+
+    public static final int DEFAULT = 0;
+    public static final int NO_PADDING = 1;
+    public static final int NO_WRAP = 2;
+    public static final int URL_SAFE = 8;
+
+    private Base64() {
+    }
+
+    public static String encodeToString(byte[] input, int flags) {
+        java.util.Base64.Encoder encoder = (flags & URL_SAFE) != 0
+                ? java.util.Base64.getUrlEncoder() : java.util.Base64.getEncoder();
+        if ((flags & NO_PADDING) != 0) {
+            encoder = encoder.withoutPadding();
+        }
+        return encoder.encodeToString(input);
+    }
+
+    public static byte[] decode(String str, int flags) {
+        return (flags & URL_SAFE) != 0
+                ? java.util.Base64.getUrlDecoder().decode(str)
+                : java.util.Base64.getDecoder().decode(str);
+    }
+}
@@ -0,0 +1,44 @@
+package android.util;
+
+/**
+ * JVM stand-in for android.util.Log. Discards everything so logging does not distort timings;
+ * set -Dbench.log=true to print to stderr while debugging a benchmark.
+ */
+public final class Log {
+
+    private static final boolean PRINT = Boolean.getBoolean("bench.log");
+
+    private Log() {
+    }
+
+    public static int d(String tag, String msg) {
+        return print("D", tag, msg, null);
+    }
+
+    public static int i(String tag, String msg) {
+        return print("I", tag, msg, null);
+    }
+
+    public static int w(String tag, String msg) {
+        return print("W", tag, msg, null);
+    }
+
+    public static int w(String tag, String msg, Throwable tr) {
+        return print("W", tag, msg, tr);
+    }
+
+    public static int e(String tag, String msg) {
+        return print("E", tag, msg, null);
+    }
+
+    public static int e(String tag, String msg, Throwable tr) {
+        return print("E", tag, msg, tr);
+    }
+
+    private static int print(String level, String tag, String msg, Throwable tr) {
+        if (PRINT) {
+            System.err.println(level + "/" + tag + ": " + msg + (tr != null ? " " + tr : ""));
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,38 @@
+package androidx.activity;
+
+import android.app.Activity;
+
+import androidx.activity.result.ActivityResultCallback;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContract;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.io.File;
+
+/**
+ * JVM stand-in for androidx.activity.ComponentActivity. Launchers record nothing and never
+ * deliver a result; benchmarks drive the lifecycle through {@link #getLifecycle()}.
+ */
+public class ComponentActivity extends Activity implements LifecycleOwner {
+
+    private final Lifecycle lifecycle = new Lifecycle(this);
+
+    public ComponentActivity(File filesDir) {
+        super(filesDir);
+    }
+
+    public <I, O> ActivityResultLauncher<I> registerForActivityResult(
+            ActivityResultContract<I, O> contract, ActivityResultCallback<O> callback) {
+        return new ActivityResultLauncher<I>() {
+            @Override
+            public void launch(I input) {
+            }
+        };
+    }
+
+    @Override
+    public Lifecycle getLifecycle() {
+        return lifecycle;
+    }
+}
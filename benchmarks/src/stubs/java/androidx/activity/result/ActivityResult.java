@@ -0,0 +1,17 @@
+package androidx.activity.result;
+
+/**
+ * JVM stand-in for androidx.activity.result.ActivityResult.
+ */
+public final class ActivityResult {
+
+    private final int resultCode;
+
+    public ActivityResult(int resultCode) {
+        this.resultCode = resultCode;
+    }
+
+    public int getResultCode() {
+        return resultCode;
+    }
+}
@@ -0,0 +1,8 @@
+package androidx.activity.result;
+
+/**
+ * JVM stand-in for androidx.activity.result.ActivityResultCallback.
+ */
+public interface ActivityResultCallback<O> {
+    void onActivityResult(O result);
+}
@@ -0,0 +1,8 @@
+package androidx.activity.result;
+
+/**
+ * JVM stand-in for androidx.activity.result.ActivityResultLauncher.
+ */
+public abstract class ActivityResultLauncher<I> {
+    public abstract void launch(I input);
+}
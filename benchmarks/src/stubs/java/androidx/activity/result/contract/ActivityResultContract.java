@@ -0,0 +1,7 @@
+package androidx.activity.result.contract;
+
+/**
+ * JVM stand-in for androidx.activity.result.contract.ActivityResultContract (type only).
+ */
+public abstract class ActivityResultContract<I, O> {
+}
@@ -0,0 +1,22 @@
+package androidx.activity.result.contract;
+
+import android.content.Intent;
+
+import androidx.activity.result.ActivityResult;
+
+import java.util.Map;
+
+/**
+ * JVM stand-in for androidx.activity.result.contract.ActivityResultContracts.
+ */
+public final class ActivityResultContracts {
+
+    private ActivityResultContracts() {
+    }
+
+    public static final class RequestMultiplePermissions extends ActivityResultContract<String[], Map<String, Boolean>> {
+    }
+
+    public static final class StartActivityForResult extends ActivityResultContract<Intent, ActivityResult> {
+    }
+}
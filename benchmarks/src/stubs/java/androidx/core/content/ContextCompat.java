@@ -0,0 +1,16 @@
+package androidx.core.content;
+
+import android.content.Context;
+
+/**
+ * JVM stand-in for androidx.core.content.ContextCompat.
+ */
+public final class ContextCompat {
+
+    private ContextCompat() {
+    }
+
+    public static int checkSelfPermission(Context context, String permission) {
+        return context.checkSelfPermission(permission);
+    }
+}
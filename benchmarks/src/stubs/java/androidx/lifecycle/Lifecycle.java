@@ -0,0 +1,36 @@
+package androidx.lifecycle;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * JVM stand-in for androidx.lifecycle.Lifecycle. {@link #dispatch(Event)} lets a benchmark
+ * simulate e.g. ON_RESUME.
+ */
+public class Lifecycle {
+
+    public enum Event {
+        ON_CREATE, ON_START, ON_RESUME, ON_PAUSE, ON_STOP, ON_DESTROY, ON_ANY
+    }
+
+    private final LifecycleOwner owner;
+    private final List<LifecycleEventObserver> observers = new CopyOnWriteArrayList<>();
+
+    public Lifecycle(LifecycleOwner owner) {
+        this.owner = owner;
+    }
+
+    public void addObserver(LifecycleEventObserver observer) {
+        observers.add(observer);
+    }
+
+    public void removeObserver(LifecycleEventObserver observer) {
+        observers.remove(observer);
+    }
+
+    public void dispatch(Event event) {
+        for (LifecycleEventObserver observer : observers) {
+            observer.onStateChanged(owner, event);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package androidx.lifecycle;
+
+/**
+ * JVM stand-in for androidx.lifecycle.LifecycleEventObserver.
+ */
+public interface LifecycleEventObserver {
+    void onStateChanged(LifecycleOwner source, Lifecycle.Event event);
+}
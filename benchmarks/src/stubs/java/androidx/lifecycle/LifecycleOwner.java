@@ -0,0 +1,8 @@
+package androidx.lifecycle;
+
+/**
+ * JVM stand-in for androidx.lifecycle.LifecycleOwner.
+ */
+public interface LifecycleOwner {
+    Lifecycle getLifecycle();
+}
@@ -0,0 +1,18 @@
+package io.reactivex.rxjava3.android.schedulers;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * JVM stand-in for RxAndroid's AndroidSchedulers. There is no main looper on the JVM, so the
+ * "main thread" is RxJava's single scheduler.
+ */
+public final class AndroidSchedulers {
+
+    private AndroidSchedulers() {
+    }
+
+    public static Scheduler mainThread() {
+        return Schedulers.single();
+    }
+}